@@ -1,13 +1,19 @@
 package com.vtouch.auth.config;
 
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTParser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 
@@ -15,8 +21,13 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Base64;
 import java.util.UUID;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
 @Configuration
 public class JwtConfiguration {
 
@@ -26,6 +37,9 @@ public class JwtConfiguration {
     @Value("${auth.service.url:http://localhost:8080}")
     private String authServiceUrl;
 
+    @Value("${auth.service.jwt-secret:}")
+    private String jwtSecret;
+
     @Bean
     public JWKSource<SecurityContext> jwkSource() throws Exception {
         // If external JWKS URI is provided, use it
@@ -55,12 +69,38 @@ public class JwtConfiguration {
 
     @Bean
     public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        // Tokens are verified in-process against the login service's published keys;
+        // the decoder caches the JWK set, so no remote call is made per request.
         // If using external JWKS URI, create decoder with that URI
-        if (jwksUri != null && !jwksUri.isEmpty()) {
-            return NimbusJwtDecoder.withJwkSetUri(jwksUri).build();
+        String jwkSetUri = jwksUri != null && !jwksUri.isEmpty()
+                ? jwksUri
+                : authServiceUrl + "/api/.well-known/jwks.json";
+        JwtDecoder asymmetric = withSupportedAlgorithms(NimbusJwtDecoder.withJwkSetUri(jwkSetUri)).build();
+        if (jwtSecret == null || jwtSecret.isEmpty()) {
+            return asymmetric;
         }
-        
-        // Otherwise, use the local JWK source
-        return NimbusJwtDecoder.withJwkSetUri(authServiceUrl + "/.well-known/jwks.json").build();
+
+        // HS256 keys are never published in the JWK set, so the login service's default algorithm
+        // needs the shared secret here (same base64 value as its jwt.secret)
+        SecretKey secretKey = new SecretKeySpec(Base64.getDecoder().decode(jwtSecret), "HmacSHA256");
+        JwtDecoder symmetric = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        return token -> JWSAlgorithm.HS256.equals(headerAlgorithm(token))
+                ? symmetric.decode(token)
+                : asymmetric.decode(token);
+    }
+
+    private static Algorithm headerAlgorithm(String token) {
+        try {
+            return JWTParser.parse(token).getHeader().getAlgorithm();
+        } catch (ParseException e) {
+            throw new BadJwtException("Malformed token: " + e.getMessage(), e);
+        }
+    }
+
+    private NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder withSupportedAlgorithms(NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder) {
+        // EdDSA tokens are not listed: Nimbus needs the optional Tink library to verify Ed25519
+        return builder
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .jwsAlgorithm(SignatureAlgorithm.ES256);
     }
 }
@@ -0,0 +1,102 @@
+package com.vtouch.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loads synthetic login history for load tests; only runs in the {@code loadtest} profile.
+ * Usernames follow the login service's synthetic users ({@code <prefix><index>}), so with the same
+ * {@code synthetic-data} settings the logs refer to users that exist there. Rows are written with JDBC
+ * batches, bypassing JPA, in batches of {@code synthetic-data.batch-size}.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticLoginLogLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticLoginLogLoader.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO login_logs (username, ip_address, user_agent, login_time, success, failure_reason) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36",
+        "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_2) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.2 Safari/605.1.15",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_2 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148",
+        "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Mobile Safari/537.36",
+        "okhttp/4.12.0"
+    };
+    private static final String[] FAILURE_REASONS = {"Bad credentials", "User account is locked", "User is disabled"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long users;
+    private final long loginLogs;
+    private final int batchSize;
+    private final long seed;
+    private final String usernamePrefix;
+    private final long spanSeconds;
+
+    public SyntheticLoginLogLoader(JdbcTemplate jdbcTemplate,
+                                   @Value("${synthetic-data.users:1000000}") long users,
+                                   @Value("${synthetic-data.login-logs:${synthetic-data.users:1000000}}") long loginLogs,
+                                   @Value("${synthetic-data.batch-size:10000}") int batchSize,
+                                   @Value("${synthetic-data.seed:42}") long seed,
+                                   @Value("${synthetic-data.username-prefix:loadtest}") String usernamePrefix,
+                                   @Value("${synthetic-data.logged-over:90d}") Duration loggedOver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.loginLogs = loginLogs;
+        this.batchSize = batchSize;
+        this.seed = seed;
+        this.usernamePrefix = usernamePrefix;
+        this.spanSeconds = loggedOver.toSeconds();
+    }
+
+    @Override
+    public void run(String... args) {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM login_logs WHERE username = ?", Long.class, usernamePrefix + 0);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic login logs already exist. Skipping synthetic data loading.");
+            return;
+        }
+        logger.info("Loading {} synthetic login logs for {} users...", loginLogs, users);
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // Make sure the first user has a row, so a rerun is detected
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (long row = 0; row < loginLogs; row++) {
+            long userIndex = row == 0 ? 0 : random.nextLong(users);
+            // A few attempts name users that do not exist, as credential stuffing would
+            boolean unknownUser = row > 0 && random.nextInt(100) == 0;
+            boolean success = !unknownUser && random.nextInt(100) < 92;
+            batch.add(new Object[] {
+                unknownUser ? "unknown" + random.nextLong(users) : usernamePrefix + userIndex,
+                "10." + random.nextInt(256) + '.' + random.nextInt(256) + '.' + random.nextInt(1, 255),
+                USER_AGENTS[random.nextInt(USER_AGENTS.length)],
+                Timestamp.valueOf(now.minusSeconds(random.nextLong(spanSeconds + 1))),
+                success,
+                success ? null : FAILURE_REASONS[unknownUser ? 0 : random.nextInt(FAILURE_REASONS.length)]
+            });
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        logger.info("Loaded {} synthetic login logs in {} s", loginLogs, (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+}
@@ -2,5 +2,6 @@ package com.vtouch.auth.dto.response;
 
 public record TokenRefreshResponse(
     String accessToken,
+    String refreshToken,
     Long expiresIn
 ) {}
@@ -1,10 +1,11 @@
 package com.vtouch.auth.service;
 
-import com.vtouch.auth.client.AuthClient;
-import com.vtouch.auth.dto.response.ApiResponse;
 import com.vtouch.auth.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,49 +13,53 @@ public class TokenIntrospectionService {
     
     private static final Logger logger = LoggerFactory.getLogger(TokenIntrospectionService.class);
     
-    private final AuthClient authClient;
+    private final JwtDecoder jwtDecoder;
     
-    public TokenIntrospectionService(AuthClient authClient) {
-        this.authClient = authClient;
+    public TokenIntrospectionService(JwtDecoder jwtDecoder) {
+        this.jwtDecoder = jwtDecoder;
     }
     
     /**
-     * Token'ı introspect eder ve geçerli olup olmadığını kontrol eder
+     * Token'ı introspect eder ve geçerli olup olmadığını kontrol eder.
+     * İmza, login servisinin JWKS anahtarlarıyla yerel olarak doğrulanır; uzak çağrı yapılmaz.
      */
     public boolean isTokenValid(String token) {
         try {
             logger.debug("Token introspection for token: {}", token.substring(0, Math.min(10, token.length())) + "...");
             
-            ApiResponse<UserDTO> response = authClient.getCurrentUser("Bearer " + token);
-            
-            if (response.success()) {
-                logger.debug("Token is valid for user: {}", response.data().username());
-                return true;
-            } else {
-                logger.warn("Token validation failed: {}", response.message());
-                return false;
-            }
-        } catch (Exception e) {
-            logger.error("Error during token introspection", e);
+            Jwt jwt = jwtDecoder.decode(token);
+            logger.debug("Token is valid for user: {}", jwt.getSubject());
+            return true;
+        } catch (JwtException e) {
+            logger.warn("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
     
     /**
-     * Token'dan kullanıcı bilgilerini çıkarır
+     * Token'dan kullanıcı bilgilerini çıkarır.
+     * Yalnızca token'da taşınan alanlar doldurulur: id ({@code uid}), username ({@code sub}) ve
+     * enabled ({@code st} == ACTIVE). email, firstName, lastName, createdAt ve updatedAt token'da
+     * yoktur ve her zaman null döner;
+     * bunlar gerekiyorsa login servisinin /auth/me ucu kullanılmalıdır.
      */
     public UserDTO extractUserFromToken(String token) {
         try {
-            ApiResponse<UserDTO> response = authClient.getCurrentUser("Bearer " + token);
+            Jwt jwt = jwtDecoder.decode(token);
+            Number userId = jwt.getClaim("uid");
             
-            if (response.success()) {
-                return response.data();
-            } else {
-                logger.warn("Failed to extract user from token: {}", response.message());
-                return null;
-            }
-        } catch (Exception e) {
-            logger.error("Error extracting user from token", e);
+            return new UserDTO(
+                userId != null ? userId.longValue() : null,
+                jwt.getSubject(),
+                null,
+                null,
+                null,
+                "ACTIVE".equals(jwt.getClaimAsString("st")),
+                null,
+                null
+            );
+        } catch (JwtException e) {
+            logger.warn("Failed to extract user from token: {}", e.getMessage());
             return null;
         }
     }
@@ -0,0 +1,14 @@
+package com.vtouch.login.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables key store properties and the scheduled key ring refresh
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(JwtKeyStoreProperties.class)
+public class JwtKeyRingConfig {
+}
@@ -0,0 +1,33 @@
+package com.vtouch.login.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Signing key store settings.
+ * Each key entry's alias is used as its {@code kid}. A key becomes active at its scheduled
+ * activation time, or at the entry's creation date plus {@code activationDelay} when no
+ * schedule is given, so other services can fetch the new public key before it is used.
+ */
+@ConfigurationProperties(prefix = "jwt.keystore")
+public record JwtKeyStoreProperties(
+        String location,
+        String password,
+        String type,
+        Duration activationDelay,
+        Map<String, Instant> activations
+) {
+
+    public JwtKeyStoreProperties {
+        type = type != null ? type : "PKCS12";
+        activationDelay = activationDelay != null ? activationDelay : Duration.ofMinutes(10);
+        activations = activations != null ? Map.copyOf(activations) : Map.of();
+    }
+
+    public boolean isConfigured() {
+        return location != null && !location.isBlank();
+    }
+}
@@ -1,15 +1,54 @@
 package com.vtouch.login.config;
 
+import com.vtouch.login.security.BCryptCostCalibrator;
+import com.vtouch.login.security.ExecutorPasswordEncoder;
+import com.vtouch.login.security.PasswordHashingExecutor;
+import com.vtouch.login.security.TargetCostBCryptPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class PasswordEncoderConfig {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String BCRYPT_ID = "bcrypt";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${password-hashing.bcrypt.cost:0}") int cost,
+                                           @Value("${password-hashing.bcrypt.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${password-hashing.bcrypt.min-cost:10}") int minCost,
+                                           @Value("${password-hashing.bcrypt.max-cost:14}") int maxCost) {
+        int targetCost = cost;
+        if (targetCost <= 0) {
+            targetCost = BCryptCostCalibrator.calibrate(targetLatency, minCost, maxCost);
+            logger.info("Calibrated BCrypt cost {} for a {} ms budget", targetCost, targetLatency.toMillis());
+        } else {
+            logger.info("Using configured BCrypt cost {}", targetCost);
+        }
+        int effectiveCost = targetCost;
+        Gauge.builder("password.hashing.bcrypt.cost", () -> effectiveCost)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+
+        // Hashes carry their algorithm as a {bcrypt} prefix and their cost in the BCrypt salt;
+        // hashes stored before the prefix was introduced are still verified as BCrypt
+        TargetCostBCryptPasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(targetCost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // BCrypt runs on the bounded hashing executor, never directly on servlet threads
+        return new ExecutorPasswordEncoder(delegating, passwordHashingExecutor, meterRegistry);
     }
-} 
\ No newline at end of file
+}
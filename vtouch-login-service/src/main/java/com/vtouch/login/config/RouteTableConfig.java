@@ -0,0 +1,92 @@
+package com.vtouch.login.config;
+
+import com.vtouch.login.security.RouteTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+import static com.vtouch.login.security.RouteAccess.authenticated;
+import static com.vtouch.login.security.RouteAccess.hasAnyRole;
+import static com.vtouch.login.security.RouteAccess.permitAll;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PATCH;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpMethod.PUT;
+
+/**
+ * Single source of route authorization rules, shared by the JWT filter and the security filter chain.
+ * Patterns are relative to the servlet context path.
+ */
+@Configuration
+@EnableConfigurationProperties(SecurityProperties.class)
+public class RouteTableConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteTableConfig.class);
+
+    @Bean
+    public RouteTable routeTable(SecurityProperties securityProperties) {
+        List<String> publicEndpoints = securityProperties.publicEndpoints() != null
+                ? securityProperties.publicEndpoints() : List.of();
+
+        RouteTable routeTable = RouteTable.builder()
+                // Public endpoints (no authentication required)
+                .permitAll(publicEndpoints)
+                .route("/simple/hello", permitAll())
+
+                // Under /auth/** but needs the caller's identity, so the JWT filter must run
+                .route(GET, "/auth/me", authenticated())
+
+                // Admin-only endpoints
+                .route(POST, "/users", hasAnyRole("ADMIN", "USER"))
+                .route(POST, "/users/import", hasAnyRole("ADMIN"))
+                .route(GET, "/users/export", hasAnyRole("ADMIN"))
+                .route(PATCH, "/users/bulk/role", hasAnyRole("ADMIN"))
+                .route(POST, "/users/bulk/delete", hasAnyRole("ADMIN"))
+                .route(PATCH, "/users/*/role", hasAnyRole("ADMIN"))
+                .route(GET, "/users/*", hasAnyRole("ADMIN"))
+                .route(PUT, "/users/*", hasAnyRole("ADMIN"))
+                .route(DELETE, "/users/*", hasAnyRole("ADMIN"))
+
+                // Admin and Moderator endpoints
+                .route(GET, "/users", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/search", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/statistics", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/recent", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(PATCH, "/users/*/status", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(PATCH, "/users/bulk/status", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/by-status/*", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/by-role/*", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/cursor", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/search/cursor", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/recent/cursor", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/by-status/*/cursor", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/users/by-role/*/cursor", hasAnyRole("ADMIN", "MODERATOR"))
+
+                // Any authenticated user
+                .route(GET, "/users/username/*", authenticated())
+
+                // Security examples (for testing)
+                .route(GET, "/api/security-examples/admin-only", hasAnyRole("ADMIN"))
+                .route(GET, "/api/security-examples/admin-or-moderator", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(GET, "/api/security-examples/no-users", hasAnyRole("ADMIN", "MODERATOR"))
+
+                // Security test endpoints (for testing centralized security)
+                .route(GET, "/api/test/admin-only", hasAnyRole("ADMIN"))
+                .route(GET, "/api/test/admin-or-moderator", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(POST, "/api/test/method-test", hasAnyRole("ADMIN"))
+                .route(PUT, "/api/test/method-test", hasAnyRole("ADMIN", "MODERATOR"))
+                .route(DELETE, "/api/test/method-test", hasAnyRole("ADMIN"))
+
+                // All other endpoints require authentication
+                .defaultAccess(authenticated())
+                .build();
+
+        logger.info("Compiled {} route authorization rules", routeTable.size());
+        return routeTable;
+    }
+}
@@ -0,0 +1,216 @@
+package com.vtouch.login.config;
+
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.service.LocationCacheService;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a configurable number of synthetic users for load tests, so query plans, caches and filters can be
+ * exercised at production size. Only runs in the {@code loadtest} profile.
+ * <p>
+ * Users come from {@link SyntheticUserGenerator} and share one password hash computed at startup, so loading
+ * costs no BCrypt per row. Rows go straight to the database with PostgreSQL {@code COPY} (or JDBC batches on
+ * other databases), in batches of {@code synthetic-data.batch-size}; memory stays flat at any size. With Redis
+ * enabled, a share of the users also get a cached location. The load is skipped if the first synthetic user
+ * already exists.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+    private static final String COLUMNS =
+            "id, username, email, password, first_name, last_name, phone_number, status, role, created_at, updated_at, version";
+    /** Margin kept above the loaded IDs on databases without setval; at least the users_id_seq allocation size */
+    private static final long SEQUENCE_MARGIN = 50;
+    private static final double[][] CITIES = {
+        {41.0082, 28.9784}, {39.9334, 32.8597}, {38.4237, 27.1428}, {40.4168, -3.7038}, {41.3874, 2.1686},
+        {51.5072, -0.1276}, {40.7128, -74.0060}, {52.5200, 13.4050}, {48.8566, 2.3522}, {36.8969, 30.7133}
+    };
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectProvider<LocationCacheService> locationCacheService;
+    private final long users;
+    private final int batchSize;
+    private final String password;
+    private final double locationShare;
+    private final long locationTtlMinutes;
+    private final SyntheticUserGenerator generator;
+
+    public SyntheticDataLoader(DataSource dataSource,
+                               JdbcTemplate jdbcTemplate,
+                               UserRepository userRepository,
+                               PasswordEncoder passwordEncoder,
+                               ObjectProvider<LocationCacheService> locationCacheService,
+                               @Value("${synthetic-data.users:1000000}") long users,
+                               @Value("${synthetic-data.batch-size:10000}") int batchSize,
+                               @Value("${synthetic-data.seed:42}") long seed,
+                               @Value("${synthetic-data.username-prefix:loadtest}") String usernamePrefix,
+                               @Value("${synthetic-data.password:Password123!}") String password,
+                               @Value("${synthetic-data.created-over:1825d}") Duration createdOver,
+                               @Value("${synthetic-data.location-share:0.5}") double locationShare,
+                               @Value("${synthetic-data.location-ttl-minutes:1440}") long locationTtlMinutes) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.locationCacheService = locationCacheService;
+        this.users = users;
+        this.batchSize = batchSize;
+        this.password = password;
+        this.locationShare = locationShare;
+        this.locationTtlMinutes = locationTtlMinutes;
+        this.generator = new SyntheticUserGenerator(seed, usernamePrefix, LocalDateTime.now(), createdOver);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (userRepository.existsByUsername(generator.username(0))) {
+            logger.info("Synthetic users already exist. Skipping synthetic data loading.");
+            return;
+        }
+        logger.info("Loading {} synthetic users...", users);
+        long startedAt = System.nanoTime();
+
+        // One BCrypt round for all users
+        String passwordHash = passwordEncoder.encode(password);
+        long firstId;
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                firstId = reserveIds();
+                copyUsers(connection.unwrap(PGConnection.class).getCopyAPI(), firstId, passwordHash);
+            } else {
+                firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class) + 1;
+                batchInsertUsers(firstId, passwordHash);
+                advanceSequence(firstId + users - 1);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        logger.info("Loaded {} synthetic users in {} s", users, (System.nanoTime() - startedAt) / 1_000_000_000);
+
+        LocationCacheService locations = locationCacheService.getIfAvailable();
+        if (locations != null && locationShare > 0) {
+            cacheLocations(locations, firstId);
+        }
+    }
+
+    private void copyUsers(CopyManager copyManager, long firstId, String passwordHash) throws Exception {
+        String sql = "COPY users (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+        StringBuilder rows = new StringBuilder(batchSize * 200);
+        for (long from = 0; from < users; from += batchSize) {
+            long to = Math.min(users, from + batchSize);
+            rows.setLength(0);
+            for (long index = from; index < to; index++) {
+                // Generated values never contain commas, quotes or line breaks
+                SyntheticUserGenerator.SyntheticUser user = generator.user(index);
+                rows.append(firstId + index).append(',')
+                        .append(user.username()).append(',')
+                        .append(user.email()).append(',')
+                        .append(passwordHash).append(',')
+                        .append(user.firstName()).append(',')
+                        .append(user.lastName()).append(',')
+                        .append(user.phoneNumber() != null ? user.phoneNumber() : "").append(',')
+                        .append(user.status()).append(',')
+                        .append(user.role()).append(',')
+                        .append(user.createdAt()).append(',')
+                        .append(user.updatedAt()).append(",0\n");
+            }
+            copyManager.copyIn(sql, new StringReader(rows.toString()));
+            logProgress(to);
+        }
+    }
+
+    private void batchInsertUsers(long firstId, String passwordHash) {
+        String sql = "INSERT INTO users (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        for (long from = 0; from < users; from += batchSize) {
+            long to = Math.min(users, from + batchSize);
+            List<Object[]> batch = new ArrayList<>((int) (to - from));
+            for (long index = from; index < to; index++) {
+                SyntheticUserGenerator.SyntheticUser user = generator.user(index);
+                batch.add(new Object[] {
+                    firstId + index, user.username(), user.email(), passwordHash, user.firstName(), user.lastName(),
+                    user.phoneNumber(), user.status().name(), user.role().name(),
+                    Timestamp.valueOf(user.createdAt()), Timestamp.valueOf(user.updatedAt())
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+            logProgress(to);
+        }
+    }
+
+    /**
+     * Reserve a block of IDs from users_id_seq in one statement. IDs already handed out, including blocks
+     * Hibernate's pooled optimizer holds but has not used yet, lie at or below the nextval result, so the block
+     * after it is free, and the sequence continues past the block for everyone else
+     * @return First reserved ID
+     */
+    private long reserveIds() {
+        long lastId = jdbcTemplate.queryForObject("SELECT setval('users_id_seq', nextval('users_id_seq') + ?)",
+                Long.class, users);
+        return lastId - users + 1;
+    }
+
+    /**
+     * Move users_id_seq past the loaded IDs so IDs handed out by Hibernate do not collide with them
+     */
+    private void advanceSequence(long lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE users_id_seq RESTART WITH " + (lastId + SEQUENCE_MARGIN));
+    }
+
+    private void cacheLocations(LocationCacheService locations, long firstId) {
+        SplittableRandom random = new SplittableRandom(users);
+        List<LocationCacheService.UserLocation> batch = new ArrayList<>(batchSize);
+        long cached = 0;
+        for (long index = 0; index < users; index++) {
+            if (random.nextDouble() >= locationShare) {
+                continue;
+            }
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            batch.add(new LocationCacheService.UserLocation(String.valueOf(firstId + index),
+                    city[0] + random.nextDouble(-0.2, 0.2), city[1] + random.nextDouble(-0.2, 0.2)));
+            if (batch.size() == batchSize) {
+                locations.cacheUserLocations(batch, locationTtlMinutes);
+                cached += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            locations.cacheUserLocations(batch, locationTtlMinutes);
+            cached += batch.size();
+        }
+        logger.info("Cached locations for {} synthetic users", cached);
+    }
+
+    private void logProgress(long loaded) {
+        if (loaded == users || loaded % (batchSize * 10L) == 0) {
+            logger.info("  {} / {} synthetic users loaded", loaded, users);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.vtouch.login.config;
+
+import com.vtouch.login.entity.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic-looking users for load tests.
+ * Every user is derived from the seed and its index alone, so any range can be generated independently
+ * and a rerun with the same settings produces the same data. Usernames are {@code <prefix><index>}, which
+ * lets other services generate activity for the same users without sharing state.
+ */
+public class SyntheticUserGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Mehmet", "Ayşe", "Mustafa", "Fatma", "Ahmet", "Emine", "Ali", "Hatice", "Hüseyin", "Zeynep",
+        "Murat", "Elif", "Emre", "Merve", "Burak", "Büşra", "Can", "Selin", "Deniz", "Ece",
+        "José", "María", "Antonio", "Carmen", "Manuel", "Lucía", "Javier", "Laura", "Pablo", "Sofía"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Wilson", "Anderson",
+        "Taylor", "Thomas", "Moore", "Martin", "Jackson", "Thompson", "White", "Harris", "Clark", "Lewis",
+        "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+        "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt", "Özkan", "Şimşek",
+        "Fernández", "González", "Rodríguez", "López", "Martínez", "Sánchez", "Pérez", "Gómez", "Díaz", "Ruiz"
+    };
+
+    private static final String[] EMAIL_DOMAINS = {
+        "gmail.com", "outlook.com", "yahoo.com", "hotmail.com", "icloud.com", "proton.me", "example.com", "example.org"
+    };
+
+    private final long seed;
+    private final String usernamePrefix;
+    private final LocalDateTime now;
+    private final long spanSeconds;
+
+    /**
+     * @param seed Seed shared by every generated user
+     * @param usernamePrefix Prefix of generated usernames
+     * @param now End of the creation-date range
+     * @param span Length of the creation-date range, ending at {@code now}
+     */
+    public SyntheticUserGenerator(long seed, String usernamePrefix, LocalDateTime now, Duration span) {
+        this.seed = seed;
+        this.usernamePrefix = usernamePrefix;
+        this.now = now;
+        this.spanSeconds = span.toSeconds();
+    }
+
+    /**
+     * Generated user
+     */
+    public record SyntheticUser(long index, String username, String email, String firstName, String lastName,
+                                String phoneNumber, User.UserStatus status, User.UserRole role,
+                                LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Username of the user at an index
+     * @param index Zero-based index
+     * @return Username
+     */
+    public String username(long index) {
+        return usernamePrefix + index;
+    }
+
+    /**
+     * Generate the user at an index
+     * @param index Zero-based index
+     * @return Generated user; the same for the same seed and index
+     */
+    public SyntheticUser user(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String email = asciiLower(firstName) + '.' + asciiLower(lastName) + '.' + index
+                + '@' + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        String phoneNumber = random.nextInt(100) < 60
+                ? "+90" + (5_000_000_000L + random.nextLong(1_000_000_000L))
+                : null;
+
+        // Sign-ups grow over time: the square root skews creation dates towards the present
+        long ageSeconds = (long) (spanSeconds * (1 - Math.sqrt(random.nextDouble())));
+        LocalDateTime createdAt = now.minusSeconds(ageSeconds);
+        LocalDateTime updatedAt = createdAt.plusSeconds(random.nextLong(ageSeconds + 1));
+
+        return new SyntheticUser(index, username(index), email, firstName, lastName, phoneNumber,
+                status(random.nextInt(100)), role(random.nextInt(1000)), createdAt, updatedAt);
+    }
+
+    private static User.UserStatus status(int percentile) {
+        if (percentile < 85) {
+            return User.UserStatus.ACTIVE;
+        }
+        if (percentile < 93) {
+            return User.UserStatus.INACTIVE;
+        }
+        return percentile < 97 ? User.UserStatus.SUSPENDED : User.UserStatus.DELETED;
+    }
+
+    private static User.UserRole role(int permille) {
+        if (permille < 5) {
+            return User.UserRole.ADMIN;
+        }
+        return permille < 40 ? User.UserRole.MODERATOR : User.UserRole.USER;
+    }
+
+    private static String asciiLower(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        StringBuilder ascii = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            ascii.append(switch (c) {
+                case 'ç' -> 'c';
+                case 'ğ' -> 'g';
+                case 'ı' -> 'i';
+                case 'ö', 'ó' -> 'o';
+                case 'ş' -> 's';
+                case 'ü', 'ú' -> 'u';
+                case 'á' -> 'a';
+                case 'é' -> 'e';
+                case 'í' -> 'i';
+                case 'ñ' -> 'n';
+                default -> c;
+            });
+        }
+        return ascii.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.vtouch.login.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables per-client token mode properties
+ */
+@Configuration
+@EnableConfigurationProperties(TokenModeProperties.class)
+public class TokenModeConfig {
+}
@@ -0,0 +1,40 @@
+package com.vtouch.login.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Access token format per client.
+ * Clients identify themselves through {@code clientHeader}; clients not listed in {@code clients}
+ * get {@code defaultMode}.
+ */
+@ConfigurationProperties(prefix = "jwt.token-mode")
+public record TokenModeProperties(
+        TokenMode defaultMode,
+        String clientHeader,
+        Map<String, TokenMode> clients
+) {
+
+    public enum TokenMode {
+        /** Self-contained signed JWT */
+        JWT,
+        /** Short random handle resolved against the reference token store */
+        OPAQUE
+    }
+
+    public TokenModeProperties {
+        defaultMode = defaultMode != null ? defaultMode : TokenMode.JWT;
+        clientHeader = clientHeader != null ? clientHeader : "X-Client-Id";
+        clients = clients != null ? Map.copyOf(clients) : Map.of();
+    }
+
+    /**
+     * Resolve the token mode for a client
+     * @param clientId Client ID from the request, may be null
+     * @return Token mode
+     */
+    public TokenMode modeFor(String clientId) {
+        return clientId != null ? clients.getOrDefault(clientId, defaultMode) : defaultMode;
+    }
+}
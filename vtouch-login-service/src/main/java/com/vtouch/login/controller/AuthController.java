@@ -1,5 +1,6 @@
 package com.vtouch.login.controller;
 
+import com.vtouch.login.config.TokenModeProperties;
 import com.vtouch.login.dto.UserDTO;
 import com.vtouch.login.dto.request.LoginRequest;
 import com.vtouch.login.dto.request.RegisterRequest;
@@ -7,14 +8,26 @@ import com.vtouch.login.dto.request.TokenRefreshRequest;
 import com.vtouch.login.dto.response.ApiResponse;
 import com.vtouch.login.dto.response.LoginResponse;
 import com.vtouch.login.dto.response.TokenRefreshResponse;
+import com.vtouch.login.dto.response.UsernameAvailabilityResponse;
 import com.vtouch.login.entity.User;
 import com.vtouch.login.exception.InvalidCredentialsException;
 import com.vtouch.login.exception.InvalidTokenException;
+import com.vtouch.login.security.PasswordHashingExecutor;
+import com.vtouch.login.security.ReferenceTokenService;
+import com.vtouch.login.security.RefreshTokenService;
+import com.vtouch.login.security.RequestCompletionExecutor;
+import com.vtouch.login.security.TokenPrincipal;
+import com.vtouch.login.security.TokenRevocationService;
+import com.vtouch.login.security.ValidatedToken;
+import com.vtouch.login.security.VerifiedTokenCache;
 import com.vtouch.login.service.JwtService;
 import com.vtouch.login.service.UserService;
+import com.vtouch.login.service.UsernameAvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,63 +37,102 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @Tag(name = "Authentication", description = "Authentication and user management endpoints")
 public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
     
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final ReferenceTokenService referenceTokenService;
+    private final TokenModeProperties tokenModeProperties;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RequestCompletionExecutor requestCompletionExecutor;
+    private final UsernameAvailabilityService usernameAvailabilityService;
     
     public AuthController(AuthenticationManager authenticationManager,
                          UserService userService,
-                         JwtService jwtService) {
+                         JwtService jwtService,
+                         VerifiedTokenCache verifiedTokenCache,
+                         TokenRevocationService tokenRevocationService,
+                         RefreshTokenService refreshTokenService,
+                         ReferenceTokenService referenceTokenService,
+                         TokenModeProperties tokenModeProperties,
+                         PasswordEncoder passwordEncoder,
+                         PasswordHashingExecutor passwordHashingExecutor,
+                         RequestCompletionExecutor requestCompletionExecutor,
+                         UsernameAvailabilityService usernameAvailabilityService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.referenceTokenService = referenceTokenService;
+        this.tokenModeProperties = tokenModeProperties;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.requestCompletionExecutor = requestCompletionExecutor;
+        this.usernameAvailabilityService = usernameAvailabilityService;
     }
     
     @PostMapping("/login")
-    @Operation(summary = "User login", description = "Authenticate user and return JWT tokens")
+    @Operation(summary = "User login", description = "Authenticate user and return an access token (JWT or opaque, per client) and a refresh token")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Login successful"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Invalid credentials"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted; see Retry-After")
     })
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse>>> login(@Valid @RequestBody LoginRequest request,
+                                                                               HttpServletRequest httpRequest) {
         logger.info("Login attempt for user: {}", request.username());
+        String clientId = httpRequest.getHeader(tokenModeProperties.clientHeader());
         
-        try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-            );
-            
-            User user = (User) authentication.getPrincipal();
-            
-            // Generate tokens
-            String accessToken = jwtService.generateToken(user);
-            String refreshToken = jwtService.generateRefreshToken(user);
-            
-            LoginResponse loginResponse = new LoginResponse(
-                accessToken,
-                refreshToken,
-                jwtService.getJwtExpiration() / 1000, // Convert to seconds
-                UserDTO.fromEntity(user)
-            );
-            
-            logger.info("Login successful for user: {}", request.username());
-            return ResponseEntity.ok(ApiResponse.success("Login successful", loginResponse));
-            
-        } catch (AuthenticationException e) {
-            logger.warn("Login failed for user: {} - {}", request.username(), e.getMessage());
-            throw new InvalidCredentialsException();
-        }
+        // The servlet thread is released; the BCrypt check inside authenticate() runs on the hashing executor
+        // while the user lookup and token issuing run on the completion executor
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                // Authenticate user
+                Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password())
+                );
+                
+                User user = (User) authentication.getPrincipal();
+                
+                // Start a refresh token family and bind the access token to it
+                RefreshTokenService.RefreshSession session = refreshTokenService.issue(user);
+                String accessToken = issueAccessToken(clientId, user, session.familyId());
+                
+                LoginResponse loginResponse = new LoginResponse(
+                    accessToken,
+                    session.refreshToken(),
+                    jwtService.getJwtExpiration() / 1000, // Convert to seconds
+                    UserDTO.fromEntity(user)
+                );
+                
+                logger.info("Login successful for user: {}", request.username());
+                return ResponseEntity.ok(ApiResponse.success("Login successful", loginResponse));
+                
+            } catch (AuthenticationException e) {
+                logger.warn("Login failed for user: {} - {}", request.username(), e.getMessage());
+                throw new InvalidCredentialsException();
+            }
+        }, requestCompletionExecutor.withCurrentContext());
     }
     
     @PostMapping("/register")
@@ -88,61 +140,61 @@ public class AuthController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Registration successful"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or user already exists"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Username or email already exists")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Username or email already exists"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted; see Retry-After")
     })
-    public ResponseEntity<ApiResponse<UserDTO>> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<UserDTO>>> register(@Valid @RequestBody RegisterRequest request) {
         logger.info("Registration attempt for user: {}", request.username());
         
-        ApiResponse<UserDTO> response = userService.registerUser(request);
+        // Hash on the hashing executor, then insert on the completion executor with this request's locale
+        return passwordHashingExecutor.submit("register", () -> passwordEncoder.encode(request.password()))
+                .thenApplyAsync(encodedPassword -> {
+                    ApiResponse<UserDTO> response = userService.registerUser(request, encodedPassword);
+                    
+                    logger.info("Registration successful for user: {}", request.username());
+                    return ResponseEntity.status(201).body(response);
+                }, requestCompletionExecutor.withCurrentContext());
+    }
+    
+    @GetMapping("/availability")
+    @Operation(summary = "Check username availability", description = "Advisory check for signup forms; registration still rejects a username taken in the meantime")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Availability checked"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Missing username")
+    })
+    public ResponseEntity<ApiResponse<UsernameAvailabilityResponse>> checkAvailability(
+            @Parameter(description = "Username to check", example = "johndoe")
+            @RequestParam String username) {
+        boolean available = usernameAvailabilityService.isAvailable(username);
         
-        logger.info("Registration successful for user: {}", request.username());
-        return ResponseEntity.status(201).body(response);
+        UsernameAvailabilityResponse response = new UsernameAvailabilityResponse(username, available);
+        return ResponseEntity.ok(ApiResponse.success("Availability checked", response));
     }
     
     @PostMapping("/refresh")
-    @Operation(summary = "Refresh access token", description = "Generate new access token using refresh token")
+    @Operation(summary = "Refresh access token", description = "Exchange a refresh token for a new access token and a new refresh token")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Token refresh successful"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Invalid or expired refresh token"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Invalid, expired or already used refresh token"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request")
     })
-    public ResponseEntity<ApiResponse<TokenRefreshResponse>> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+    public ResponseEntity<ApiResponse<TokenRefreshResponse>> refreshToken(@Valid @RequestBody TokenRefreshRequest request,
+                                                                          HttpServletRequest httpRequest) {
         logger.info("Token refresh attempt");
         
-        try {
-            String refreshToken = request.refreshToken();
-            
-            // Extract username from refresh token
-            String username = jwtService.extractUsername(refreshToken);
-            
-            // Load user details
-            UserDetails userDetails = userService.loadUserByUsername(username);
-            
-            // Validate refresh token
-            if (!jwtService.isTokenValid(refreshToken, userDetails)) {
-                throw new InvalidTokenException("Invalid refresh token");
-            }
-            
-            // Generate new access token
-            String newAccessToken = jwtService.generateToken(userDetails);
-            
-            TokenRefreshResponse tokenResponse = new TokenRefreshResponse(
-                newAccessToken,
-                jwtService.getJwtExpiration() / 1000 // Convert to seconds
-            );
-            
-            logger.info("Token refresh successful for user: {}", username);
-            return ResponseEntity.ok(ApiResponse.success("Token refresh successful", tokenResponse));
-            
-        } catch (Exception e) {
-            logger.warn("Token refresh failed: {}", e.getMessage());
-            
-            if (e instanceof InvalidTokenException) {
-                throw e;
-            } else {
-                throw new InvalidTokenException("Invalid refresh token");
-            }
-        }
+        // Single-use rotation: the presented token is swapped for a new one in one store operation
+        RefreshTokenService.RefreshSession session = refreshTokenService.refresh(request.refreshToken());
+        String clientId = httpRequest.getHeader(tokenModeProperties.clientHeader());
+        String newAccessToken = issueAccessToken(clientId, session.principal(), session.familyId());
+        
+        TokenRefreshResponse tokenResponse = new TokenRefreshResponse(
+            newAccessToken,
+            session.refreshToken(),
+            jwtService.getJwtExpiration() / 1000 // Convert to seconds
+        );
+        
+        logger.info("Token refresh successful for user: {}", session.principal().getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Token refresh successful", tokenResponse));
     }
     
     @GetMapping("/me")
@@ -154,25 +206,71 @@ public class AuthController {
     public ResponseEntity<ApiResponse<UserDTO>> getCurrentUser(Authentication authentication) {
         logger.debug("Getting current user information");
         
-        User user = (User) authentication.getPrincipal();
+        // In claims-only mode the principal is a TokenPrincipal, so load the full profile on demand
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            UserDTO userDTO = userService.getUserByUsername(authentication.getName()).getData();
+            return ResponseEntity.ok(ApiResponse.success("User information retrieved successfully", userDTO));
+        }
         UserDTO userDTO = UserDTO.fromEntity(user);
         
         return ResponseEntity.ok(ApiResponse.success("User information retrieved successfully", userDTO));
     }
     
     @PostMapping("/logout")
-    @Operation(summary = "User logout", description = "Logout the current user (client-side token invalidation)")
+    @Operation(summary = "User logout", description = "Logout the current user and revoke the access token and its refresh tokens server-side")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Logout successful"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Invalid or missing token")
     })
-    public ResponseEntity<ApiResponse<Void>> logout(Authentication authentication) {
-        logger.info("Logout for user: {}", authentication.getName());
+    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
+        // /auth/** bypasses the JWT filter, so the token is verified here rather than read from the security context
+        String token = resolveBearerToken(request);
+        if (token == null) {
+            throw new InvalidTokenException("Missing bearer token");
+        }
         
-        // Note: With stateless JWT, logout is typically handled on the client side
-        // by removing the token from storage. For server-side token invalidation,
-        // you would need to implement a token blacklist mechanism.
+        boolean referenceToken = ReferenceTokenService.isReferenceToken(token);
+        ValidatedToken validatedToken;
+        try {
+            validatedToken = referenceToken ? referenceTokenService.resolve(token) : verifiedTokenCache.verify(token);
+        } catch (Exception e) {
+            logger.warn("Logout with invalid token: {}", e.getMessage());
+            throw new InvalidTokenException("Invalid token");
+        }
+        if (validatedToken == null) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        
+        logger.info("Logout for user: {}", validatedToken.subject());
+        if (referenceToken) {
+            // Deleting the session is immediate on every node
+            referenceTokenService.revoke(token);
+        } else {
+            tokenRevocationService.revoke(validatedToken);
+            verifiedTokenCache.invalidate(token);
+        }
+        refreshTokenService.revokeFamily(validatedToken.claim(JwtService.CLAIM_SESSION_ID, String.class));
         
         return ResponseEntity.ok(ApiResponse.success("Logout successful"));
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Issue an access token in the format configured for the calling client
+     * @param clientId Value of the client header, read on the request thread
+     */
+    private String issueAccessToken(String clientId, UserDetails principal, String familyId) {
+        if (tokenModeProperties.modeFor(clientId) == TokenModeProperties.TokenMode.OPAQUE) {
+            TokenPrincipal tokenPrincipal = principal instanceof User user ? TokenPrincipal.of(user) : (TokenPrincipal) principal;
+            return referenceTokenService.issue(tokenPrincipal, familyId);
+        }
+        return jwtService.generateToken(principal, familyId);
+    }
+    
+    private String resolveBearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(AUTHORIZATION_HEADER);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return authHeader.substring(BEARER_PREFIX.length());
+    }
+}
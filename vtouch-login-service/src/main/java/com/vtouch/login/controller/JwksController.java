@@ -0,0 +1,41 @@
+package com.vtouch.login.controller;
+
+import com.vtouch.login.service.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the public signing keys so other services can verify tokens locally
+ */
+@RestController
+@RequestMapping("/.well-known")
+@Tag(name = "JWKS", description = "Public keys for verifying access tokens")
+public class JwksController {
+
+    private final JwtService jwtService;
+    private final Duration maxAge;
+
+    public JwksController(JwtService jwtService,
+                          @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.jwtService = jwtService;
+        this.maxAge = maxAge;
+    }
+
+    @GetMapping("/jwks.json")
+    @Operation(summary = "JSON Web Key Set", description = "Returns the public keys used to sign access tokens")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(Map.of("keys", jwtService.getPublicJwks()));
+    }
+}
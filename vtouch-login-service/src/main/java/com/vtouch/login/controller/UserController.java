@@ -2,22 +2,40 @@ package com.vtouch.login.controller;
 
 import com.vtouch.login.dto.UserDTO;
 import com.vtouch.login.dto.UserStatistics;
+import com.vtouch.login.dto.request.BulkUserSelection;
 import com.vtouch.login.dto.request.CreateUserRequest;
 import com.vtouch.login.dto.request.UpdateUserRequest;
 import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.BulkUpdateResponse;
+import com.vtouch.login.dto.response.CursorPagedResponse;
 import com.vtouch.login.dto.response.PagedResponse;
+import com.vtouch.login.dto.response.UserImportResponse;
 import com.vtouch.login.entity.User;
+import com.vtouch.login.security.PasswordHashingExecutor;
+import com.vtouch.login.security.RequestCompletionExecutor;
+import com.vtouch.login.service.UserBulkService;
+import com.vtouch.login.service.UserExportService;
+import com.vtouch.login.service.UserImportService;
 import com.vtouch.login.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/users")
 @Tag(name = "User Management", description = "APIs for managing users")
@@ -26,18 +44,82 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private RequestCompletionExecutor requestCompletionExecutor;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserBulkService userBulkService;
+    
     @PostMapping
     @Operation(summary = "Create a new user", description = "Creates a new user with the provided information")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "User created successfully"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "User already exists")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "User already exists"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted; see Retry-After")
     })
-    public ResponseEntity<ApiResponse<UserDTO>> createUser(
+    public CompletableFuture<ResponseEntity<ApiResponse<UserDTO>>> createUser(
             @Valid @RequestBody CreateUserRequest request) {
         
-        ApiResponse<UserDTO> response = userService.createUser(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // Hash on the hashing executor, then insert on the completion executor with this request's locale
+        return passwordHashingExecutor.submit("create-user", () -> passwordEncoder.encode(request.password()))
+                .thenApplyAsync(encodedPassword -> {
+                    ApiResponse<UserDTO> response = userService.createUser(request, encodedPassword);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                }, requestCompletionExecutor.withCurrentContext());
+    }
+    
+    @PostMapping(value = "/import", consumes = {UserImportService.NDJSON, UserImportService.CSV})
+    @Operation(summary = "Import users", description = "Creates users from a streamed upload: one JSON object per line (application/x-ndjson), "
+            + "or CSV with a header row naming username, email, password, firstName, lastName and optionally phoneNumber and role (text/csv). "
+            + "Rows are committed in chunks; rejected rows are reported and do not stop the import")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Import finished; see the response for rejected rows"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "CSV header is missing required columns"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "415", description = "Unsupported upload format")
+    })
+    public ResponseEntity<ApiResponse<UserImportResponse>> importUsers(HttpServletRequest request) throws IOException {
+        // Read the body as a stream; binding it to a list would hold the whole upload in memory
+        UserImportService.Format format = UserImportService.Format.fromContentType(request.getContentType());
+        ApiResponse<UserImportResponse> response = userImportService.importUsers(request.getInputStream(), format);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/export", produces = {UserImportService.NDJSON, UserImportService.CSV})
+    @Operation(summary = "Export users", description = "Streams every user matching the filters in ID order, "
+            + "one JSON object per line (NDJSON) or CSV with a header row. Passwords are never exported")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export streamed")
+    })
+    public void exportUsers(
+            @Parameter(description = "Export format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") UserImportService.Format format,
+            @Parameter(description = "Search keyword", example = "john")
+            @RequestParam(required = false) String keyword,
+            @Parameter(description = "User status filter", example = "ACTIVE")
+            @RequestParam(required = false) User.UserStatus status,
+            @Parameter(description = "User role filter", example = "USER")
+            @RequestParam(required = false) User.UserRole role,
+            HttpServletResponse response) throws IOException {
+        // Write rows to the response as they are read; building a body first would hold every user in memory
+        boolean csv = format == UserImportService.Format.CSV;
+        response.setContentType(csv ? UserImportService.CSV : UserImportService.NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(csv ? "users.csv" : "users.ndjson").build().toString());
+        userExportService.exportUsers(response.getOutputStream(), format, keyword, status, role);
     }
     
     @GetMapping("/{userId}")
@@ -109,8 +191,10 @@ public class UserController {
             @Parameter(description = "Sort field", example = "createdAt")
             @RequestParam(defaultValue = "createdAt") String sort,
             @Parameter(description = "Sort direction", example = "desc")
-            @RequestParam(defaultValue = "desc") String direction) {
-        ApiResponse<PagedResponse<UserDTO>> response = userService.getAllUsers(page, size, sort, direction);
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Totals: EXACT counts, ESTIMATE uses cached database statistics, NONE skips them", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") PagedResponse.TotalMode total) {
+        ApiResponse<PagedResponse<UserDTO>> response = userService.getAllUsers(page, size, sort, direction, total);
         return ResponseEntity.ok(response);
     }
     
@@ -133,8 +217,11 @@ public class UserController {
             @Parameter(description = "Sort field", example = "createdAt")
             @RequestParam(defaultValue = "createdAt") String sort,
             @Parameter(description = "Sort direction", example = "desc")
-            @RequestParam(defaultValue = "desc") String direction) {
-        ApiResponse<PagedResponse<UserDTO>> response = userService.searchUsers(keyword, status, role, page, size, sort, direction);
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Totals: EXACT counts, ESTIMATE uses cached database statistics, NONE skips them", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") PagedResponse.TotalMode total) {
+        ApiResponse<PagedResponse<UserDTO>> response =
+                userService.searchUsers(keyword, status, role, page, size, sort, direction, total);
         return ResponseEntity.ok(response);
     }
     
@@ -157,8 +244,10 @@ public class UserController {
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size", example = "10")
-            @RequestParam(defaultValue = "10") int size) {
-        ApiResponse<PagedResponse<UserDTO>> response = userService.getRecentlyCreatedUsers(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Totals: EXACT counts, ESTIMATE uses cached database statistics, NONE skips them", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") PagedResponse.TotalMode total) {
+        ApiResponse<PagedResponse<UserDTO>> response = userService.getRecentlyCreatedUsers(page, size, total);
         return ResponseEntity.ok(response);
     }
     
@@ -195,6 +284,49 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
     
+    @PatchMapping("/bulk/status")
+    @Operation(summary = "Change status of many users", description = "Changes the status of users selected by ID or by filter, "
+            + "in chunks of bulk updates. Users already in the status are skipped")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users updated; see the response for counts"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Selection has both or neither IDs and filters")
+    })
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> changeUsersStatus(
+            @Valid @RequestBody BulkUserSelection selection,
+            @Parameter(description = "New status", required = true)
+            @RequestParam User.UserStatus status) {
+        ApiResponse<BulkUpdateResponse> response = userBulkService.changeStatus(selection, status);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PatchMapping("/bulk/role")
+    @Operation(summary = "Change role of many users", description = "Changes the role of users selected by ID or by filter, "
+            + "in chunks of bulk updates. Users already in the role are skipped")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users updated; see the response for counts"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Selection has both or neither IDs and filters")
+    })
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> changeUsersRole(
+            @Valid @RequestBody BulkUserSelection selection,
+            @Parameter(description = "New role", required = true)
+            @RequestParam User.UserRole role) {
+        ApiResponse<BulkUpdateResponse> response = userBulkService.changeRole(selection, role);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Delete many users", description = "Soft deletes users selected by ID or by filter, "
+            + "in chunks of bulk updates. Users already deleted are skipped")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users deleted; see the response for counts"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Selection has both or neither IDs and filters")
+    })
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> deleteUsers(
+            @Valid @RequestBody BulkUserSelection selection) {
+        ApiResponse<BulkUpdateResponse> response = userBulkService.deleteUsers(selection);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/by-status/{status}")
     @Operation(summary = "Get users by status", description = "Retrieves users with the specified status")
     @ApiResponses({
@@ -210,8 +342,10 @@ public class UserController {
             @Parameter(description = "Sort field", example = "createdAt")
             @RequestParam(defaultValue = "createdAt") String sort,
             @Parameter(description = "Sort direction", example = "desc")
-            @RequestParam(defaultValue = "desc") String direction) {
-        ApiResponse<PagedResponse<UserDTO>> response = userService.searchUsers(null, status, null, page, size, sort, direction);
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Totals: EXACT counts, ESTIMATE uses cached database statistics, NONE skips them", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") PagedResponse.TotalMode total) {
+        ApiResponse<PagedResponse<UserDTO>> response = userService.searchUsers(null, status, null, page, size, sort, direction, total);
         return ResponseEntity.ok(response);
     }
     
@@ -230,8 +364,114 @@ public class UserController {
             @Parameter(description = "Sort field", example = "createdAt")
             @RequestParam(defaultValue = "createdAt") String sort,
             @Parameter(description = "Sort direction", example = "desc")
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Totals: EXACT counts, ESTIMATE uses cached database statistics, NONE skips them", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") PagedResponse.TotalMode total) {
+        ApiResponse<PagedResponse<UserDTO>> response = userService.searchUsers(null, null, role, page, size, sort, direction, total);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/cursor")
+    @Operation(summary = "Get all users by cursor", description = "Retrieves users page by page without offsets or total counts")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort field")
+    })
+    public ResponseEntity<ApiResponse<CursorPagedResponse<UserDTO>>> getAllUsersByCursor(
+            @Parameter(description = "Cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: id, createdAt, username or email", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Sort direction", example = "desc")
+            @RequestParam(defaultValue = "desc") String direction) {
+        ApiResponse<CursorPagedResponse<UserDTO>> response = userService.getAllUsersByCursor(cursor, size, sort, direction);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/search/cursor")
+    @Operation(summary = "Search users by cursor", description = "Searches users by keyword, status, and role page by page, ordered by the sort field")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort field")
+    })
+    public ResponseEntity<ApiResponse<CursorPagedResponse<UserDTO>>> searchUsersByCursor(
+            @Parameter(description = "Search keyword", example = "john")
+            @RequestParam(required = false) String keyword,
+            @Parameter(description = "User status filter", example = "ACTIVE")
+            @RequestParam(required = false) User.UserStatus status,
+            @Parameter(description = "User role filter", example = "USER")
+            @RequestParam(required = false) User.UserRole role,
+            @Parameter(description = "Cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: id, createdAt, username or email", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Sort direction", example = "desc")
+            @RequestParam(defaultValue = "desc") String direction) {
+        ApiResponse<CursorPagedResponse<UserDTO>> response =
+                userService.searchUsersByCursor(keyword, status, role, cursor, size, sort, direction);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/recent/cursor")
+    @Operation(summary = "Get recently created users by cursor", description = "Retrieves users created in the last 30 days, newest first, page by page")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Recent users retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort field")
+    })
+    public ResponseEntity<ApiResponse<CursorPagedResponse<UserDTO>>> getRecentlyCreatedUsersByCursor(
+            @Parameter(description = "Cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
+        ApiResponse<CursorPagedResponse<UserDTO>> response = userService.getRecentlyCreatedUsersByCursor(cursor, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/by-status/{status}/cursor")
+    @Operation(summary = "Get users by status by cursor", description = "Retrieves users with the specified status page by page")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort field")
+    })
+    public ResponseEntity<ApiResponse<CursorPagedResponse<UserDTO>>> getUsersByStatusByCursor(
+            @Parameter(description = "User status", required = true)
+            @PathVariable User.UserStatus status,
+            @Parameter(description = "Cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: id, createdAt, username or email", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Sort direction", example = "desc")
+            @RequestParam(defaultValue = "desc") String direction) {
+        ApiResponse<CursorPagedResponse<UserDTO>> response =
+                userService.searchUsersByCursor(null, status, null, cursor, size, sort, direction);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/by-role/{role}/cursor")
+    @Operation(summary = "Get users by role by cursor", description = "Retrieves users with the specified role page by page")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort field")
+    })
+    public ResponseEntity<ApiResponse<CursorPagedResponse<UserDTO>>> getUsersByRoleByCursor(
+            @Parameter(description = "User role", required = true)
+            @PathVariable User.UserRole role,
+            @Parameter(description = "Cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: id, createdAt, username or email", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Sort direction", example = "desc")
             @RequestParam(defaultValue = "desc") String direction) {
-        ApiResponse<PagedResponse<UserDTO>> response = userService.searchUsers(null, null, role, page, size, sort, direction);
+        ApiResponse<CursorPagedResponse<UserDTO>> response =
+                userService.searchUsersByCursor(null, null, role, cursor, size, sort, direction);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.vtouch.login.dto.request;
+
+import com.vtouch.login.entity.User;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Users a bulk operation applies to: either explicit IDs or a search filter
+ */
+@Schema(description = "Bulk User Selection")
+public record BulkUserSelection(
+    
+    @Schema(description = "User IDs; leave empty to select by filter", example = "[1, 2, 3]")
+    @Size(max = 10000, message = "At most 10000 user IDs can be given; select larger sets by filter")
+    List<@NotNull Long> userIds,
+    
+    @Schema(description = "Search keyword filter", example = "spam")
+    String keyword,
+    
+    @Schema(description = "User status filter", example = "ACTIVE")
+    User.UserStatus status,
+    
+    @Schema(description = "User role filter", example = "USER")
+    User.UserRole role
+) {
+    
+    /**
+     * Whether users are selected by ID
+     */
+    public boolean hasUserIds() {
+        return userIds != null && !userIds.isEmpty();
+    }
+    
+    /**
+     * Whether any filter is set
+     */
+    public boolean hasFilter() {
+        return (keyword != null && !keyword.isBlank()) || status != null || role != null;
+    }
+}
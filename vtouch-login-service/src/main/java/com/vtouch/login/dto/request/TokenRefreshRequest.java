@@ -5,7 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 
 @Schema(description = "Token refresh request")
 public record TokenRefreshRequest(
-        @Schema(description = "JWT refresh token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...", required = true)
+        @Schema(description = "Refresh token from login or the previous refresh", example = "q3V9cJ0w3m8Qy1o2nL4aHg.Xk2...", required = true)
         @NotBlank(message = "Refresh token is required")
         String refreshToken
 ) {
@@ -0,0 +1,16 @@
+package com.vtouch.login.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a bulk user operation")
+public record BulkUpdateResponse(
+        @Schema(description = "Users selected", example = "25000")
+        long matched,
+
+        @Schema(description = "Users changed; selected users already in the target state are not counted", example = "24871")
+        long updated,
+
+        @Schema(description = "Chunks applied, each in its own transaction", example = "25")
+        int chunks
+) {
+}
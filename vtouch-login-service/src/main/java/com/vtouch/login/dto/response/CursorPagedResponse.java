@@ -0,0 +1,27 @@
+package com.vtouch.login.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Cursor-paged API Response; there is no total, pass nextCursor to get the following page")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPagedResponse<T>(
+        @Schema(description = "List of items", required = true)
+        List<T> content,
+
+        @Schema(description = "Number of items per page", example = "10")
+        int size,
+
+        @Schema(description = "Cursor of the next page; absent on the last page", example = "Y3JlYXRlZEF0CkRFU0MKNwoyMDI0LTAxLTE1VDEwOjMwOjAwLjEyMzQ1Ng")
+        String nextCursor,
+
+        @Schema(description = "Whether there is a next page", example = "true")
+        boolean hasNext
+) {
+
+    public CursorPagedResponse(List<T> content, int size, String nextCursor) {
+        this(content, size, nextCursor, nextCursor != null);
+    }
+}
@@ -8,7 +8,7 @@ public record LoginResponse(
         @Schema(description = "JWT access token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
         String accessToken,
 
-        @Schema(description = "JWT refresh token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+        @Schema(description = "Single-use refresh token", example = "q3V9cJ0w3m8Qy1o2nL4aHg.Xk2...")
         String refreshToken,
 
         @Schema(description = "Token type", example = "Bearer")
@@ -3,10 +3,11 @@ package com.vtouch.login.dto.response;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
-@Schema(description = "Paged API Response")
+@Schema(description = "Paged API Response; totals are left out when the list was read without counting")
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
     
@@ -20,10 +21,13 @@ public class PagedResponse<T> {
     private int size;
     
     @Schema(description = "Total number of elements", example = "100")
-    private long totalElements;
+    private Long totalElements;
     
     @Schema(description = "Total number of pages", example = "10")
-    private int totalPages;
+    private Integer totalPages;
+    
+    @Schema(description = "Whether the totals are estimated from database statistics", example = "true")
+    private Boolean totalEstimated;
     
     @Schema(description = "Whether this is the first page", example = "true")
     private boolean first;
@@ -43,6 +47,18 @@ public class PagedResponse<T> {
     @Schema(description = "Whether the page is empty", example = "false")
     private boolean empty;
     
+    /**
+     * How the total number of elements is obtained
+     */
+    public enum TotalMode {
+        /** Count the matching elements */
+        EXACT,
+        /** Estimate from database statistics, without counting */
+        ESTIMATE,
+        /** Leave the totals out */
+        NONE
+    }
+    
     public PagedResponse() {
     }
     
@@ -60,6 +76,18 @@ public class PagedResponse<T> {
         this.empty = numberOfElements == 0;
     }
     
+    public PagedResponse(List<T> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.first = page == 0;
+        this.last = !hasNext;
+        this.hasNext = hasNext;
+        this.hasPrevious = page > 0;
+        this.numberOfElements = content != null ? content.size() : 0;
+        this.empty = numberOfElements == 0;
+    }
+    
     // Static factory method from Spring Data Page
     public static <T> PagedResponse<T> from(Page<T> page) {
         return new PagedResponse<>(
@@ -71,6 +99,27 @@ public class PagedResponse<T> {
         );
     }
     
+    // Static factory method from Spring Data Slice, without totals
+    public static <T> PagedResponse<T> from(Slice<T> slice) {
+        return new PagedResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+    
+    /**
+     * Fill in totals from an estimate. The last page knows the exact total, and no page reports fewer
+     * elements than it has already seen.
+     * @param estimate Estimated total number of elements
+     * @return This response
+     */
+    public PagedResponse<T> withEstimatedTotal(long estimate) {
+        // A page past the end shows nothing about the pages before it
+        long seen = numberOfElements > 0 ? (long) page * size + numberOfElements : 0;
+        boolean exact = !hasNext && (numberOfElements > 0 || page == 0);
+        this.totalElements = exact ? seen : Math.max(estimate, hasNext ? seen + 1 : seen);
+        this.totalPages = size > 0 ? (int) ((totalElements + size - 1) / size) : 0;
+        this.totalEstimated = !exact;
+        return this;
+    }
+    
     // Static factory method for empty response
     public static <T> PagedResponse<T> empty() {
         return new PagedResponse<>(List.of(), 0, 0, 0, 0);
@@ -101,22 +150,30 @@ public class PagedResponse<T> {
         this.size = size;
     }
     
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
     
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
     
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
     
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
     
+    public Boolean getTotalEstimated() {
+        return totalEstimated;
+    }
+    
+    public void setTotalEstimated(Boolean totalEstimated) {
+        this.totalEstimated = totalEstimated;
+    }
+    
     public boolean isFirst() {
         return first;
     }
@@ -2,18 +2,21 @@ package com.vtouch.login.dto.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
-@Schema(description = "Token refresh response containing new access token")
+@Schema(description = "Token refresh response containing new access and refresh tokens")
 public record TokenRefreshResponse(
         @Schema(description = "New JWT access token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
         String accessToken,
 
+        @Schema(description = "New refresh token; the presented one can no longer be used", example = "q3V9cJ0w3m8Qy1o2nL4aHg.Xk2...")
+        String refreshToken,
+
         @Schema(description = "Token type", example = "Bearer")
         String tokenType,
 
         @Schema(description = "Access token expiration in seconds", example = "86400")
         Long expiresIn
 ) {
-    public TokenRefreshResponse(String accessToken, Long expiresIn) {
-        this(accessToken, "Bearer", expiresIn);
+    public TokenRefreshResponse(String accessToken, String refreshToken, Long expiresIn) {
+        this(accessToken, refreshToken, "Bearer", expiresIn);
     }
 } 
\ No newline at end of file
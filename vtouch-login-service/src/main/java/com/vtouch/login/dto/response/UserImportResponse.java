@@ -0,0 +1,42 @@
+package com.vtouch.login.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk user import")
+public record UserImportResponse(
+        @Schema(description = "Rows read from the upload", example = "20000")
+        long rows,
+
+        @Schema(description = "Users created", example = "19987")
+        long imported,
+
+        @Schema(description = "Rows rejected", example = "13")
+        long failed,
+
+        @Schema(description = "Whether more rows failed than are listed in errors", example = "false")
+        boolean errorsTruncated,
+
+        @Schema(description = "Rejected rows, in upload order")
+        List<RowError> errors
+) {
+
+    @Schema(description = "Why one row was not imported")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RowError(
+            @Schema(description = "Line in the upload where the row starts", example = "42")
+            long line,
+
+            @Schema(description = "Offending field, if any", example = "email")
+            String field,
+
+            @Schema(description = "Error code", example = "DUPLICATE_RESOURCE")
+            String code,
+
+            @Schema(description = "Error message", example = "User with email 'john.doe@example.com' already exists")
+            String message
+    ) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.vtouch.login.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Username availability; advisory only, registration can still fail if the name is taken meanwhile")
+public record UsernameAvailabilityResponse(
+        @Schema(description = "Checked username", example = "johndoe")
+        String username,
+
+        @Schema(description = "Whether the username can be registered", example = "true")
+        boolean available
+) {
+}
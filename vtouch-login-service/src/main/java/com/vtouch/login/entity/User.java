@@ -15,26 +15,33 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 
+// The table and its indexes are created by the schema migrations in db/migration
 @Entity
 @Table(name = "users", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "email"),
-    @UniqueConstraint(columnNames = "username")
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username")
 })
 public class User implements UserDetails {
     
+    /** Unique constraint names; duplicate inserts are recognised by these */
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
+    /** IDs come from a pooled sequence so Hibernate can batch inserts; IDENTITY forces one insert per round trip */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(name = "username", nullable = false, unique = true, length = 50)
+    @Column(name = "username", nullable = false, length = 50)
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email format is invalid")
     @Size(max = 100, message = "Email must be less than 100 characters")
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     private String email;
     
     @NotBlank(message = "Password is required")
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -24,7 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-@RestControllerAdvice(basePackages = "com.example.templatejava.controller")
+@RestControllerAdvice(basePackages = "com.vtouch.login.controller")
 public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -44,6 +45,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
     
+    @ExceptionHandler(SystemException.CapacityExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleCapacityExceededException(SystemException.CapacityExceededException ex, HttpServletRequest request) {
+        logger.warn("Capacity exceeded: {}", ex.getMessage());
+        
+        String localizedMessage = messageService.getMessageWithDefault(ex.getErrorCode(), "Service is busy, please retry later");
+        List<ErrorDetail> errors = List.of(ErrorDetail.global(ex.getErrorCode(), localizedMessage));
+        
+        ApiResponse<Object> response = ApiResponse.error(localizedMessage, errors).withPath(request.getRequestURI());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+    
     @ExceptionHandler(SystemException.class)
     public ResponseEntity<ApiResponse<Object>> handleSystemException(SystemException ex, HttpServletRequest request) {
         String errorId = UUID.randomUUID().toString();
@@ -1,5 +1,6 @@
 package com.vtouch.login.exception;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -67,6 +68,21 @@ public class SystemException extends BaseException {
         }
     }
     
+    public static class CapacityExceededException extends SystemException {
+        private final Duration retryAfter;
+        
+        public CapacityExceededException(String resource, Duration retryAfter) {
+            super("CAPACITY_EXCEEDED", String.format("Capacity of '%s' exceeded; retry after %d s", resource, retryAfter.toSeconds()));
+            this.retryAfter = retryAfter;
+            addProperty("resource", resource);
+            addProperty("retryAfterSeconds", retryAfter.toSeconds());
+        }
+        
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+    
     public static class InternalServerException extends SystemException {
         public InternalServerException(String message) {
             super("INTERNAL_SERVER_ERROR", "Internal server error: " + message);
@@ -0,0 +1,68 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last user of a keyset page. Clients get it as an opaque URL-safe string that carries
+ * the sort key, direction, sort value and ID of that user; the next page starts right after it, so reading
+ * page 1000 costs the same as reading page 1.
+ *
+ * @param sort Sort key the cursor was issued for
+ * @param direction Sort direction the cursor was issued for
+ * @param value Sort value of the last user
+ * @param id ID of the last user
+ */
+public record UserCursor(UserKeysetSort sort, Sort.Direction direction, Object value, long id) {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Cursor pointing after a user
+     * @param user Last user of the page
+     * @param sort Sort key
+     * @param direction Sort direction
+     * @return Cursor
+     */
+    public static UserCursor after(UserDTO user, UserKeysetSort sort, Sort.Direction direction) {
+        return new UserCursor(sort, direction, sort.valueOf(user), user.getId());
+    }
+
+    /**
+     * Encode as an opaque string
+     * @return URL-safe cursor
+     */
+    public String encode() {
+        // The value goes last, so whatever it contains cannot shift the other fields
+        String plain = sort.property() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + sort.format(value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a string produced by {@link #encode()}
+     * @param cursor Opaque cursor
+     * @return Cursor
+     * @throws BusinessException.ValidationException if the cursor is malformed
+     */
+    public static UserCursor decode(String cursor) {
+        String[] fields;
+        try {
+            fields = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 4);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException.ValidationException("cursor", "Invalid cursor");
+        }
+        if (fields.length != 4) {
+            throw new BusinessException.ValidationException("cursor", "Invalid cursor");
+        }
+        UserKeysetSort sort = UserKeysetSort.of(fields[0]);
+        try {
+            return new UserCursor(sort, Sort.Direction.valueOf(fields[1]), sort.parse(fields[3]), Long.parseLong(fields[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException.ValidationException("cursor", "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which users a listing includes; every criterion is optional
+ *
+ * @param keyword Keyword to search in name, username, or email
+ * @param status Only users with this status
+ * @param role Only users with this role
+ * @param excludeDeleted Leave out soft-deleted users
+ * @param createdSince Only users created at or after this time
+ */
+public record UserFilter(String keyword, User.UserStatus status, User.UserRole role,
+                         boolean excludeDeleted, LocalDateTime createdSince) {
+
+    /**
+     * Users matching a search
+     */
+    public static UserFilter search(String keyword, User.UserStatus status, User.UserRole role) {
+        return new UserFilter(keyword, status, role, false, null);
+    }
+
+    /**
+     * Users that are not soft-deleted
+     */
+    public static UserFilter notDeleted() {
+        return new UserFilter(null, null, null, true, null);
+    }
+
+    /**
+     * Users created at or after a time
+     */
+    public static UserFilter createdSince(LocalDateTime createdSince) {
+        return new UserFilter(null, null, null, false, createdSince);
+    }
+}
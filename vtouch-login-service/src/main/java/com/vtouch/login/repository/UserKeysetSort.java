@@ -0,0 +1,93 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.exception.BusinessException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * User properties that keyset pagination can sort by. Each one is served by an index that starts with its
+ * column: the primary key, the unique username and email constraints, or {@code (created_at, id)}. Values
+ * of the non-unique {@code createdAt} are tied by ID.
+ */
+public enum UserKeysetSort {
+    ID("id", "id", true),
+    CREATED_AT("createdAt", "created_at", false),
+    USERNAME("username", "username", true),
+    EMAIL("email", "email", true);
+
+    private final String property;
+    private final String column;
+    private final boolean unique;
+
+    UserKeysetSort(String property, String column, boolean unique) {
+        this.property = property;
+        this.column = column;
+        this.unique = unique;
+    }
+
+    /**
+     * Find the sort key for a property
+     * @param property Entity property name
+     * @return Sort key
+     * @throws BusinessException.ValidationException if the property has no supporting index
+     */
+    public static UserKeysetSort of(String property) {
+        for (UserKeysetSort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        String allowed = Arrays.stream(values()).map(UserKeysetSort::property).collect(Collectors.joining(", "));
+        throw new BusinessException.ValidationException("sort",
+                "Cannot page users by '" + property + "'; use one of " + allowed);
+    }
+
+    public String property() {
+        return property;
+    }
+
+    String column() {
+        return column;
+    }
+
+    /**
+     * Whether the column alone identifies a user, so no ID tie-breaker is needed
+     */
+    boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * Read this key from a user
+     * @param user User DTO
+     * @return Sort value
+     */
+    public Object valueOf(UserDTO user) {
+        return switch (this) {
+            case ID -> user.getId();
+            case CREATED_AT -> user.getCreatedAt();
+            case USERNAME -> user.getUsername();
+            case EMAIL -> user.getEmail();
+        };
+    }
+
+    String format(Object value) {
+        return value.toString();
+    }
+
+    Object parse(String text) {
+        try {
+            return switch (this) {
+                case ID -> Long.valueOf(text);
+                case CREATED_AT -> LocalDateTime.parse(text);
+                case USERNAME, EMAIL -> text;
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BusinessException.ValidationException("cursor", "Invalid cursor");
+        }
+    }
+}
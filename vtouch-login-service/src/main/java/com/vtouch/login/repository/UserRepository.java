@@ -1,5 +1,6 @@
 package com.vtouch.login.repository;
 
+import com.vtouch.login.dto.UserDTO;
 import com.vtouch.login.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,7 +15,11 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
+    
+    /** Selects a {@link UserDTO} straight from the columns, without loading the entity or its password */
+    String DTO_PROJECTION = "SELECT new com.vtouch.login.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, "
+            + "u.phoneNumber, u.status, u.role, u.createdAt, u.updatedAt, u.version) FROM User u";
     
     /**
      * Find user by username
@@ -30,6 +35,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Read user by ID as a DTO
+     * @param id User ID
+     * @return Optional user DTO
+     */
+    @Query(DTO_PROJECTION + " WHERE u.id = :id")
+    Optional<UserDTO> findDtoById(@Param("id") Long id);
+    
+    /**
+     * Read user by username as a DTO
+     * @param username Username to search for
+     * @return Optional user DTO
+     */
+    @Query(DTO_PROJECTION + " WHERE u.username = :username")
+    Optional<UserDTO> findDtoByUsername(@Param("username") String username);
+    
     /**
      * Find user by username or email
      * @param username Username to search for
@@ -110,38 +131,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Page<User> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     
-    /**
-     * Search users by name (first name or last name) containing keyword
-     * @param keyword Keyword to search
-     * @param pageable Pagination info
-     * @return Page of users
-     */
-    @Query("SELECT u FROM User u WHERE " +
-           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<User> findByNameContaining(@Param("keyword") String keyword, Pageable pageable);
-    
-    /**
-     * Search users by multiple criteria
-     * @param keyword Keyword to search in name, username, or email
-     * @param status User status (optional)
-     * @param role User role (optional)
-     * @param pageable Pagination info
-     * @return Page of users
-     */
-    @Query("SELECT u FROM User u WHERE " +
-           "(:keyword IS NULL OR " +
-           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
-           "(:status IS NULL OR u.status = :status) AND " +
-           "(:role IS NULL OR u.role = :role)")
-    Page<User> searchUsers(@Param("keyword") String keyword,
-                          @Param("status") User.UserStatus status,
-                          @Param("role") User.UserRole role,
-                          Pageable pageable);
-    
     /**
      * Get user count by status
      * @param status User status
@@ -156,6 +145,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     long countByRole(User.UserRole role);
     
+    /**
+     * Count users for every status and role pair in one grouped query
+     * @return One row per pair that has users
+     */
+    @Query("SELECT u.status AS status, u.role AS role, COUNT(u) AS userCount FROM User u GROUP BY u.status, u.role")
+    List<StatusRoleCount> countByStatusAndRole();
+    
+    /**
+     * Number of users with one status and role
+     */
+    interface StatusRoleCount {
+        User.UserStatus getStatus();
+        
+        User.UserRole getRole();
+        
+        long getUserCount();
+    }
+    
     /**
      * Get active users count
      * @return Active users count
@@ -172,23 +179,101 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findRecentlyCreatedUsers(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo, Pageable pageable);
     
     /**
-     * Bulk update user status
+     * Read recently created users as DTOs, newest first
+     * @param thirtyDaysAgo Earliest creation time
+     * @param pageable Pagination info
+     * @return Page of user DTOs
+     */
+    @Query(value = DTO_PROJECTION + " WHERE u.createdAt >= :thirtyDaysAgo ORDER BY u.createdAt DESC",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.createdAt >= :thirtyDaysAgo")
+    Page<UserDTO> findRecentlyCreatedUserDtos(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo, Pageable pageable);
+    
+    /**
+     * Bulk update user status, bumping the version of every changed user
      * @param userIds List of user IDs
      * @param status New status
-     * @return Number of updated records
+     * @param updatedAt Update timestamp
+     * @return Number of updated records; users already in the status are not counted
      */
     @Modifying
-    @Query("UPDATE User u SET u.status = :status WHERE u.id IN :userIds")
-    int updateUserStatus(@Param("userIds") List<Long> userIds, @Param("status") User.UserStatus status);
+    @Query("UPDATE User u SET u.status = :status, u.version = u.version + 1, u.updatedAt = :updatedAt "
+            + "WHERE u.id IN :userIds AND u.status <> :status")
+    int updateUserStatus(@Param("userIds") List<Long> userIds,
+                         @Param("status") User.UserStatus status,
+                         @Param("updatedAt") LocalDateTime updatedAt);
     
     /**
-     * Soft delete users by updating status to DELETED
+     * Bulk update user role, bumping the version of every changed user
+     * @param userIds List of user IDs
+     * @param role New role
+     * @param updatedAt Update timestamp
+     * @return Number of updated records; users already in the role are not counted
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.role = :role, u.version = u.version + 1, u.updatedAt = :updatedAt "
+            + "WHERE u.id IN :userIds AND u.role <> :role")
+    int updateUserRole(@Param("userIds") List<Long> userIds,
+                       @Param("role") User.UserRole role,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Lock the given users in ascending ID order until the transaction ends
+     * @param userIds List of user IDs
+     * @return IDs of the users found
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUsers(@Param("userIds") List<Long> userIds);
+    
+    /**
+     * Count users by status and role among the given IDs
+     * @param userIds List of user IDs
+     * @return One row per status and role pair present
+     */
+    @Query("SELECT u.status AS status, u.role AS role, COUNT(u) AS userCount FROM User u "
+            + "WHERE u.id IN :userIds GROUP BY u.status, u.role")
+    List<StatusRoleCount> countByStatusAndRoleForIds(@Param("userIds") List<Long> userIds);
+    
+    /**
+     * Replace a password hash if it is still the one that was verified, leaving version and audit columns alone
+     * @param userId User ID
+     * @param currentPassword Hash that was verified
+     * @param newPassword New hash of the same password
+     * @return Number of updated records; 0 if the password changed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :currentPassword")
+    int updatePasswordHash(@Param("userId") Long userId,
+                           @Param("currentPassword") String currentPassword,
+                           @Param("newPassword") String newPassword);
+    
+    /**
+     * Read usernames in ID order, one page after another, without loading whole entities
+     * @param afterId Last ID of the previous page; 0 for the first page
+     * @param pageable Page size (the page number is ignored)
+     * @return Up to one page of IDs and usernames
+     */
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UsernameRow> findUsernamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * ID and username of one user
+     */
+    interface UsernameRow {
+        Long getId();
+        
+        String getUsername();
+    }
+    
+    /**
+     * Soft delete users by updating status to DELETED, bumping the version of every deleted user
      * @param userIds List of user IDs to delete
-     * @return Number of deleted records
+     * @param updatedAt Update timestamp
+     * @return Number of deleted records; users already deleted are not counted
      */
     @Modifying
-    @Query("UPDATE User u SET u.status = 'DELETED' WHERE u.id IN :userIds")
-    int softDeleteUsers(@Param("userIds") List<Long> userIds);
+    @Query("UPDATE User u SET u.status = 'DELETED', u.version = u.version + 1, u.updatedAt = :updatedAt "
+            + "WHERE u.id IN :userIds AND u.status <> 'DELETED'")
+    int softDeleteUsers(@Param("userIds") List<Long> userIds, @Param("updatedAt") LocalDateTime updatedAt);
     
     /**
      * Find users with pagination and sorting options
@@ -197,4 +282,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE u.status != 'DELETED'")
     Page<User> findAllActiveUsers(Pageable pageable);
+    
+    /**
+     * Read users that are not deleted as DTOs
+     * @param pageable Pagination and sorting info
+     * @return Page of user DTOs
+     */
+    @Query(value = DTO_PROJECTION + " WHERE u.status != 'DELETED'",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.status != 'DELETED'")
+    Page<UserDTO> findAllActiveUserDtos(Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * User listings and substring search, backed by a trigram index on PostgreSQL. Results are read as
+ * {@link UserDTO} projections, never as managed entities.
+ */
+public interface UserSearchRepository {
+    
+    /**
+     * Search users by multiple criteria; with a keyword, results are ranked by how well they match
+     * @param keyword Keyword to search in name, username, or email (optional)
+     * @param status User status (optional)
+     * @param role User role (optional)
+     * @param pageable Pagination info; its sort breaks ties between equally ranked users
+     * @return Page of user DTOs
+     */
+    Page<UserDTO> searchUsers(String keyword, User.UserStatus status, User.UserRole role, Pageable pageable);
+    
+    /**
+     * Search users by name (first name or last name) containing keyword, ranked by how well they match
+     * @param keyword Keyword to search
+     * @param pageable Pagination info
+     * @return Page of user DTOs
+     */
+    Page<UserDTO> findByNameContaining(String keyword, Pageable pageable);
+    
+    /**
+     * Read one page of users without counting them; with a keyword, results are ranked by how well they match
+     * @param filter Users to include
+     * @param pageable Pagination info; its sort breaks ties between equally ranked users
+     * @return Slice of user DTOs that knows whether a next page exists
+     */
+    Slice<UserDTO> findUsers(UserFilter filter, Pageable pageable);
+    
+    /**
+     * Estimate how many users match, from database statistics where available; cached for a short time
+     * @param filter Users to include
+     * @return Approximate number of users
+     */
+    long estimateUsers(UserFilter filter);
+    
+    /**
+     * Read the users that follow a keyset position, in index order, without skipping or counting rows
+     * @param filter Users to include
+     * @param sort Indexed sort key; ties are broken by ID in the same direction
+     * @param direction Sort direction
+     * @param after Position after the last user of the previous page; null for the first page
+     * @param limit Maximum number of users
+     * @return User DTOs after the position
+     */
+    List<UserDTO> findUsersAfter(UserFilter filter, UserKeysetSort sort, Sort.Direction direction, UserCursor after, int limit);
+    
+    /**
+     * Stream every matching user in ID order, fetching rows from the database in batches
+     * @param filter Users to include
+     * @param fetchSize Rows per database round trip
+     * @return Forward-only stream of user DTOs; must be consumed inside a transaction and closed
+     */
+    Stream<UserDTO> streamUsers(UserFilter filter, int fetchSize);
+    
+    /**
+     * Read IDs of matching users in ascending order, one chunk after another
+     * @param filter Users to include
+     * @param afterId Last ID of the previous chunk; 0 for the first chunk
+     * @param limit Chunk size
+     * @return Up to {@code limit} IDs
+     */
+    List<Long> findUserIdsAfter(UserFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,382 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Substring search over first name, last name, username and email.
+ * <p>
+ * The four columns are searched as one lower-cased expression. On PostgreSQL with {@code pg_trgm}, a GIN
+ * trigram index on that expression serves {@code LIKE '%keyword%'} without a sequential scan, and results are
+ * ranked by {@code word_similarity}. Elsewhere (H2 in tests, or PostgreSQL without the extension) the same
+ * {@code LIKE} runs unindexed and results are ranked by exact, then prefix, then substring matches on the
+ * username. The extension and index come with the schema migrations.
+ * <p>
+ * Keyset pages are ordered by their sort key alone, not by relevance, so that a cursor can resume them.
+ * Slices skip the count; totals for them are estimated from planner statistics and cached briefly.
+ */
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchRepositoryImpl.class);
+
+    /** Must match idx_users_search_trgm in the V3 migration exactly, or PostgreSQL will not use the index */
+    private static final String SEARCH_EXPRESSION =
+            "(lower(u.first_name) || ' ' || lower(u.last_name) || ' ' || lower(u.username) || ' ' || lower(u.email))";
+    /** Columns of a {@link UserDTO}; the password and Hibernate's entity state are never read */
+    private static final String DTO_COLUMNS = "u.id, u.username, u.email, u.first_name, u.last_name, u.phone_number, "
+            + "u.status, u.role, u.created_at, u.updated_at, u.version";
+    private static final String NAME_EXPRESSION = "(lower(u.first_name) || ' ' || lower(u.last_name))";
+    private static final String TRIGRAM_RANK = "word_similarity(:keyword, " + SEARCH_EXPRESSION + ") DESC";
+    /** Rows the planner expects from the top plan node */
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+    private static final String LIKE_RANK = "CASE WHEN lower(u.username) = :keyword THEN 0 "
+            + "WHEN lower(u.username) LIKE :prefix ESCAPE '\\' THEN 1 ELSE 2 END";
+
+    /** Sortable properties and their columns */
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "status", "status",
+            "role", "role",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final boolean trigram;
+    /** Estimated totals by WHERE clause and parameters */
+    private final Cache<String, Long> estimates;
+
+    public UserSearchRepositoryImpl(EntityManager entityManager,
+                                    JdbcTemplate jdbcTemplate,
+                                    @Value("${user-search.estimate-ttl:60s}") Duration estimateTtl,
+                                    @Value("${user-search.estimate-cache-size:1000}") long estimateCacheSize) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "PostgreSQL".equals(databaseProduct());
+        this.trigram = postgres && trigramInstalled();
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(estimateCacheSize)
+                .expireAfterWrite(estimateTtl)
+                .build();
+    }
+
+    @Override
+    public Page<UserDTO> searchUsers(String keyword, User.UserStatus status, User.UserRole role, Pageable pageable) {
+        return search(UserFilter.search(keyword, status, role), false, pageable);
+    }
+
+    @Override
+    public Page<UserDTO> findByNameContaining(String keyword, Pageable pageable) {
+        return search(UserFilter.search(keyword, null, null), true, pageable);
+    }
+
+    @Override
+    public Slice<UserDTO> findUsers(UserFilter filter, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, false, conditions, parameters);
+
+        Query query = rankedQuery(normalize(filter.keyword()), where(conditions), pageable.getSort(), parameters);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(toDtos(query), pageable, false);
+        }
+        // One row past the page tells whether another page follows
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<UserDTO> users = toDtos(query);
+        boolean hasNext = users.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? users.subList(0, pageable.getPageSize()) : users, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<UserDTO> streamUsers(UserFilter filter, int fetchSize) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, false, conditions, parameters);
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + DTO_COLUMNS + " FROM users u" + where(conditions) + " ORDER BY u.id");
+        bind(query, parameters, false);
+        // Scalar rows are never managed, so the session does not grow however many rows pass through
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        Stream<?> rows = query.getResultStream();
+        return rows.map(row -> toDto((Object[]) row));
+    }
+
+    @Override
+    public List<Long> findUserIdsAfter(UserFilter filter, long afterId, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, false, conditions, parameters);
+        conditions.add("u.id > :afterId");
+        parameters.put("afterId", afterId);
+
+        Query query = entityManager.createNativeQuery("SELECT u.id FROM users u" + where(conditions) + " ORDER BY u.id");
+        bind(query, parameters, false);
+        query.setMaxResults(limit);
+        List<?> ids = query.getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    @Override
+    public long estimateUsers(UserFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, false, conditions, parameters);
+        String where = where(conditions);
+        return estimates.get(where + ' ' + new TreeMap<>(parameters), key -> estimate(where, parameters));
+    }
+
+    @Override
+    public List<UserDTO> findUsersAfter(UserFilter filter, UserKeysetSort sort, Sort.Direction direction, UserCursor after, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, false, conditions, parameters);
+
+        // Sort column and ID move in the same direction, so one index scan returns the rows in order
+        String column = "u." + sort.column();
+        String comparison = direction.isAscending() ? " > " : " < ";
+        String order = direction.isAscending() ? " ASC" : " DESC";
+        if (after != null) {
+            parameters.put("afterValue", after.value());
+            if (sort.isUnique()) {
+                conditions.add(column + comparison + ":afterValue");
+            } else {
+                conditions.add("(" + column + ", u.id)" + comparison + "(:afterValue, :afterId)");
+                parameters.put("afterId", after.id());
+            }
+        }
+        String orderBy = sort.isUnique() ? column + order : column + order + ", u.id" + order;
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + DTO_COLUMNS + " FROM users u" + where(conditions) + " ORDER BY " + orderBy);
+        bind(query, parameters, false);
+        query.setMaxResults(limit);
+        return toDtos(query);
+    }
+
+    private Page<UserDTO> search(UserFilter filter, boolean namesOnly, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, namesOnly, conditions, parameters);
+        String where = where(conditions);
+
+        Query query = rankedQuery(normalize(filter.keyword()), where, pageable.getSort(), parameters);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<UserDTO> users = toDtos(query);
+
+        // The count only runs when this page does not already tell the total
+        return PageableExecutionUtils.getPage(users, pageable, () -> count(where, parameters));
+    }
+
+    /**
+     * Select matching users, best matches first when there is a keyword, then in the requested order
+     */
+    private Query rankedQuery(String term, String where, Sort sort, Map<String, Object> parameters) {
+        List<String> order = new ArrayList<>();
+        if (term != null) {
+            order.add(trigram ? TRIGRAM_RANK : LIKE_RANK);
+            parameters.put("keyword", term);
+            if (!trigram) {
+                parameters.put("prefix", escapeLike(term) + '%');
+            }
+        }
+        for (Sort.Order sortOrder : sort) {
+            order.add(sortColumn(sortOrder.getProperty()) + (sortOrder.isAscending() ? " ASC" : " DESC"));
+        }
+        order.add("u.id ASC");
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + DTO_COLUMNS + " FROM users u" + where + " ORDER BY " + String.join(", ", order));
+        bind(query, parameters, false);
+        return query;
+    }
+
+    private static List<UserDTO> toDtos(Query query) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<UserDTO> users = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            users.add(toDto(row));
+        }
+        return users;
+    }
+
+    private static UserDTO toDto(Object[] row) {
+        return new UserDTO(
+            ((Number) row[0]).longValue(),
+            (String) row[1],
+            (String) row[2],
+            (String) row[3],
+            (String) row[4],
+            (String) row[5],
+            User.UserStatus.valueOf(row[6].toString()),
+            User.UserRole.valueOf(row[7].toString()),
+            toLocalDateTime(row[8]),
+            toLocalDateTime(row[9]),
+            row[10] != null ? ((Number) row[10]).intValue() : null);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private long count(String where, Map<String, Object> parameters) {
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM users u" + where);
+        bind(countQuery, parameters, true);
+        return ((Number) countQuery.getSingleResult()).longValue();
+    }
+
+    /**
+     * Estimate from planner statistics on PostgreSQL, which costs no table scan; count elsewhere
+     */
+    private long estimate(String where, Map<String, Object> parameters) {
+        if (postgres) {
+            try {
+                if (where.isEmpty()) {
+                    // -1 until the table is first vacuumed or analyzed
+                    Long rows = jdbcTemplate.queryForObject(
+                            "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass", Long.class);
+                    if (rows != null && rows >= 0) {
+                        return rows;
+                    }
+                }
+                String plan = new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(
+                        "EXPLAIN (FORMAT JSON) SELECT 1 FROM users u" + where, parameters, String.class);
+                Matcher rows = PLAN_ROWS.matcher(plan != null ? plan : "");
+                if (rows.find()) {
+                    return Long.parseLong(rows.group(1));
+                }
+            } catch (DataAccessException e) {
+                logger.debug("Could not estimate users from statistics: {}", e.getMessage());
+            }
+        }
+        return count(where, parameters);
+    }
+
+    private static void addFilters(UserFilter filter, boolean namesOnly, List<String> conditions, Map<String, Object> parameters) {
+        String term = normalize(filter.keyword());
+        if (term != null) {
+            String pattern = '%' + escapeLike(term) + '%';
+            parameters.put("pattern", pattern);
+            // The whole-row expression is what the index serves; a names-only search rechecks the names
+            conditions.add(SEARCH_EXPRESSION + " LIKE :pattern ESCAPE '\\'");
+            if (namesOnly) {
+                conditions.add(NAME_EXPRESSION + " LIKE :pattern ESCAPE '\\'");
+            }
+        }
+        if (filter.status() != null) {
+            conditions.add("u.status = :status");
+            parameters.put("status", filter.status().name());
+        }
+        if (filter.role() != null) {
+            conditions.add("u.role = :role");
+            parameters.put("role", filter.role().name());
+        }
+        if (filter.excludeDeleted()) {
+            conditions.add("u.status <> 'DELETED'");
+        }
+        if (filter.createdSince() != null) {
+            conditions.add("u.created_at >= :createdSince");
+            parameters.put("createdSince", filter.createdSince());
+        }
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static String normalize(String keyword) {
+        return keyword != null && !keyword.isBlank() ? keyword.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static void bind(Query query, Map<String, Object> parameters, boolean filtersOnly) {
+        parameters.forEach((name, value) -> {
+            if (!filtersOnly || (!name.equals("keyword") && !name.equals("prefix"))) {
+                query.setParameter(name, value);
+            }
+        });
+    }
+
+    private static String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new BusinessException.ValidationException("sort", "Cannot sort users by '" + property + "'");
+        }
+        return "u." + column;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private String databaseProduct() {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+        } catch (DataAccessException e) {
+            logger.warn("Could not detect database for user search: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Check for pg_trgm, which the schema migrations install
+     */
+    private boolean trigramInstalled() {
+        try {
+            Integer installed = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+            if (installed == null || installed == 0) {
+                logger.warn("pg_trgm is not installed; user search will scan the users table");
+                return false;
+            }
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not check for pg_trgm: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.vtouch.login.security;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.ErrorDetail;
+import com.vtouch.login.service.MessageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Token bucket rate limiting for login and registration, per client IP and per username, and for the
+ * username availability check, per client IP under its own limit so it cannot be used to enumerate
+ * accounts. Runs ahead of authentication, so throttled requests never reach the {@code AuthenticationManager}
+ * and never cost a BCrypt round. The client IP is the servlet remote address; behind a proxy, enable
+ * {@code server.forward-headers-strategy} rather than trusting forwarded headers here.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+    private static final Set<String> LIMITED_PATHS = Set.of("/auth/login", "/auth/register");
+    private static final String AVAILABILITY_PATH = "/auth/availability";
+    private static final int MAX_INSPECTED_BODY_BYTES = 16 * 1024;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final MessageService messageService;
+    private final boolean enabled;
+    private final RateLimit ipLimit;
+    private final RateLimit usernameLimit;
+    private final RateLimit availabilityLimit;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+    private final Counter availabilityRejections;
+
+    public AuthRateLimitFilter(RateLimiter rateLimiter,
+                               ObjectMapper objectMapper,
+                               MessageService messageService,
+                               MeterRegistry meterRegistry,
+                               @Value("${rate-limit.enabled:true}") boolean enabled,
+                               @Value("${rate-limit.ip.capacity:30}") int ipCapacity,
+                               @Value("${rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+                               @Value("${rate-limit.username.capacity:5}") int usernameCapacity,
+                               @Value("${rate-limit.username.refill-period:1m}") Duration usernameRefillPeriod,
+                               @Value("${rate-limit.availability.capacity:60}") int availabilityCapacity,
+                               @Value("${rate-limit.availability.refill-period:1m}") Duration availabilityRefillPeriod) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.messageService = messageService;
+        this.enabled = enabled;
+        this.ipLimit = new RateLimit(ipCapacity, ipRefillPeriod);
+        this.usernameLimit = new RateLimit(usernameCapacity, usernameRefillPeriod);
+        this.availabilityLimit = new RateLimit(availabilityCapacity, availabilityRefillPeriod);
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+        this.usernameRejections = rejectionCounter(meterRegistry, "username");
+        this.availabilityRejections = rejectionCounter(meterRegistry, "availability");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return "GET".equals(request.getMethod())
+                ? !AVAILABILITY_PATH.equals(path)
+                : !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if ("GET".equals(request.getMethod())) {
+            Duration wait = rateLimiter.tryAcquire(key("availability", request.getRemoteAddr()), availabilityLimit);
+            if (!wait.isZero()) {
+                availabilityRejections.increment();
+                logger.warn("Rate limit exceeded for {} from IP {}", request.getServletPath(), request.getRemoteAddr());
+                reject(request, response, wait);
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Duration wait = rateLimiter.tryAcquire(key("ip", request.getRemoteAddr()), ipLimit);
+        if (!wait.isZero()) {
+            ipRejections.increment();
+            logger.warn("Rate limit exceeded for {} from IP {}", request.getServletPath(), request.getRemoteAddr());
+            reject(request, response, wait);
+            return;
+        }
+
+        // The username is in the JSON body; keep what was read so the controller can read it again
+        byte[] head = request.getInputStream().readNBytes(MAX_INSPECTED_BODY_BYTES);
+        CachedHeadRequest cachedRequest = new CachedHeadRequest(request, head);
+        String username = extractUsername(head);
+        if (username != null) {
+            wait = rateLimiter.tryAcquire(key("user", username.trim().toLowerCase(Locale.ROOT)), usernameLimit);
+            if (!wait.isZero()) {
+                usernameRejections.increment();
+                logger.warn("Rate limit exceeded for {} for user {}", request.getServletPath(), username);
+                reject(request, response, wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Duration wait) throws IOException {
+        String message = messageService.getMessageWithDefault("RATE_LIMITED", "Too many attempts, please retry later");
+        ApiResponse<Object> apiResponse = ApiResponse.error(message, List.of(ErrorDetail.global("RATE_LIMITED", message)))
+                .withPath(request.getRequestURI());
+
+        long retryAfterSeconds = Math.max(1L, (wait.toMillis() + 999) / 1000);
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+
+    /**
+     * Read the top-level "username" field without binding the whole body
+     */
+    private String extractUsername(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("username".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Malformed or truncated body: limit by IP only and let validation reject it
+            logger.debug("Could not read username for rate limiting: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static String key(String scope, String value) {
+        // Bound key size no matter what the client sends
+        String bounded = value.length() <= MAX_KEY_LENGTH ? value : TokenDigests.sha256(value);
+        return scope + ':' + bounded;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.rate-limit.rejected")
+                .description("Login, registration and availability requests rejected by the rate limiter")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Request whose body replays the bytes already read, followed by the rest of the original stream
+     */
+    private static final class CachedHeadRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream inputStream;
+
+        private CachedHeadRequest(HttpServletRequest request, byte[] head) throws IOException {
+            super(request);
+            this.inputStream = new CachedHeadInputStream(new ByteArrayInputStream(head), request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+    }
+
+    /**
+     * Cached head first, then the original stream; readiness and non-blocking reads follow the original
+     * once the head is drained
+     */
+    private static final class CachedHeadInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream head;
+        private final ServletInputStream rest;
+
+        private CachedHeadInputStream(ByteArrayInputStream head, ServletInputStream rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return head.available() > 0 ? head.read() : rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            return head.available() > 0 ? head.read(buffer, offset, length) : rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return head.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return head.available() > 0 || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            rest.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    readListener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    // The original stream may end before the listener has drained the cached head
+                    if (head.available() > 0) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+    }
+}
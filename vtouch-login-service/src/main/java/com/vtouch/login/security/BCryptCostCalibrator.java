@@ -0,0 +1,74 @@
+package com.vtouch.login.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on the current hardware fits a latency budget
+ */
+public final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Measure BCrypt on this machine and pick a cost
+     * @param budget Target time per hash
+     * @param minCost Lowest acceptable cost, used even when it exceeds the budget
+     * @param maxCost Highest cost to consider
+     * @return Cost meeting the budget
+     */
+    public static int calibrate(Duration budget, int minCost, int maxCost) {
+        return calibrate(budget, minCost, maxCost, BCryptCostCalibrator::measure);
+    }
+
+    /**
+     * Pick a cost from measured hash times
+     * @param budget Target time per hash
+     * @param minCost Lowest acceptable cost
+     * @param maxCost Highest cost to consider
+     * @param nanosPerHash Hash time in nanoseconds for a cost
+     * @return Cost meeting the budget
+     */
+    static int calibrate(Duration budget, int minCost, int maxCost, IntToLongFunction nanosPerHash) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt cost range must lie within 4..31: " + minCost + ".." + maxCost);
+        }
+        long budgetNanos = budget.toNanos();
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            long nanos = nanosPerHash.applyAsLong(cost);
+            logger.debug("BCrypt cost {} takes {} ms", cost, nanos / 1_000_000);
+            if (nanos > budgetNanos) {
+                // Each step doubles the work, so higher costs cannot fit either
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    /**
+     * Median hash time for a cost, after one warm-up hash
+     */
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        BCrypt.hashpw("calibration", salt);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,259 @@
+package com.vtouch.login.security;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Allocation-light HS256 encoder for the service's own access tokens.
+ * <p>
+ * The header is encoded once per key. The payload for the fixed claim set written by
+ * {@link com.vtouch.login.service.JwtService} is serialized straight into a per-thread byte buffer,
+ * base64url-encoded in place and signed with a per-thread {@link Mac}, so issuing a token allocates
+ * little more than the resulting string. Output is a standard compact JWS that jjwt parses and
+ * verifies like any token it built itself.
+ */
+public final class Hs256TokenEncoder {
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private final JwtSigningKey signingKey;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * Create an encoder for one HS256 key
+     * @param signingKey HS256 signing key
+     */
+    public Hs256TokenEncoder(JwtSigningKey signingKey) {
+        if (!JwtSigningKey.HS256.equals(signingKey.algorithm())) {
+            throw new IllegalArgumentException("Hs256TokenEncoder requires an HS256 key, got " + signingKey.algorithm());
+        }
+        this.signingKey = signingKey;
+        this.encodedHeader = encodeHeader(signingKey.kid());
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(newMac(signingKey)));
+    }
+
+    public JwtSigningKey signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * Encode and sign an access token
+     * @param subject Username ({@code sub})
+     * @param principal Principal claims ({@code uid}, {@code role}, {@code st}, {@code ver}); may be null
+     * @param sessionId Refresh token family ({@code sid}); may be null
+     * @param tokenId Token ID ({@code jti})
+     * @param issuedAt Issued-at in epoch seconds
+     * @param expiresAt Expiration in epoch seconds
+     * @return Compact JWS
+     */
+    public String encode(String subject, TokenPrincipal principal, String sessionId, String tokenId,
+                         long issuedAt, long expiresAt) {
+        Buffers b = buffers.get();
+        b.jsonLength = 0;
+
+        b.writeAscii("{\"jti\":");
+        b.writeString(tokenId);
+        b.writeAscii(",\"sub\":");
+        b.writeString(subject);
+        if (principal != null) {
+            b.writeAscii(",\"uid\":");
+            b.writeLong(principal.id());
+            b.writeAscii(",\"role\":");
+            b.writeString(principal.role().name());
+            b.writeAscii(",\"st\":");
+            b.writeString(principal.status().name());
+            if (principal.version() != null) {
+                b.writeAscii(",\"ver\":");
+                b.writeLong(principal.version());
+            }
+        }
+        if (sessionId != null) {
+            b.writeAscii(",\"sid\":");
+            b.writeString(sessionId);
+        }
+        b.writeAscii(",\"iat\":");
+        b.writeLong(issuedAt);
+        b.writeAscii(",\"exp\":");
+        b.writeLong(expiresAt);
+        b.writeAscii("}");
+
+        int maxLength = encodedHeader.length + (b.jsonLength + 2) / 3 * 4 + 1 + (SIGNATURE_LENGTH + 2) / 3 * 4;
+        byte[] out = b.output(maxLength);
+        System.arraycopy(encodedHeader, 0, out, 0, encodedHeader.length);
+        int position = base64Url(b.json, b.jsonLength, out, encodedHeader.length);
+
+        try {
+            b.mac.update(out, 0, position);
+            b.mac.doFinal(b.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+        out[position++] = '.';
+        position = base64Url(b.signature, SIGNATURE_LENGTH, out, position);
+
+        return new String(out, 0, position, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] encodeHeader(String kid) {
+        Buffers b = new Buffers(null);
+        b.writeAscii("{");
+        if (kid != null) {
+            b.writeAscii("\"kid\":");
+            b.writeString(kid);
+            b.writeAscii(",");
+        }
+        b.writeAscii("\"alg\":\"HS256\"}");
+
+        byte[] header = new byte[(b.jsonLength + 2) / 3 * 4 + 1];
+        int length = base64Url(b.json, b.jsonLength, header, 0);
+        header[length++] = '.';
+        return Arrays.copyOf(header, length);
+    }
+
+    private static Mac newMac(JwtSigningKey signingKey) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey.signingKey());
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Unpadded base64url encoding of {@code src[0, length)} into {@code dst} at {@code position}
+     * @return Position after the last written byte
+     */
+    private static int base64Url(byte[] src, int length, byte[] dst, int position) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[position++] = BASE64_URL[bits >>> 18];
+            dst[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            dst[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            dst[position++] = BASE64_URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xff) << 16 | (remaining == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[position++] = BASE64_URL[bits >>> 18];
+            dst[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            if (remaining == 2) {
+                dst[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Per-thread scratch space; grows to the largest token seen and is then reused
+     */
+    private static final class Buffers {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] json = new byte[512];
+        private int jsonLength;
+        private byte[] out = new byte[1024];
+
+        private Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        private byte[] output(int capacity) {
+            if (out.length < capacity) {
+                out = new byte[Math.max(capacity, out.length * 2)];
+            }
+            return out;
+        }
+
+        private void ensure(int additional) {
+            if (jsonLength + additional > json.length) {
+                json = Arrays.copyOf(json, Math.max(jsonLength + additional, json.length * 2));
+            }
+        }
+
+        private void writeAscii(String value) {
+            int length = value.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                json[jsonLength++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeLong(long value) {
+            ensure(20);
+            if (value == Long.MIN_VALUE) {
+                writeAscii("-9223372036854775808");
+                return;
+            }
+            if (value < 0) {
+                json[jsonLength++] = '-';
+                value = -value;
+            }
+            int start = jsonLength;
+            do {
+                json[jsonLength++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = jsonLength - 1; i < j; i++, j--) {
+                byte tmp = json[i];
+                json[i] = json[j];
+                json[j] = tmp;
+            }
+        }
+
+        /**
+         * Write a JSON string literal, escaping as required by RFC 8259 and encoding as UTF-8
+         */
+        private void writeString(String value) {
+            int length = value.length();
+            // Worst case: every char becomes a 6-byte \\uXXXX escape
+            ensure(length * 6 + 2);
+            json[jsonLength++] = '"';
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json[jsonLength++] = '\\';
+                    json[jsonLength++] = (byte) c;
+                } else if (c < 0x20) {
+                    writeUnicodeEscape(c);
+                } else if (c < 0x80) {
+                    json[jsonLength++] = (byte) c;
+                } else if (c < 0x800) {
+                    json[jsonLength++] = (byte) (0xc0 | (c >> 6));
+                    json[jsonLength++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    json[jsonLength++] = (byte) (0xf0 | (codePoint >> 18));
+                    json[jsonLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    json[jsonLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    json[jsonLength++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // Lone surrogate: not encodable as UTF-8, keep it as an escape
+                    writeUnicodeEscape(c);
+                } else {
+                    json[jsonLength++] = (byte) (0xe0 | (c >> 12));
+                    json[jsonLength++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    json[jsonLength++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            json[jsonLength++] = '"';
+        }
+
+        private void writeUnicodeEscape(char c) {
+            json[jsonLength++] = '\\';
+            json[jsonLength++] = 'u';
+            json[jsonLength++] = HEX[(c >> 12) & 0xf];
+            json[jsonLength++] = HEX[(c >> 8) & 0xf];
+            json[jsonLength++] = HEX[(c >> 4) & 0xf];
+            json[jsonLength++] = HEX[c & 0xf];
+        }
+    }
+}
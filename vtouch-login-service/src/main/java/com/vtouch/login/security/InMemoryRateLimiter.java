@@ -0,0 +1,67 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local rate limiter used when Redis is disabled.
+ * Each key holds one {@link AtomicLong}, updated lock-free. The map is bounded, so memory stays constant
+ * however many distinct keys arrive, and idle keys are evicted; an evicted key simply starts with a full bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> cells;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public InMemoryRateLimiter(@Value("${rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${rate-limit.idle-timeout:15m}") Duration idleTimeout) {
+        this(maxKeys, idleTimeout, System::nanoTime);
+    }
+
+    InMemoryRateLimiter(long maxKeys, Duration idleTimeout, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.cells = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Duration tryAcquire(String key, RateLimit limit) {
+        AtomicLong cell = cells.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoClock.getAsLong();
+        long interval = limit.emissionIntervalNanos();
+        long tolerance = limit.burstToleranceNanos();
+        while (true) {
+            long arrival = cell.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (cell.compareAndSet(arrival, start + interval)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Get approximate number of tracked keys
+     * @return Key count
+     */
+    public long size() {
+        cells.cleanUp();
+        return cells.estimatedSize();
+    }
+}
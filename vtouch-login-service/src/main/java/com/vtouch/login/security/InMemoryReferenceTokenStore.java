@@ -0,0 +1,58 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Node-local reference token store used when Redis is disabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryReferenceTokenStore implements ReferenceTokenStore {
+
+    private final Cache<String, ReferenceSession> sessions = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, ReferenceSession>() {
+                @Override
+                public long expireAfterCreate(String key, ReferenceSession session, long currentTime) {
+                    return Math.max(Duration.between(Instant.now(), session.expiresAt()).toNanos(), 0L);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, ReferenceSession session, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, session, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, ReferenceSession session, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @Override
+    public void save(String key, ReferenceSession session) {
+        sessions.put(key, session);
+    }
+
+    @Override
+    public ReferenceSession find(String key) {
+        return sessions.getIfPresent(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        sessions.invalidate(key);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        // Single node: there are no remote deletions to receive
+    }
+}
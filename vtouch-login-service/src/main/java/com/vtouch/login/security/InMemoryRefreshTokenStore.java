@@ -0,0 +1,81 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Node-local refresh token store used when Redis is disabled.
+ * Rotation runs inside the map's atomic compute, so concurrent refreshes are serialized per family.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, RefreshTokenFamily> families = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, RefreshTokenFamily>() {
+                @Override
+                public long expireAfterCreate(String id, RefreshTokenFamily family, long currentTime) {
+                    return Math.max(Duration.between(Instant.now(), family.expiresAt()).toNanos(), 0L);
+                }
+
+                @Override
+                public long expireAfterUpdate(String id, RefreshTokenFamily family, long currentTime, long currentDuration) {
+                    return expireAfterCreate(id, family, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String id, RefreshTokenFamily family, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @Override
+    public void create(RefreshTokenFamily family) {
+        families.put(family.familyId(), family);
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String presentedHash, String nextHash, Instant now, Duration reuseGrace) {
+        Rotation[] result = new Rotation[1];
+        families.asMap().compute(familyId, (id, family) -> {
+            if (family == null || family.isExpiredAt(now)) {
+                result[0] = new Rotation(Outcome.UNKNOWN, null);
+                return null;
+            }
+            if (family.currentHash().equals(presentedHash)) {
+                RefreshTokenFamily rotated = family.rotate(nextHash, now);
+                result[0] = new Rotation(Outcome.ROTATED, rotated);
+                return rotated;
+            }
+            if (presentedHash.equals(family.previousHash()) && family.rotatedAt().plus(reuseGrace).isAfter(now)) {
+                result[0] = new Rotation(Outcome.CONCURRENT, null);
+                return family;
+            }
+            result[0] = new Rotation(Outcome.REUSED, null);
+            return null;
+        });
+        return result[0];
+    }
+
+    @Override
+    public void updatePrincipal(String familyId, TokenPrincipal principal, Instant now) {
+        families.asMap().computeIfPresent(familyId, (id, family) -> family.withPrincipal(principal, now));
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        families.invalidate(familyId);
+    }
+
+    @Override
+    public long size() {
+        return families.estimatedSize();
+    }
+}
@@ -0,0 +1,59 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Node-local revocation store used when Redis is disabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final Cache<String, Instant> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String jti, Instant expiresAt, long currentTime) {
+                    return Math.max(Duration.between(Instant.now(), expiresAt).toNanos(), 0L);
+                }
+
+                @Override
+                public long expireAfterUpdate(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(jti, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @Override
+    public void revoke(String jti, Duration ttl) {
+        revoked.put(jti, Instant.now().plus(ttl));
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return revoked.getIfPresent(jti) != null;
+    }
+
+    @Override
+    public Set<String> revokedIds() {
+        return Set.copyOf(revoked.asMap().keySet());
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        // Single node: there are no remote revocations to receive
+    }
+}
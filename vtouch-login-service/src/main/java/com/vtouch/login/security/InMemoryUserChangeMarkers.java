@@ -0,0 +1,40 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Node-local change markers used when Redis is disabled.
+ * Markers live as long as a refresh token family, after which nothing issued before the change can be used.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryUserChangeMarkers implements UserChangeMarkers {
+
+    private final Cache<Long, Instant> markers;
+
+    public InMemoryUserChangeMarkers(@Value("${jwt.refresh-token.expiration:604800000}") long markerTtlMillis) {
+        this.markers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(markerTtlMillis))
+                .build();
+    }
+
+    @Override
+    public void markChanged(Long userId) {
+        if (userId != null) {
+            markers.put(userId, Instant.now());
+        }
+    }
+
+    @Override
+    public boolean changedSince(Long userId, Instant issuedAt) {
+        Instant changedAt = markers.getIfPresent(userId);
+        return changedAt != null && (issuedAt == null || !changedAt.isBefore(issuedAt));
+    }
+}
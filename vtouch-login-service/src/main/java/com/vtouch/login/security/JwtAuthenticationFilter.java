@@ -11,6 +11,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,10 +31,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserChangeMarkers userChangeMarkers;
+    private final TokenRevocationService tokenRevocationService;
+    private final ReferenceTokenService referenceTokenService;
+    private final RouteTable routeTable;
+    private final boolean claimsPrincipalEnabled;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserService userService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserService userService,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   UserChangeMarkers userChangeMarkers,
+                                   TokenRevocationService tokenRevocationService,
+                                   ReferenceTokenService referenceTokenService,
+                                   RouteTable routeTable,
+                                   @Value("${jwt.claims-principal.enabled:false}") boolean claimsPrincipalEnabled) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userChangeMarkers = userChangeMarkers;
+        this.tokenRevocationService = tokenRevocationService;
+        this.referenceTokenService = referenceTokenService;
+        this.routeTable = routeTable;
+        this.claimsPrincipalEnabled = claimsPrincipalEnabled;
     }
 
     @Override
@@ -41,7 +60,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         
-        logger.info("JWT Filter doFilterInternal called for path: {}", request.getRequestURI());
+        logger.debug("JWT Filter doFilterInternal called for path: {}", request.getRequestURI());
         
         String authHeader = request.getHeader(AUTHORIZATION_HEADER);
         
@@ -52,10 +71,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         String jwtToken = authHeader.substring(BEARER_PREFIX.length());
+        ValidatedToken validatedToken = null;
         String username = null;
         
         try {
-            username = jwtService.extractUsername(jwtToken);
+            if (ReferenceTokenService.isReferenceToken(jwtToken)) {
+                // Opaque token: resolved against the session store through the near-cache
+                validatedToken = referenceTokenService.resolve(jwtToken);
+            } else {
+                // Signature and expiration are verified once per token; repeat calls hit the cache
+                validatedToken = verifiedTokenCache.verify(jwtToken);
+            }
+            if (validatedToken == null) {
+                logger.warn("Reference token is unknown, expired or revoked");
+                request.setAttribute("jwt.invalid", true);
+            } else if (tokenRevocationService.isRevoked(validatedToken)) {
+                logger.warn("JWT token has been revoked for user: {}", validatedToken.subject());
+                request.setAttribute("jwt.revoked", true);
+            } else {
+                username = validatedToken.subject();
+            }
         } catch (ExpiredJwtException e) {
             logger.warn("JWT token has expired: {}", e.getMessage());
             request.setAttribute("jwt.expired", true);
@@ -73,10 +108,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // If we have a valid username and no existing authentication
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = userService.loadUserByUsername(username);
+                UserDetails userDetails = resolvePrincipal(validatedToken);
                 
                 // Validate the token
-                if (jwtService.isTokenValid(jwtToken, userDetails)) {
+                if (jwtService.isTokenValid(validatedToken, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = 
                         new UsernamePasswordAuthenticationToken(
                             userDetails, 
@@ -100,23 +135,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Resolve the principal from token claims when claims-only mode is on and the user has not
+     * changed since the token was issued; otherwise load the user from the database.
+     */
+    private UserDetails resolvePrincipal(ValidatedToken validatedToken) {
+        if (claimsPrincipalEnabled) {
+            TokenPrincipal principal = TokenPrincipal.fromToken(validatedToken);
+            if (principal != null
+                    && principal.isEnabled()
+                    && !userChangeMarkers.changedSince(principal.id(), validatedToken.issuedAt())) {
+                return principal;
+            }
+        }
+        return userService.loadUserByUsername(validatedToken.subject());
+    }
+    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        String path = request.getRequestURI();
-        
-        logger.info("JWT Filter shouldNotFilter check for path: {}", path);
-        
-        // Skip JWT processing for public endpoints
-        boolean shouldSkip = path.startsWith("/api/auth/") ||
-               path.startsWith("/api/health") ||
-               path.startsWith("/api/info") ||
-               path.startsWith("/api/simple") ||
-               path.startsWith("/api/v3/api-docs") ||
-               path.startsWith("/api/swagger-ui") ||
-               path.startsWith("/api/h2-console") ||
-               path.equals("/api/swagger-ui.html");
-               
-        logger.info("JWT Filter shouldNotFilter result: {} for path: {}", shouldSkip, path);
-        return shouldSkip;
+        // Public routes never look at the token
+        return routeTable.lookup(request).isPublic();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.config.JwtKeyStoreProperties;
+import com.vtouch.login.exception.SystemException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ring of JWT signing keys indexed by {@code kid}.
+ * <p>
+ * Keys are loaded from a local key store (aliases become key IDs) and reloaded when the file
+ * changes. Exactly one key signs new tokens: the most recently activated one. Keys scheduled for
+ * the future are already published and verifiable, and superseded keys stay verifiable until every
+ * token they could have signed has expired, so rotation never invalidates outstanding tokens.
+ * Without a key store the ring holds the single key configured through {@code jwt.secret}/{@code jwt.algorithm}.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    static final String DEFAULT_KID = "default";
+
+    private final JwtKeyStoreProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final long retentionMillis;
+    private final JwtSigningKey fallbackKey;
+
+    private volatile List<ScheduledKey> scheduledKeys = List.of();
+    private volatile Snapshot snapshot;
+    private volatile long loadedModifiedTime = Long.MIN_VALUE;
+
+    @Autowired
+    public JwtKeyRing(JwtKeyStoreProperties properties,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String secret,
+                      @Value("${jwt.algorithm:HS256}") String algorithm,
+                      @Value("${jwt.refresh-token.expiration:604800000}") long retentionMillis) {
+        this(properties, eventPublisher, secret, algorithm, retentionMillis, Clock.systemUTC());
+    }
+
+    JwtKeyRing(JwtKeyStoreProperties properties,
+               ApplicationEventPublisher eventPublisher,
+               String secret,
+               String algorithm,
+               long retentionMillis,
+               Clock clock) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.retentionMillis = retentionMillis;
+        this.fallbackKey = properties.isConfigured() ? null : fallbackKey(secret, algorithm);
+        refresh();
+    }
+
+    /**
+     * Key that signs new tokens
+     * @return Active signing key
+     */
+    public JwtSigningKey activeKey() {
+        return snapshot.active();
+    }
+
+    /**
+     * Look up a verification key by {@code kid} in O(1)
+     * @param kid Key ID from the token header, or null for tokens issued before key IDs were used
+     * @return Key, or null if unknown or retired past its retention window
+     */
+    public JwtSigningKey findByKid(String kid) {
+        return snapshot.byKid().get(kid != null ? kid : DEFAULT_KID);
+    }
+
+    /**
+     * Keys currently accepted for verification, including scheduled ones
+     * @return Verification keys
+     */
+    public Collection<JwtSigningKey> verificationKeys() {
+        return snapshot.byKid().values();
+    }
+
+    /**
+     * Reload the key store if it changed and re-evaluate which key is active
+     */
+    @Scheduled(fixedDelayString = "${jwt.keystore.reload-interval-ms:30000}",
+               initialDelayString = "${jwt.keystore.reload-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (properties.isConfigured()) {
+            Path path = Path.of(properties.location());
+            try {
+                long modifiedTime = Files.getLastModifiedTime(path).toMillis();
+                if (modifiedTime != loadedModifiedTime) {
+                    scheduledKeys = load(path);
+                    loadedModifiedTime = modifiedTime;
+                    logger.info("Loaded {} signing keys from {}", scheduledKeys.size(), path);
+                }
+            } catch (Exception e) {
+                if (snapshot == null) {
+                    throw new SystemException.ConfigurationException("jwt.keystore.location",
+                            "Could not load signing key store: " + e.getMessage());
+                }
+                logger.error("Could not reload signing key store {}; keeping current keys: {}", path, e.getMessage());
+            }
+        } else if (scheduledKeys.isEmpty()) {
+            scheduledKeys = List.of(new ScheduledKey(fallbackKey, Instant.EPOCH));
+        }
+
+        Snapshot previous = snapshot;
+        snapshot = buildSnapshot(scheduledKeys, clock.instant());
+        if (previous != null) {
+            announceChanges(previous, snapshot);
+        }
+    }
+
+    private Snapshot buildSnapshot(List<ScheduledKey> keys, Instant now) {
+        List<ScheduledKey> ordered = new ArrayList<>(keys);
+        ordered.sort(Comparator.comparing(ScheduledKey::activatesAt));
+
+        int activeIndex = -1;
+        for (int i = 0; i < ordered.size(); i++) {
+            if (!ordered.get(i).activatesAt().isAfter(now)) {
+                activeIndex = i;
+            }
+        }
+        if (activeIndex < 0) {
+            // Nothing is due yet; sign with the earliest scheduled key rather than fail
+            activeIndex = 0;
+            logger.warn("No signing key is due yet; using earliest scheduled key {}", ordered.get(0).key().kid());
+        }
+
+        Map<String, JwtSigningKey> byKid = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            ScheduledKey scheduled = ordered.get(i);
+            boolean retiredPastRetention = i < activeIndex
+                    && ordered.get(i + 1).activatesAt().plusMillis(retentionMillis).isBefore(now);
+            if (!retiredPastRetention) {
+                byKid.put(scheduled.key().kid(), scheduled.key());
+            }
+        }
+        return new Snapshot(ordered.get(activeIndex).key(), Collections.unmodifiableMap(byKid));
+    }
+
+    private void announceChanges(Snapshot previous, Snapshot current) {
+        if (!previous.active().kid().equals(current.active().kid())) {
+            logger.info("Signing key rotated from {} to {}", previous.active().kid(), current.active().kid());
+        }
+        Set<String> removed = new HashSet<>(previous.byKid().keySet());
+        removed.removeAll(current.byKid().keySet());
+        if (!removed.isEmpty()) {
+            logger.info("Signing keys no longer accepted: {}", removed);
+            eventPublisher.publishEvent(new JwtKeysRemovedEvent(Set.copyOf(removed)));
+        }
+    }
+
+    private List<ScheduledKey> load(Path path) throws Exception {
+        char[] password = properties.password() != null ? properties.password().toCharArray() : new char[0];
+        KeyStore keyStore = KeyStore.getInstance(properties.type());
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password);
+        }
+
+        List<ScheduledKey> keys = new ArrayList<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (!keyStore.isKeyEntry(alias)) {
+                continue;
+            }
+            Key key = keyStore.getKey(alias, password);
+            JwtSigningKey signingKey;
+            if (key instanceof SecretKey secret) {
+                signingKey = JwtSigningKey.hmac(alias, secret);
+            } else if (key instanceof PrivateKey privateKey) {
+                KeyPair keyPair = new KeyPair(keyStore.getCertificate(alias).getPublicKey(), privateKey);
+                signingKey = JwtSigningKey.asymmetric(alias, JwtSigningKey.algorithmFor(privateKey), keyPair);
+            } else {
+                logger.warn("Skipping unsupported key entry {}", alias);
+                continue;
+            }
+
+            Instant activatesAt = properties.activations().get(alias);
+            if (activatesAt == null) {
+                activatesAt = keyStore.getCreationDate(alias).toInstant().plus(properties.activationDelay());
+            }
+            keys.add(new ScheduledKey(signingKey, activatesAt));
+        }
+
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("Key store contains no usable signing keys");
+        }
+        return List.copyOf(keys);
+    }
+
+    private static JwtSigningKey fallbackKey(String secret, String algorithm) {
+        String normalized = JwtSigningKey.normalize(algorithm);
+        if (JwtSigningKey.HS256.equals(normalized)) {
+            return JwtSigningKey.hmac(DEFAULT_KID, secret);
+        }
+        logger.warn("No jwt.keystore.location configured; generating an ephemeral {} key pair that will not survive a restart", normalized);
+        return JwtSigningKey.asymmetric(DEFAULT_KID, normalized, JwtSigningKey.generateKeyPair(normalized));
+    }
+
+    private record ScheduledKey(JwtSigningKey key, Instant activatesAt) {}
+
+    private record Snapshot(JwtSigningKey active, Map<String, JwtSigningKey> byKid) {}
+}
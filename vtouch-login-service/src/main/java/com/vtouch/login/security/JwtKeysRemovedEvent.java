@@ -0,0 +1,10 @@
+package com.vtouch.login.security;
+
+import java.util.Set;
+
+/**
+ * Published when signing keys disappear from the key ring, so anything that cached
+ * verification results for tokens signed with those keys can drop them.
+ */
+public record JwtKeysRemovedEvent(Set<String> kids) {
+}
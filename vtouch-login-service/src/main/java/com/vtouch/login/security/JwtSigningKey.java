@@ -0,0 +1,203 @@
+package com.vtouch.login.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A pre-built JWT signing key: the key used to sign, the key used to verify and the
+ * jjwt algorithm that ties them together. Symmetric (HS256) keys sign and verify with the
+ * same secret; asymmetric keys (RS256, ES256, EdDSA) publish their public half as a JWK.
+ */
+public record JwtSigningKey(
+        String kid,
+        String algorithm,
+        Key signingKey,
+        Key verificationKey,
+        SecureDigestAlgorithm<?, ?> jwsAlgorithm
+) {
+
+    public static final String HS256 = "HS256";
+    public static final String RS256 = "RS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Build an HMAC key from a base64-encoded secret
+     * @param kid Key ID (may be null)
+     * @param base64Secret Base64-encoded secret
+     * @return Signing key
+     */
+    public static JwtSigningKey hmac(String kid, String base64Secret) {
+        return hmac(kid, Keys.hmacShaKeyFor(Base64.getDecoder().decode(base64Secret)));
+    }
+
+    /**
+     * Wrap an existing HMAC secret, e.g. one loaded from a key store
+     * @param kid Key ID (may be null)
+     * @param secret Secret key of at least 256 bits
+     * @return Signing key
+     */
+    public static JwtSigningKey hmac(String kid, SecretKey secret) {
+        SecretKey secretKey = Keys.hmacShaKeyFor(secret.getEncoded());
+        return new JwtSigningKey(kid, HS256, secretKey, secretKey, Jwts.SIG.HS256);
+    }
+
+    /**
+     * Wrap an existing asymmetric key pair
+     * @param kid Key ID
+     * @param algorithm One of RS256, ES256, EdDSA
+     * @param keyPair Key pair
+     * @return Signing key
+     */
+    public static JwtSigningKey asymmetric(String kid, String algorithm, KeyPair keyPair) {
+        return new JwtSigningKey(kid, algorithm, keyPair.getPrivate(), keyPair.getPublic(), jwsAlgorithm(algorithm));
+    }
+
+    /**
+     * Generate a fresh asymmetric key pair for the given algorithm
+     * @param algorithm One of RS256, ES256, EdDSA
+     * @return Signing key with a random key ID
+     */
+    public static JwtSigningKey generate(String algorithm) {
+        return asymmetric(UUID.randomUUID().toString(), algorithm, generateKeyPair(algorithm));
+    }
+
+    /**
+     * Generate a key pair suitable for the given algorithm
+     * @param algorithm One of RS256, ES256, EdDSA
+     * @return Key pair
+     */
+    public static KeyPair generateKeyPair(String algorithm) {
+        try {
+            KeyPairGenerator generator;
+            switch (normalize(algorithm)) {
+                case RS256 -> {
+                    generator = KeyPairGenerator.getInstance("RSA");
+                    generator.initialize(2048);
+                }
+                case ES256 -> {
+                    generator = KeyPairGenerator.getInstance("EC");
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                }
+                case EDDSA -> generator = KeyPairGenerator.getInstance("Ed25519");
+                default -> throw new IllegalArgumentException("Unsupported asymmetric JWT algorithm: " + algorithm);
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate " + algorithm + " key pair", e);
+        }
+    }
+
+    /**
+     * Pick the JWT algorithm matching a private key's type
+     * @param privateKey Private key
+     * @return One of RS256, ES256, EdDSA
+     */
+    public static String algorithmFor(PrivateKey privateKey) {
+        return switch (privateKey.getAlgorithm()) {
+            case "RSA" -> RS256;
+            case "EC" -> ES256;
+            case "EdDSA", "Ed25519" -> EDDSA;
+            default -> throw new IllegalArgumentException("Unsupported signing key type: " + privateKey.getAlgorithm());
+        };
+    }
+
+    /**
+     * Normalize configured algorithm names (e.g. "rs256", "eddsa")
+     * @param algorithm Configured algorithm
+     * @return Canonical algorithm name
+     */
+    public static String normalize(String algorithm) {
+        if (algorithm == null || algorithm.isBlank()) {
+            return HS256;
+        }
+        String upper = algorithm.trim().toUpperCase(Locale.ROOT);
+        return "EDDSA".equals(upper) ? EDDSA : upper;
+    }
+
+    private static SecureDigestAlgorithm<?, ?> jwsAlgorithm(String algorithm) {
+        return switch (normalize(algorithm)) {
+            case HS256 -> Jwts.SIG.HS256;
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case EDDSA -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm);
+        };
+    }
+
+    /**
+     * Check if this key can be published in a JWKS
+     * @return true for asymmetric keys
+     */
+    public boolean isAsymmetric() {
+        return verificationKey instanceof PublicKey;
+    }
+
+    /**
+     * Public JWK representation of the verification key
+     * @return JWK as a JSON-ready map, or null for symmetric keys
+     */
+    public Map<String, Object> publicJwk() {
+        if (!isAsymmetric()) {
+            return null;
+        }
+
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (verificationKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encodeUnsigned(rsa.getModulus(), 0));
+            jwk.put("e", encodeUnsigned(rsa.getPublicExponent(), 0));
+        } else if (verificationKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encodeUnsigned(ec.getW().getAffineX(), 32));
+            jwk.put("y", encodeUnsigned(ec.getW().getAffineY(), 32));
+        } else {
+            // Ed25519: the raw 32-byte key follows the fixed X.509 SubjectPublicKeyInfo prefix
+            byte[] encoded = verificationKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm);
+        if (kid != null) {
+            jwk.put("kid", kid);
+        }
+        return jwk;
+    }
+
+    private static String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+}
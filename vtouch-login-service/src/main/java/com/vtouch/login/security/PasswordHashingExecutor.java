@@ -0,0 +1,177 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, CPU-sized executor for password hashing and verification.
+ * <p>
+ * BCrypt is deliberately slow, so running it on servlet threads lets a login burst starve every other
+ * endpoint. Work submitted here is admitted only while the queue has room; beyond that, and for tasks that
+ * waited longer than the configured maximum, callers get a {@link SystemException.CapacityExceededException}
+ * that the API maps to 503 with {@code Retry-After}. Code already running on a hashing thread calls the
+ * encoder inline.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+    private static final String RESOURCE = "password-hashing";
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final long maxQueueWaitNanos;
+    private final Duration retryAfter;
+    private final ConcurrentMap<String, Timer> queueWaitTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${password-hashing.threads:0}") int threads,
+                                   @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${password-hashing.max-queue-wait:2s}") Duration maxQueueWait,
+                                   @Value("${password-hashing.retry-after:1s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.meterRegistry = meterRegistry;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing threads busy")
+                .register(meterRegistry);
+        logger.info("Password hashing executor started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Run a task that hashes or verifies passwords on the hashing executor
+     * @param operation Operation name used as metric tag, e.g. "login"
+     * @param task Task to run
+     * @return Future completed with the task result, or exceptionally with the task's exception
+     * @throws SystemException.CapacityExceededException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWaitTimer(operation).record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    // The caller has likely given up; do not spend a BCrypt round on it
+                    rejectionCounter(operation, "queue-wait").increment();
+                    future.completeExceptionally(new SystemException.CapacityExceededException(RESOURCE, retryAfter));
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectionCounter(operation, "queue-full").increment();
+            logger.warn("Password hashing queue is full; rejecting {}", operation);
+            throw new SystemException.CapacityExceededException(RESOURCE, retryAfter);
+        }
+        return future;
+    }
+
+    /**
+     * Run a task on the hashing executor and wait for it; runs inline when already on a hashing thread
+     * @param operation Operation name used as metric tag
+     * @param task Task to run
+     * @return Task result
+     * @throws SystemException.CapacityExceededException if the executor is saturated
+     */
+    public <T> T call(String operation, Supplier<T> task) {
+        if (isHashingThread()) {
+            return task.get();
+        }
+        try {
+            return submit(operation, task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SystemException.CapacityExceededException(RESOURCE, retryAfter);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Check whether the current thread belongs to this executor
+     * @return True on a hashing thread
+     */
+    public boolean isHashingThread() {
+        return Thread.currentThread() instanceof HashingThread;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Timer queueWaitTimer(String operation) {
+        return queueWaitTimers.computeIfAbsent(operation, op -> Timer.builder("password.hashing.queue.wait")
+                .description("Time password hashing tasks spend waiting for a thread")
+                .tag("operation", op)
+                .register(meterRegistry));
+    }
+
+    private Counter rejectionCounter(String operation, String reason) {
+        return rejectionCounters.computeIfAbsent(operation + ':' + reason, key -> Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks turned away because the executor was saturated")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(meterRegistry));
+    }
+
+    private static final class HashingThread extends Thread {
+        private HashingThread(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new HashingThread(runnable, "password-hash-" + sequence.incrementAndGet());
+        }
+    }
+}
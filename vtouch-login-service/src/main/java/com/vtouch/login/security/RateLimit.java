@@ -0,0 +1,33 @@
+package com.vtouch.login.security;
+
+import java.time.Duration;
+
+/**
+ * Token bucket parameters: up to {@code capacity} requests in a burst, refilled evenly over {@code refillPeriod}
+ * @param capacity Bucket size
+ * @param refillPeriod Time to refill an empty bucket
+ */
+public record RateLimit(int capacity, Duration refillPeriod) {
+
+    public RateLimit {
+        if (capacity < 1 || refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and refill period");
+        }
+    }
+
+    /**
+     * Time between two tokens
+     * @return Emission interval in nanoseconds
+     */
+    public long emissionIntervalNanos() {
+        return Math.max(refillPeriod.toNanos() / capacity, 1L);
+    }
+
+    /**
+     * How far ahead of schedule a key may get, which is what allows a burst of {@code capacity}
+     * @return Burst tolerance in nanoseconds
+     */
+    public long burstToleranceNanos() {
+        return emissionIntervalNanos() * (capacity - 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.vtouch.login.security;
+
+import java.time.Duration;
+
+/**
+ * Token bucket rate limiter keyed by an arbitrary string, such as a username or a client IP.
+ * Buckets are kept in the equivalent GCRA form, a single "theoretical arrival time" per key,
+ * so taking a token is one compare-and-set locally or one script call in Redis
+ */
+public interface RateLimiter {
+
+    /**
+     * Take a token from the key's bucket if one is available
+     * @param key Bucket key
+     * @param limit Bucket parameters
+     * @return {@link Duration#ZERO} if the request is allowed, otherwise the time until a token is available
+     */
+    Duration tryAcquire(String key, RateLimit limit);
+}
@@ -0,0 +1,85 @@
+package com.vtouch.login.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rate limiter shared across nodes through Redis.
+ * Each key is one value holding the theoretical arrival time in milliseconds, updated by a script and
+ * expiring once the bucket would be full again. The script reads the clock from Redis, so nodes with
+ * skewed clocks still share one timeline. If Redis is unreachable the node falls back to its own local
+ * limiter rather than refusing every login; the outage and the recovery are logged once each.
+ * Activated only when Redis is enabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+    private static final String RATE_LIMIT_KEY = "ratelimit:";
+
+    /**
+     * KEYS[1] = cell key; ARGV = emission interval, burst tolerance (ms).
+     * Returns 0 when allowed, otherwise the wait in ms
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local arrival = tonumber(redis.call('GET', KEYS[1]) or now)
+            if arrival < now then
+                arrival = now
+            end
+            local wait = arrival - now - tolerance
+            if wait > 0 then
+                return wait
+            end
+            local next = arrival + interval
+            redis.call('SET', KEYS[1], next, 'PX', next - now)
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InMemoryRateLimiter fallback;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+
+    public RedisRateLimiter(RedisConnectionFactory connectionFactory,
+                            @Value("${rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${rate-limit.idle-timeout:15m}") Duration idleTimeout) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.fallback = new InMemoryRateLimiter(maxKeys, idleTimeout);
+    }
+
+    @Override
+    public Duration tryAcquire(String key, RateLimit limit) {
+        long interval = Math.max(limit.emissionIntervalNanos() / 1_000_000, 1L);
+        try {
+            Long wait = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(RATE_LIMIT_KEY + key),
+                    String.valueOf(interval),
+                    String.valueOf(interval * (limit.capacity() - 1)));
+            if (degraded.compareAndSet(true, false)) {
+                logger.info("Redis rate limiter is available again");
+            }
+            return wait != null && wait > 0 ? Duration.ofMillis(wait) : Duration.ZERO;
+        } catch (RuntimeException e) {
+            if (degraded.compareAndSet(false, true)) {
+                logger.warn("Redis rate limiter unavailable, using local limits until it recovers: {}", e.getMessage());
+            } else {
+                logger.debug("Redis rate limiter still unavailable: {}", e.getMessage());
+            }
+            return fallback.tryAcquire(key, limit);
+        }
+    }
+}
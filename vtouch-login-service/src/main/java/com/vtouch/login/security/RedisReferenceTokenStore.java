@@ -0,0 +1,110 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reference token store shared across nodes through Redis.
+ * Each session is a hash that expires with the token, written together with its expiration by one Lua
+ * script so it can never be left without one; deletions are announced on a pub/sub channel
+ * so every node's near-cache drops the session at once.
+ * Activated only when Redis is enabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisReferenceTokenStore implements ReferenceTokenStore {
+
+    private static final String SESSION_KEY = "reference:token:";
+    private static final String DELETION_CHANNEL = "reference:token:deletions";
+
+    /**
+     * KEYS[1] session hash; ARGV[1] expiration millis, ARGV[2..] field/value pairs
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIREAT', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisReferenceTokenStore(RedisConnectionFactory connectionFactory,
+                                    RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void save(String key, ReferenceSession session) {
+        TokenPrincipal principal = session.principal();
+        Map<String, String> fields = new HashMap<>();
+        fields.put("uid", String.valueOf(principal.id()));
+        fields.put("sub", principal.username());
+        fields.put("role", principal.role().name());
+        fields.put("st", principal.status().name());
+        fields.put("ver", principal.version() != null ? String.valueOf(principal.version()) : "");
+        fields.put("sid", session.sessionId() != null ? session.sessionId() : "");
+        fields.put("iat", String.valueOf(session.issuedAt().toEpochMilli()));
+        fields.put("exp", String.valueOf(session.expiresAt().toEpochMilli()));
+
+        List<String> args = new ArrayList<>(1 + fields.size() * 2);
+        args.add(String.valueOf(session.expiresAt().toEpochMilli()));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        redisTemplate.execute(SAVE_SCRIPT, List.of(SESSION_KEY + key), args.toArray());
+    }
+
+    @Override
+    public ReferenceSession find(String key) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(SESSION_KEY + key);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        String version = (String) fields.get("ver");
+        String sessionId = (String) fields.get("sid");
+        TokenPrincipal principal = new TokenPrincipal(
+                Long.valueOf((String) fields.get("uid")),
+                (String) fields.get("sub"),
+                User.UserRole.valueOf((String) fields.get("role")),
+                User.UserStatus.valueOf((String) fields.get("st")),
+                version == null || version.isEmpty() ? null : Integer.valueOf(version)
+        );
+        return new ReferenceSession(
+                principal,
+                sessionId == null || sessionId.isEmpty() ? null : sessionId,
+                Instant.ofEpochMilli(Long.parseLong((String) fields.get("iat"))),
+                Instant.ofEpochMilli(Long.parseLong((String) fields.get("exp")))
+        );
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(SESSION_KEY + key);
+        redisTemplate.convertAndSend(DELETION_CHANNEL, key);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(DELETION_CHANNEL));
+    }
+}
@@ -0,0 +1,182 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refresh token store shared across nodes through Redis.
+ * Each family is a hash that expires at the family's absolute expiration; creation, rotation and principal
+ * updates are each a single Lua script, so no family is ever left without its expiration, the compare-and-swap
+ * is atomic across nodes, and each costs one round trip. A sorted set of
+ * family IDs scored by expiration keeps {@link #size()} cheap.
+ * Activated only when Redis is enabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String FAMILY_KEY = "refresh:family:";
+    private static final String FAMILY_INDEX_KEY = "refresh:families";
+
+    /**
+     * KEYS[1] family hash, KEYS[2] family index
+     * ARGV[1] expiration millis, ARGV[2] family ID, ARGV[3..] field/value pairs
+     */
+    private static final RedisScript<Long> CREATE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIREAT', KEYS[1], ARGV[1])
+            redis.call('ZADD', KEYS[2], ARGV[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] family hash; ARGV field/value pairs. A family revoked or expired meanwhile is not recreated
+     */
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV))
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] family hash, KEYS[2] family index
+     * ARGV[1] presented hash, ARGV[2] next hash, ARGV[3] now millis, ARGV[4] grace millis, ARGV[5] family ID
+     */
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local cur = redis.call('HGET', KEYS[1], 'cur')
+            if not cur then
+              return {'UNKNOWN'}
+            end
+            if cur == ARGV[1] then
+              redis.call('HSET', KEYS[1], 'prev', cur, 'cur', ARGV[2], 'rot', ARGV[3])
+              local family = redis.call('HGETALL', KEYS[1])
+              table.insert(family, 1, 'ROTATED')
+              return family
+            end
+            local prev = redis.call('HGET', KEYS[1], 'prev')
+            local rot = tonumber(redis.call('HGET', KEYS[1], 'rot') or '0')
+            if prev == ARGV[1] and tonumber(ARGV[3]) - rot < tonumber(ARGV[4]) then
+              return {'CONCURRENT'}
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[2], ARGV[5])
+            return {'REUSED'}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRefreshTokenStore(RedisConnectionFactory connectionFactory) {
+        // Plain strings on both sides so the Lua script can compare stored hashes directly
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    public void create(RefreshTokenFamily family) {
+        String expiresAt = String.valueOf(family.expiresAt().toEpochMilli());
+        Map<String, String> fields = new HashMap<>();
+        fields.put("cur", family.currentHash());
+        fields.put("rot", String.valueOf(family.rotatedAt().toEpochMilli()));
+        fields.put("exp", expiresAt);
+        fields.putAll(principalFields(family.principal(), family.principalAt()));
+
+        List<String> args = new ArrayList<>(2 + fields.size() * 2);
+        args.add(expiresAt);
+        args.add(family.familyId());
+        addFields(args, fields);
+        redisTemplate.execute(CREATE_SCRIPT, List.of(FAMILY_KEY + family.familyId(), FAMILY_INDEX_KEY), args.toArray());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Rotation rotate(String familyId, String presentedHash, String nextHash, Instant now, Duration reuseGrace) {
+        List<Object> result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(FAMILY_KEY + familyId, FAMILY_INDEX_KEY),
+                presentedHash, nextHash, String.valueOf(now.toEpochMilli()), String.valueOf(reuseGrace.toMillis()), familyId);
+        if (result == null || result.isEmpty()) {
+            return new Rotation(Outcome.UNKNOWN, null);
+        }
+
+        Outcome outcome = Outcome.valueOf(String.valueOf(result.get(0)));
+        if (outcome != Outcome.ROTATED) {
+            return new Rotation(outcome, null);
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 1; i + 1 < result.size(); i += 2) {
+            fields.put(String.valueOf(result.get(i)), String.valueOf(result.get(i + 1)));
+        }
+        return new Rotation(outcome, toFamily(familyId, fields));
+    }
+
+    @Override
+    public void updatePrincipal(String familyId, TokenPrincipal principal, Instant now) {
+        List<String> args = new ArrayList<>();
+        addFields(args, principalFields(principal, now));
+        redisTemplate.execute(UPDATE_SCRIPT, List.of(FAMILY_KEY + familyId), args.toArray());
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        redisTemplate.delete(FAMILY_KEY + familyId);
+        redisTemplate.opsForZSet().remove(FAMILY_INDEX_KEY, familyId);
+    }
+
+    @Override
+    public long size() {
+        // Drop index entries of families that expired on their own
+        redisTemplate.opsForZSet().removeRangeByScore(FAMILY_INDEX_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+        Long size = redisTemplate.opsForZSet().zCard(FAMILY_INDEX_KEY);
+        return size != null ? size : 0L;
+    }
+
+    private static void addFields(List<String> args, Map<String, String> fields) {
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+    }
+
+    private static Map<String, String> principalFields(TokenPrincipal principal, Instant principalAt) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("uid", String.valueOf(principal.id()));
+        fields.put("sub", principal.username());
+        fields.put("role", principal.role().name());
+        fields.put("st", principal.status().name());
+        fields.put("ver", principal.version() != null ? String.valueOf(principal.version()) : "");
+        fields.put("pat", String.valueOf(principalAt.toEpochMilli()));
+        return fields;
+    }
+
+    private static RefreshTokenFamily toFamily(String familyId, Map<String, String> fields) {
+        String version = fields.get("ver");
+        TokenPrincipal principal = new TokenPrincipal(
+                Long.valueOf(fields.get("uid")),
+                fields.get("sub"),
+                User.UserRole.valueOf(fields.get("role")),
+                User.UserStatus.valueOf(fields.get("st")),
+                version == null || version.isEmpty() ? null : Integer.valueOf(version)
+        );
+        return new RefreshTokenFamily(
+                familyId,
+                fields.get("cur"),
+                fields.get("prev"),
+                Instant.ofEpochMilli(Long.parseLong(fields.get("rot"))),
+                principal,
+                Instant.ofEpochMilli(Long.parseLong(fields.get("pat"))),
+                Instant.ofEpochMilli(Long.parseLong(fields.get("exp")))
+        );
+    }
+}
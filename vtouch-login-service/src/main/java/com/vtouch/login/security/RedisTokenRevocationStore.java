@@ -0,0 +1,80 @@
+package com.vtouch.login.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Revocation store shared across nodes through Redis.
+ * Revoked IDs are stored with a TTL equal to the token's remaining lifetime and announced on a
+ * pub/sub channel so every node can add them to its local filter. A sorted set indexes the revoked IDs by
+ * expiry time, so seeding a node reads that one key instead of walking the keyspace; each revocation prunes
+ * the entries that have expired, so the index stays as large as the set of live revocations.
+ * Activated only when Redis is enabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisTokenRevocationStore implements TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenRevocationStore.class);
+    private static final String REVOKED_KEY = "token:revoked:";
+    private static final String REVOKED_INDEX_KEY = "token:revoked-index";
+    private static final String REVOCATION_CHANNEL = "token:revocations";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisTokenRevocationStore(RedisTemplate<String, Object> redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void revoke(String jti, Duration ttl) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForValue().set(REVOKED_KEY + jti, Boolean.TRUE, ttl);
+        redisTemplate.opsForZSet().add(REVOKED_INDEX_KEY, jti, now + ttl.toMillis());
+        // The per-token keys expire on their own; their index entries go here
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_INDEX_KEY, Double.NEGATIVE_INFINITY, now);
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, jti);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_KEY + jti));
+    }
+
+    @Override
+    public Set<String> revokedIds() {
+        // Entries not yet pruned by a revocation are skipped rather than loaded
+        Set<Object> ids = redisTemplate.opsForZSet().rangeByScore(REVOKED_INDEX_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        if (ids == null) {
+            return Set.of();
+        }
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object jti = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (jti instanceof String id) {
+                listener.accept(id);
+            } else {
+                logger.warn("Ignoring malformed revocation message");
+            }
+        }, new ChannelTopic(REVOCATION_CHANNEL));
+    }
+}
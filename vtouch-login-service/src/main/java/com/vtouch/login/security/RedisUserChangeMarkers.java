@@ -0,0 +1,78 @@
+package com.vtouch.login.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change markers shared across nodes through Redis
+ * Activated only when Redis is enabled
+ */
+@Component
+@ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = false)
+public class RedisUserChangeMarkers implements UserChangeMarkers {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisUserChangeMarkers.class);
+    private static final String USER_CHANGED_KEY = "user:changed:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final long markerTtlMillis;
+
+    public RedisUserChangeMarkers(RedisTemplate<String, Object> redisTemplate,
+                                  @Value("${jwt.refresh-token.expiration:604800000}") long markerTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.markerTtlMillis = markerTtlMillis;
+    }
+
+    @Override
+    public void markChanged(Long userId) {
+        if (userId != null) {
+            redisTemplate.opsForValue().set(USER_CHANGED_KEY + userId, System.currentTimeMillis(),
+                    markerTtlMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void markChanged(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        // One round trip for the whole batch rather than one per user
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, Object> values = (ValueOperations<String, Object>) operations.opsForValue();
+                for (Long userId : userIds) {
+                    if (userId != null) {
+                        values.set(USER_CHANGED_KEY + userId, now, markerTtlMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean changedSince(Long userId, Instant issuedAt) {
+        try {
+            Object changedAt = redisTemplate.opsForValue().get(USER_CHANGED_KEY + userId);
+            if (!(changedAt instanceof Number millis)) {
+                return false;
+            }
+            return issuedAt == null || millis.longValue() >= issuedAt.toEpochMilli();
+        } catch (Exception e) {
+            // Fail closed: without the marker we cannot trust the embedded claims
+            logger.warn("Could not read user change marker for {}: {}", userId, e.getMessage());
+            return true;
+        }
+    }
+}
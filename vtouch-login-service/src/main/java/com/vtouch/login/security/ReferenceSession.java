@@ -0,0 +1,46 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.service.JwtService;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Server-side record behind an opaque reference token
+ */
+public record ReferenceSession(
+        TokenPrincipal principal,
+        String sessionId,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    /**
+     * Present the session the same way a verified JWT is presented, so authentication,
+     * claims-only principals and logout treat both token modes alike
+     * @return Validated token view
+     */
+    public ValidatedToken toValidatedToken() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, principal.id());
+        claims.put(JwtService.CLAIM_ROLE, principal.role().name());
+        claims.put(JwtService.CLAIM_STATUS, principal.status().name());
+        if (principal.version() != null) {
+            claims.put(JwtService.CLAIM_VERSION, principal.version());
+        }
+        if (sessionId != null) {
+            claims.put(JwtService.CLAIM_SESSION_ID, sessionId);
+        }
+        return new ValidatedToken(principal.username(), issuedAt, expiresAt, claims);
+    }
+
+    /**
+     * Check if the session has expired
+     * @param now Instant to compare against
+     * @return true if expired
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
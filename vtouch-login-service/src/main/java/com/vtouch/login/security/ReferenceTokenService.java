@@ -0,0 +1,134 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque reference tokens.
+ * <p>
+ * A reference token is a short random handle ({@code vt_} plus 43 characters) instead of a
+ * self-contained JWT. The session behind it lives in a {@link ReferenceTokenStore}, keyed by the
+ * token's digest, and is fronted by a bounded near-cache so repeat requests on the same node skip the
+ * store. Near-cache entries live at most {@code jwt.reference.near-cache.ttl} and are dropped on every
+ * node as soon as the session is deleted, so logout takes effect immediately.
+ */
+@Component
+public class ReferenceTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceTokenService.class);
+    private static final String TOKEN_PREFIX = "vt_";
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final ReferenceTokenStore store;
+    private final Duration tokenLifetime;
+    private final long nearCacheTtlNanos;
+    private final Cache<String, ReferenceSession> nearCache;
+
+    public ReferenceTokenService(ReferenceTokenStore store,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis,
+                                 @Value("${jwt.reference.near-cache.max-size:50000}") long nearCacheMaxSize,
+                                 @Value("${jwt.reference.near-cache.ttl:60s}") Duration nearCacheTtl) {
+        this.store = store;
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMillis);
+        this.nearCacheTtlNanos = nearCacheTtl.toNanos();
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxSize)
+                .expireAfter(new NearCacheExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "reference.tokens.near");
+
+        store.subscribe(nearCache::invalidate);
+    }
+
+    /**
+     * Check if a bearer token is a reference token rather than a JWT
+     * @param token Bearer token
+     * @return true for reference tokens
+     */
+    public static boolean isReferenceToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * Issue a reference token
+     * @param principal Principal the token authenticates
+     * @param sessionId Refresh token family, so logout can revoke it; may be null
+     * @return Opaque token
+     */
+    public String issue(TokenPrincipal principal, String sessionId) {
+        byte[] random = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(random);
+        String token = TOKEN_PREFIX + BASE64_URL.encodeToString(random);
+
+        Instant now = Instant.now();
+        ReferenceSession session = new ReferenceSession(principal, sessionId, now, now.plus(tokenLifetime));
+        String key = TokenDigests.sha256(token);
+        store.save(key, session);
+        nearCache.put(key, session);
+        return token;
+    }
+
+    /**
+     * Resolve a reference token
+     * @param token Opaque token
+     * @return Validated token view, or null if the token is unknown, expired or revoked
+     */
+    public ValidatedToken resolve(String token) {
+        String key = TokenDigests.sha256(token);
+        ReferenceSession session = nearCache.get(key, store::find);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpiredAt(Instant.now())) {
+            nearCache.invalidate(key);
+            return null;
+        }
+        return session.toValidatedToken();
+    }
+
+    /**
+     * Revoke a reference token on every node
+     * @param token Opaque token
+     */
+    public void revoke(String token) {
+        String key = TokenDigests.sha256(token);
+        nearCache.invalidate(key);
+        store.delete(key);
+        logger.debug("Reference token revoked");
+    }
+
+    private final class NearCacheExpiry implements Expiry<String, ReferenceSession> {
+
+        @Override
+        public long expireAfterCreate(String key, ReferenceSession session, long currentTime) {
+            long remaining = Duration.between(Instant.now(), session.expiresAt()).toNanos();
+            return Math.max(Math.min(remaining, nearCacheTtlNanos), 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ReferenceSession session, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, session, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ReferenceSession session, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.vtouch.login.security;
+
+import java.util.function.Consumer;
+
+/**
+ * Store of reference token sessions keyed by token digest.
+ * Sessions expire on their own at {@link ReferenceSession#expiresAt()}.
+ */
+public interface ReferenceTokenStore {
+
+    /**
+     * Store a session
+     * @param key Token digest
+     * @param session Session
+     */
+    void save(String key, ReferenceSession session);
+
+    /**
+     * Look up a session
+     * @param key Token digest
+     * @return Session, or null if unknown, expired or deleted
+     */
+    ReferenceSession find(String key);
+
+    /**
+     * Delete a session and announce the deletion to other nodes
+     * @param key Token digest
+     */
+    void delete(String key);
+
+    /**
+     * Register a callback for deletions made by other nodes, so near-caches can drop the session
+     * @param listener Receives deleted token digests
+     */
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,62 @@
+package com.vtouch.login.security;
+
+import java.time.Instant;
+
+/**
+ * Server-side state of one refresh token family: the chain of refresh tokens that descends from a
+ * single login. Only hashes of the token secrets are kept. The family expires as a whole at
+ * {@code expiresAt}; rotation does not extend it.
+ */
+public record RefreshTokenFamily(
+        String familyId,
+        String currentHash,
+        String previousHash,
+        Instant rotatedAt,
+        TokenPrincipal principal,
+        Instant principalAt,
+        Instant expiresAt
+) {
+
+    /**
+     * Start a new family for a fresh login
+     * @param familyId Family ID
+     * @param tokenHash Hash of the first token secret
+     * @param principal Principal snapshot used to issue access tokens
+     * @param now Current instant
+     * @param expiresAt Absolute family expiration
+     * @return New family
+     */
+    public static RefreshTokenFamily start(String familyId, String tokenHash, TokenPrincipal principal,
+                                           Instant now, Instant expiresAt) {
+        return new RefreshTokenFamily(familyId, tokenHash, null, now, principal, now, expiresAt);
+    }
+
+    /**
+     * Swap in the next token; the presented one is kept as previous to tell concurrent refreshes from reuse
+     * @param nextHash Hash of the next token secret
+     * @param now Current instant
+     * @return Rotated family
+     */
+    public RefreshTokenFamily rotate(String nextHash, Instant now) {
+        return new RefreshTokenFamily(familyId, nextHash, currentHash, now, principal, principalAt, expiresAt);
+    }
+
+    /**
+     * Replace the principal snapshot after the user changed
+     * @param updated Fresh principal
+     * @param now Current instant
+     * @return Updated family
+     */
+    public RefreshTokenFamily withPrincipal(TokenPrincipal updated, Instant now) {
+        return new RefreshTokenFamily(familyId, currentHash, previousHash, rotatedAt, updated, now, expiresAt);
+    }
+
+    /**
+     * Check if the family has expired
+     * @param now Instant to compare against
+     * @return true if expired
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,181 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.InvalidTokenException;
+import com.vtouch.login.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rotating, single-use refresh tokens.
+ * <p>
+ * A refresh token is an opaque {@code familyId.secret} handle. Every login starts a token family
+ * in the {@link RefreshTokenStore}; each refresh atomically swaps the presented secret for a new one,
+ * so a refresh is one store operation with no signature check. Presenting a secret that was already
+ * rotated away revokes the whole family, which cuts off both the thief and the victim of a stolen
+ * token; access tokens already issued for that family ({@code sid}) are revoked with it. The one exception is a second refresh racing the first within {@code jwt.refresh-token.reuse-grace},
+ * which is rejected without revoking anything.
+ * <p>
+ * Access tokens are issued from a principal snapshot kept in the family; the user is only reloaded
+ * when {@link UserChangeMarkers} report a change since that snapshot.
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final int FAMILY_ID_BYTES = 16;
+    private static final int SECRET_BYTES = 32;
+
+    private final RefreshTokenStore store;
+    private final UserChangeMarkers userChangeMarkers;
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration familyLifetime;
+    private final Duration accessTokenLifetime;
+    private final Duration reuseGrace;
+    private final Map<RefreshTokenStore.Outcome, Counter> outcomes = new EnumMap<>(RefreshTokenStore.Outcome.class);
+
+    public RefreshTokenService(RefreshTokenStore store,
+                               UserChangeMarkers userChangeMarkers,
+                               UserService userService,
+                               TokenRevocationService tokenRevocationService,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.expiration:86400000}") long accessExpirationMillis,
+                               @Value("${jwt.refresh-token.expiration:604800000}") long refreshExpirationMillis,
+                               @Value("${jwt.refresh-token.reuse-grace:10s}") Duration reuseGrace) {
+        this.store = store;
+        this.userChangeMarkers = userChangeMarkers;
+        this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.familyLifetime = Duration.ofMillis(refreshExpirationMillis);
+        this.accessTokenLifetime = Duration.ofMillis(accessExpirationMillis);
+        this.reuseGrace = reuseGrace;
+
+        for (RefreshTokenStore.Outcome outcome : RefreshTokenStore.Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("jwt.refresh")
+                    .description("Refresh token rotations by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("jwt.refresh.families", store, RefreshTokenStore::size)
+                .description("Live refresh token families")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a new token family for a successful login
+     * @param user Authenticated user
+     * @return Family ID and first refresh token
+     */
+    public RefreshSession issue(User user) {
+        String familyId = randomToken(FAMILY_ID_BYTES);
+        String secret = randomToken(SECRET_BYTES);
+        Instant now = Instant.now();
+        TokenPrincipal principal = TokenPrincipal.of(user);
+
+        store.create(RefreshTokenFamily.start(familyId, hash(secret), principal, now, now.plus(familyLifetime)));
+        return new RefreshSession(familyId, familyId + "." + secret, principal);
+    }
+
+    /**
+     * Rotate a refresh token
+     * @param refreshToken Presented refresh token
+     * @return Family ID, next refresh token and the principal to issue an access token for
+     * @throws InvalidTokenException if the token is unknown, expired, reused or its user can no longer log in
+     */
+    public RefreshSession refresh(String refreshToken) {
+        int separator = refreshToken.indexOf('.');
+        if (separator <= 0 || separator == refreshToken.length() - 1) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        String familyId = refreshToken.substring(0, separator);
+        String secret = refreshToken.substring(separator + 1);
+        String nextSecret = randomToken(SECRET_BYTES);
+        Instant now = Instant.now();
+
+        RefreshTokenStore.Rotation rotation = store.rotate(familyId, hash(secret), hash(nextSecret), now, reuseGrace);
+        outcomes.get(rotation.outcome()).increment();
+
+        switch (rotation.outcome()) {
+            case ROTATED -> {
+                UserDetails principal = currentPrincipal(rotation.family(), now);
+                return new RefreshSession(familyId, familyId + "." + nextSecret, principal);
+            }
+            case CONCURRENT -> throw new InvalidTokenException("Refresh token was already used by a concurrent request");
+            case REUSED -> {
+                // Access tokens issued from the family must not outlive it
+                tokenRevocationService.revokeSession(familyId, accessTokenLifetime);
+                logger.warn("Refresh token reuse detected; revoked token family {} and its access tokens", familyId);
+                throw new InvalidTokenException("Refresh token has already been used");
+            }
+            default -> throw new InvalidTokenException("Invalid refresh token");
+        }
+    }
+
+    /**
+     * Revoke every refresh token of a family, e.g. on logout
+     * @param familyId Family ID
+     */
+    public void revokeFamily(String familyId) {
+        if (familyId != null) {
+            store.revoke(familyId);
+        }
+    }
+
+    /**
+     * Use the family's principal snapshot unless the user changed since it was taken
+     */
+    private UserDetails currentPrincipal(RefreshTokenFamily family, Instant now) {
+        TokenPrincipal snapshot = family.principal();
+        if (!userChangeMarkers.changedSince(snapshot.id(), family.principalAt())) {
+            return snapshot;
+        }
+
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(snapshot.username());
+        } catch (Exception e) {
+            store.revoke(family.familyId());
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            store.revoke(family.familyId());
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (user instanceof User entity) {
+            store.updatePrincipal(family.familyId(), TokenPrincipal.of(entity), now);
+        }
+        return user;
+    }
+
+    private static String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        RANDOM.nextBytes(buffer);
+        return BASE64_URL.encodeToString(buffer);
+    }
+
+    private static String hash(String secret) {
+        return TokenDigests.sha256(secret);
+    }
+
+    /**
+     * A refresh token together with its family and the principal it belongs to
+     */
+    public record RefreshSession(String familyId, String refreshToken, UserDetails principal) {}
+}
@@ -0,0 +1,70 @@
+package com.vtouch.login.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Store of refresh token families.
+ * Implementations expire families on their own and perform {@link #rotate} atomically, so two
+ * refreshes racing on the same token always produce exactly one winner.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Outcome of a rotation attempt
+     */
+    enum Outcome {
+        /** Presented token was current and has been swapped for the next one */
+        ROTATED,
+        /** Presented token was rotated moments ago by a concurrent refresh; the family is kept */
+        CONCURRENT,
+        /** Presented token was already used; the whole family has been revoked */
+        REUSED,
+        /** Family does not exist, has expired or was revoked */
+        UNKNOWN
+    }
+
+    /**
+     * Rotation result
+     * @param outcome Outcome
+     * @param family Family after rotation, only set for {@link Outcome#ROTATED}
+     */
+    record Rotation(Outcome outcome, RefreshTokenFamily family) {}
+
+    /**
+     * Store a new family
+     * @param family Family
+     */
+    void create(RefreshTokenFamily family);
+
+    /**
+     * Atomically swap the presented token for the next one
+     * @param familyId Family ID
+     * @param presentedHash Hash of the presented token secret
+     * @param nextHash Hash of the next token secret
+     * @param now Current instant
+     * @param reuseGrace How long the previous token counts as a concurrent refresh rather than reuse
+     * @return Rotation result
+     */
+    Rotation rotate(String familyId, String presentedHash, String nextHash, Instant now, Duration reuseGrace);
+
+    /**
+     * Replace the principal snapshot of a family
+     * @param familyId Family ID
+     * @param principal Fresh principal
+     * @param now Current instant
+     */
+    void updatePrincipal(String familyId, TokenPrincipal principal, Instant now);
+
+    /**
+     * Revoke a whole family, e.g. on logout
+     * @param familyId Family ID
+     */
+    void revoke(String familyId);
+
+    /**
+     * Number of live families
+     * @return Family count
+     */
+    long size();
+}
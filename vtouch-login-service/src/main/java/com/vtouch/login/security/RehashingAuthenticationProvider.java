@@ -0,0 +1,66 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that upgrades outdated password hashes after a successful login without
+ * holding up the login.
+ * <p>
+ * The new hash is computed on the {@link PasswordHashingExecutor} and stored on the
+ * {@link RequestCompletionExecutor} after the login has returned. When either executor is saturated the
+ * upgrade is skipped; it is tried again on the user's next login. A user who gave the right password never
+ * gets a 503 because of the rehash.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(RehashingAuthenticationProvider.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RequestCompletionExecutor requestCompletionExecutor;
+
+    public RehashingAuthenticationProvider(UserDetailsService userDetailsService,
+                                           UserDetailsPasswordService userDetailsPasswordService,
+                                           PasswordEncoder passwordEncoder,
+                                           PasswordHashingExecutor passwordHashingExecutor,
+                                           RequestCompletionExecutor requestCompletionExecutor) {
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        // Deliberately not passed to the parent, which would rehash inline and fail the login when saturated
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.requestCompletionExecutor = requestCompletionExecutor;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        if (authentication.getCredentials() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            upgradeLater(user, authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    private void upgradeLater(UserDetails user, String rawPassword) {
+        try {
+            passwordHashingExecutor.submit("rehash", () -> passwordEncoder.encode(rawPassword))
+                    .thenAcceptAsync(newPassword -> userDetailsPasswordService.updatePassword(user, newPassword),
+                            requestCompletionExecutor.withCurrentContext())
+                    .exceptionally(e -> {
+                        logger.debug("Skipped password rehash for user {}: {}", user.getUsername(), e.getMessage());
+                        return null;
+                    });
+        } catch (SystemException.CapacityExceededException e) {
+            logger.debug("Skipped password rehash for user {}: hashing executor is saturated", user.getUsername());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor that finishes the database and token work of asynchronous login, registration and user
+ * creation requests, so servlet threads are not held while a request waits for the
+ * {@link PasswordHashingExecutor}.
+ * <p>
+ * Tasks run with the locale and security context of the request that handed them off, captured on the
+ * request thread by {@link #withCurrentContext()}. A full queue is reported as a
+ * {@link SystemException.CapacityExceededException}, like a saturated hashing executor.
+ */
+@Component
+public class RequestCompletionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCompletionExecutor.class);
+    private static final String RESOURCE = "request-completion";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Counter rejections;
+
+    public RequestCompletionExecutor(MeterRegistry meterRegistry,
+                                     @Value("${request-completion.threads:32}") int threads,
+                                     @Value("${request-completion.queue-capacity:256}") int queueCapacity,
+                                     @Value("${password-hashing.retry-after:1s}") Duration retryAfter) {
+        this.retryAfter = retryAfter;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "request-completion-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejections = Counter.builder("request.completion.rejected")
+                .description("Request continuations turned away because the completion executor was saturated")
+                .register(meterRegistry);
+
+        Gauge.builder("request.completion.queue.depth", executor, e -> e.getQueue().size())
+                .description("Request continuations waiting for a thread")
+                .register(meterRegistry);
+        logger.info("Request completion executor started with {} threads and a queue of {}", threads, queueCapacity);
+    }
+
+    /**
+     * Capture the calling request's locale and security context
+     * @return Executor running tasks on this executor with the captured contexts
+     */
+    public Executor withCurrentContext() {
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return task -> execute(() -> {
+            LocaleContextHolder.setLocaleContext(localeContext);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                task.run();
+            } finally {
+                LocaleContextHolder.resetLocaleContext();
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            logger.warn("Request completion queue is full; rejecting a request");
+            throw new SystemException.CapacityExceededException(RESOURCE, retryAfter);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
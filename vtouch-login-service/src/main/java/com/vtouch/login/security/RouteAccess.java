@@ -0,0 +1,79 @@
+package com.vtouch.login.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Access rule attached to a route in the {@link RouteTable}
+ * @param kind Kind of rule
+ * @param authorities Authorities of which the caller needs at least one; empty unless kind is {@link Kind#HAS_ANY_AUTHORITY}
+ */
+public record RouteAccess(Kind kind, Set<String> authorities) {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final RouteAccess PERMIT_ALL = new RouteAccess(Kind.PERMIT_ALL, Set.of());
+    private static final RouteAccess AUTHENTICATED = new RouteAccess(Kind.AUTHENTICATED, Set.of());
+
+    public enum Kind {
+        PERMIT_ALL,
+        AUTHENTICATED,
+        HAS_ANY_AUTHORITY
+    }
+
+    public RouteAccess {
+        authorities = Set.copyOf(authorities);
+    }
+
+    /**
+     * Route open to anyone, without a token
+     */
+    public static RouteAccess permitAll() {
+        return PERMIT_ALL;
+    }
+
+    /**
+     * Route open to any authenticated caller
+     */
+    public static RouteAccess authenticated() {
+        return AUTHENTICATED;
+    }
+
+    /**
+     * Route open to callers holding at least one of the given roles
+     * @param roles Role names without the {@code ROLE_} prefix
+     */
+    public static RouteAccess hasAnyRole(String... roles) {
+        return new RouteAccess(Kind.HAS_ANY_AUTHORITY, Arrays.stream(roles)
+                .map(role -> ROLE_PREFIX + role)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * Check whether the route needs no authentication at all
+     * @return True for public routes
+     */
+    public boolean isPublic() {
+        return kind == Kind.PERMIT_ALL;
+    }
+
+    /**
+     * Check whether an authenticated caller with the given authorities may use the route
+     * @param granted Caller's authorities
+     * @return True if access is granted
+     */
+    public boolean isGrantedTo(Collection<? extends GrantedAuthority> granted) {
+        if (kind != Kind.HAS_ANY_AUTHORITY) {
+            return true;
+        }
+        for (GrantedAuthority authority : granted) {
+            if (authorities.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
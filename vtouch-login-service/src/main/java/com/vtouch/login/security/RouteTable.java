@@ -0,0 +1,256 @@
+package com.vtouch.login.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Route authorization table compiled into path tries, one per HTTP method.
+ * <p>
+ * Rules are declared once as (method, pattern, access) and compiled at startup, so the authentication
+ * filter and the authorization manager get the decision for a request from a single walk over its path
+ * segments instead of testing matchers one by one. Patterns are made of literal segments, {@code *} for
+ * exactly one segment and a trailing {@code **} for any remainder, including none. The most specific match
+ * wins: a literal segment beats {@code *}, which beats {@code **}. On the same pattern a method-specific rule
+ * beats an any-method rule; otherwise the first declaration wins. Paths that match nothing get the default access.
+ */
+public final class RouteTable {
+
+    private static final String SINGLE = "*";
+    private static final String REST = "**";
+
+    private final Map<String, Node> rootsByMethod;
+    private final Node anyMethodRoot;
+    private final RouteAccess defaultAccess;
+    private final int routeCount;
+
+    private RouteTable(Map<String, Node> rootsByMethod, Node anyMethodRoot, RouteAccess defaultAccess, int routeCount) {
+        this.rootsByMethod = rootsByMethod;
+        this.anyMethodRoot = anyMethodRoot;
+        this.defaultAccess = defaultAccess;
+        this.routeCount = routeCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Look up the access rule for a request, by its decoded path within the application
+     * @param request HTTP request
+     * @return Access rule, never null
+     */
+    public RouteAccess lookup(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path = path + request.getPathInfo();
+        }
+        return lookup(request.getMethod(), path);
+    }
+
+    /**
+     * Look up the access rule for a method and a path within the application (without the context path)
+     * @param method HTTP method name
+     * @param path Decoded path
+     * @return Access rule, never null
+     */
+    public RouteAccess lookup(String method, String path) {
+        Node root = method != null ? rootsByMethod.get(method) : null;
+        RouteAccess access = match(root != null ? root : anyMethodRoot, path, 0);
+        return access != null ? access : defaultAccess;
+    }
+
+    /**
+     * Get number of declared routes
+     * @return Route count
+     */
+    public int size() {
+        return routeCount;
+    }
+
+    private static RouteAccess match(Node node, String path, int position) {
+        int length = path.length();
+        while (position < length && path.charAt(position) == '/') {
+            position++;
+        }
+        if (position == length) {
+            return node.exact != null ? node.exact : node.rest;
+        }
+
+        int end = path.indexOf('/', position);
+        if (end < 0) {
+            end = length;
+        }
+        Node literal = node.literal(path, position, end);
+        if (literal != null) {
+            RouteAccess access = match(literal, path, end);
+            if (access != null) {
+                return access;
+            }
+        }
+        if (node.single != null) {
+            RouteAccess access = match(node.single, path, end);
+            if (access != null) {
+                return access;
+            }
+        }
+        return node.rest;
+    }
+
+    private static final class Node {
+
+        private String[] names = new String[0];
+        private Node[] children = new Node[0];
+        private Node single;
+        private RouteAccess exact;
+        private RouteAccess rest;
+
+        /**
+         * Find the child for path[start, end) without allocating a substring; nodes have a handful of children
+         */
+        private Node literal(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                if (name.length() == length && path.regionMatches(start, name, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node child(String segment) {
+            if (SINGLE.equals(segment)) {
+                if (single == null) {
+                    single = new Node();
+                }
+                return single;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            names = Arrays.copyOf(names, names.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            names[names.length - 1] = segment;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+
+        private void insert(List<String> segments, RouteAccess access) {
+            Node node = this;
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (REST.equals(segment)) {
+                    if (node.rest == null) {
+                        node.rest = access;
+                    }
+                    return;
+                }
+                node = node.child(segment);
+            }
+            if (node.exact == null) {
+                node.exact = access;
+            }
+        }
+    }
+
+    private record Route(String method, List<String> segments, RouteAccess access) {}
+
+    public static final class Builder {
+
+        private final List<Route> routes = new ArrayList<>();
+        private RouteAccess defaultAccess = RouteAccess.authenticated();
+
+        private Builder() {
+        }
+
+        /**
+         * Open the given patterns to anyone, for every method
+         */
+        public Builder permitAll(Collection<String> patterns) {
+            for (String pattern : patterns) {
+                route(pattern, RouteAccess.permitAll());
+            }
+            return this;
+        }
+
+        /**
+         * Declare a rule for every method
+         */
+        public Builder route(String pattern, RouteAccess access) {
+            routes.add(new Route(null, parse(pattern), access));
+            return this;
+        }
+
+        /**
+         * Declare a rule for one method
+         */
+        public Builder route(HttpMethod method, String pattern, RouteAccess access) {
+            routes.add(new Route(method.name(), parse(pattern), access));
+            return this;
+        }
+
+        /**
+         * Access for paths no rule matches
+         */
+        public Builder defaultAccess(RouteAccess access) {
+            this.defaultAccess = access;
+            return this;
+        }
+
+        public RouteTable build() {
+            Set<String> methods = new LinkedHashSet<>();
+            for (Route route : routes) {
+                if (route.method() != null) {
+                    methods.add(route.method());
+                }
+            }
+
+            Map<String, Node> rootsByMethod = new HashMap<>();
+            for (String method : methods) {
+                Node root = new Node();
+                // Method-specific rules go in first so they win over any-method rules on the same pattern
+                routes.stream().filter(route -> method.equals(route.method()))
+                        .forEach(route -> root.insert(route.segments(), route.access()));
+                routes.stream().filter(route -> route.method() == null)
+                        .forEach(route -> root.insert(route.segments(), route.access()));
+                rootsByMethod.put(method, root);
+            }
+            Node anyMethodRoot = new Node();
+            routes.stream().filter(route -> route.method() == null)
+                    .forEach(route -> anyMethodRoot.insert(route.segments(), route.access()));
+
+            return new RouteTable(Map.copyOf(rootsByMethod), anyMethodRoot, defaultAccess, routes.size());
+        }
+
+        private static List<String> parse(String pattern) {
+            if (pattern == null || !pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+            }
+            List<String> segments = new ArrayList<>();
+            for (String segment : pattern.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.contains(SINGLE) && !SINGLE.equals(segment) && !REST.equals(segment)) {
+                    throw new IllegalArgumentException("Unsupported wildcard in route pattern: " + pattern);
+                }
+                if (!segments.isEmpty() && REST.equals(segments.get(segments.size() - 1))) {
+                    throw new IllegalArgumentException("'**' must be the last segment of a route pattern: " + pattern);
+                }
+                segments.add(segment);
+            }
+            return List.copyOf(segments);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vtouch.login.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Digests of bearer secrets, used wherever tokens are looked up so raw tokens are never held as keys
+ */
+final class TokenDigests {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private TokenDigests() {
+    }
+
+    /**
+     * SHA-256 of an ASCII token, base64url-encoded
+     * @param token Token or secret
+     * @return Digest
+     */
+    static String sha256(String token) {
+        return BASE64_URL.encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.service.JwtService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight, immutable principal rebuilt from access token claims.
+ * Used in claims-only authentication mode so authenticated requests do not load the
+ * {@link User} entity from the database.
+ */
+public record TokenPrincipal(
+        Long id,
+        String username,
+        User.UserRole role,
+        User.UserStatus status,
+        Integer version
+) implements UserDetails {
+
+    private static final Map<User.UserRole, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(User.UserRole.class);
+
+    static {
+        for (User.UserRole role : User.UserRole.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    /**
+     * Snapshot a user entity
+     * @param user User entity
+     * @return Principal
+     */
+    public static TokenPrincipal of(User user) {
+        return new TokenPrincipal(user.getId(), user.getUsername(), user.getRole(), user.getStatus(), user.getVersion());
+    }
+
+    /**
+     * Build principal from a validated token
+     * @param token Validated token
+     * @return Principal, or null if the token does not carry the required claims
+     */
+    public static TokenPrincipal fromToken(ValidatedToken token) {
+        Number userId = token.claim(JwtService.CLAIM_USER_ID, Number.class);
+        String role = token.claim(JwtService.CLAIM_ROLE, String.class);
+        String status = token.claim(JwtService.CLAIM_STATUS, String.class);
+        Number version = token.claim(JwtService.CLAIM_VERSION, Number.class);
+
+        if (userId == null || role == null || status == null || token.subject() == null) {
+            return null;
+        }
+
+        try {
+            return new TokenPrincipal(
+                    userId.longValue(),
+                    token.subject(),
+                    User.UserRole.valueOf(role),
+                    User.UserStatus.valueOf(status),
+                    version != null ? version.intValue() : null
+            );
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES.get(role);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return status != User.UserStatus.SUSPENDED;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status == User.UserStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,200 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.service.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Server-side token revocation.
+ * <p>
+ * Revoked token IDs ({@code jti}) live in a {@link TokenRevocationStore} until the token would have
+ * expired anyway. Every node also keeps a local Bloom filter of revoked IDs, seeded from the store
+ * at startup and kept current through the store's change notifications, so the common case of a
+ * token that was never revoked is answered without a network call. Only a filter hit is confirmed
+ * against the store. Bloom filters cannot forget entries, so two generations are kept and the older
+ * one is dropped every {@code jwt.revocation.rotation-interval-ms}, which must be at least the longest
+ * token lifetime. Whole sessions ({@code sid}, the refresh token family) can be revoked the same way; their
+ * entries are kept apart from token IDs by a prefix. If the store cannot be read at startup the node still starts, confirms every check
+ * against the store until seeding succeeds, and retries seeding every {@code jwt.revocation.seed-retry-ms}.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final String SESSION_PREFIX = "sid:";
+
+    private final TokenRevocationStore store;
+    private final long expectedRevocations;
+    private final double targetFalsePositiveRate;
+    private final Duration rotationInterval;
+
+    private volatile BloomFilter currentFilter;
+    private volatile BloomFilter previousFilter;
+    private volatile boolean seeded;
+
+    private final Counter filterHits;
+    private final Counter confirmedRevocations;
+
+    public TokenRevocationService(TokenRevocationStore store,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double targetFalsePositiveRate,
+                                  @Value("${jwt.revocation.rotation-interval-ms:604800000}") long rotationIntervalMillis) {
+        this.store = store;
+        this.expectedRevocations = expectedRevocations;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+        this.rotationInterval = Duration.ofMillis(rotationIntervalMillis);
+        this.currentFilter = newFilter();
+        this.previousFilter = newFilter();
+
+        this.filterHits = Counter.builder("jwt.revocation.filter.hits")
+                .description("Revocation checks the local filter could not rule out")
+                .register(meterRegistry);
+        this.confirmedRevocations = Counter.builder("jwt.revocation.confirmed")
+                .description("Revocation checks confirmed by the store")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.filter.false-positive-rate", this, TokenRevocationService::expectedFalsePositiveRate)
+                .description("Estimated false-positive probability of the local revocation filter")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.filter.memory", this, TokenRevocationService::filterMemoryBytes)
+                .description("Memory held by the local revocation filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        // Revocations made on other nodes only need to reach this node's filter
+        store.subscribe(jti -> currentFilter.put(jti));
+        seed();
+    }
+
+    /**
+     * Revoke a token for the rest of its lifetime
+     * @param token Validated token
+     * @return true if the token was revoked, false if it carries no ID or has already expired
+     */
+    public boolean revoke(ValidatedToken token) {
+        String jti = token.tokenId();
+        if (jti == null) {
+            logger.debug("Token for {} has no jti and cannot be revoked", token.subject());
+            return false;
+        }
+        Duration remaining = token.expiresAt() != null
+                ? Duration.between(Instant.now(), token.expiresAt())
+                : rotationInterval;
+        if (remaining.isNegative() || remaining.isZero()) {
+            return false;
+        }
+        currentFilter.put(jti);
+        store.revoke(jti, remaining);
+        return true;
+    }
+
+    /**
+     * Revoke every access token bound to a session, e.g. after refresh token reuse
+     * @param sessionId Session ID ({@code sid})
+     * @param ttl Longest remaining lifetime of an access token issued for the session
+     */
+    public void revokeSession(String sessionId, Duration ttl) {
+        String id = SESSION_PREFIX + sessionId;
+        currentFilter.put(id);
+        store.revoke(id, ttl);
+    }
+
+    /**
+     * Check if a token or its session has been revoked; costs a store round trip only when the local filter hits
+     * @param token Validated token
+     * @return true if revoked
+     */
+    public boolean isRevoked(ValidatedToken token) {
+        String jti = token.tokenId();
+        if (jti != null && isRevoked(jti)) {
+            return true;
+        }
+        String sessionId = token.claim(JwtService.CLAIM_SESSION_ID, String.class);
+        return sessionId != null && isRevoked(SESSION_PREFIX + sessionId);
+    }
+
+    private boolean isRevoked(String id) {
+        // An unseeded filter may be missing earlier revocations, so it cannot rule anything out yet
+        if (seeded && !currentFilter.mightContain(id) && !previousFilter.mightContain(id)) {
+            return false;
+        }
+        filterHits.increment();
+        boolean revoked;
+        try {
+            revoked = store.isRevoked(id);
+        } catch (RuntimeException e) {
+            // Fail closed: a filter hit that cannot be confirmed is treated as revoked
+            logger.warn("Could not confirm revocation of {}: {}", id, e.getMessage());
+            revoked = true;
+        }
+        if (revoked) {
+            confirmedRevocations.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Start a new filter generation and drop the oldest one
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rotation-interval-ms:604800000}",
+               initialDelayString = "${jwt.revocation.rotation-interval-ms:604800000}")
+    public synchronized void rotate() {
+        previousFilter = currentFilter;
+        currentFilter = newFilter();
+        logger.info("Rotated revocation filter generation");
+    }
+
+    /**
+     * Retry seeding the filter after the store was unavailable at startup
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.seed-retry-ms:30000}",
+               initialDelayString = "${jwt.revocation.seed-retry-ms:30000}")
+    public void retrySeed() {
+        if (!seeded) {
+            seed();
+        }
+    }
+
+    boolean isSeeded() {
+        return seeded;
+    }
+
+    double expectedFalsePositiveRate() {
+        BloomFilter current = currentFilter;
+        BloomFilter previous = previousFilter;
+        // A lookup is a false positive if either generation misfires
+        return 1 - (1 - current.expectedFalsePositiveRate()) * (1 - previous.expectedFalsePositiveRate());
+    }
+
+    long filterMemoryBytes() {
+        return currentFilter.sizeInBytes() + previousFilter.sizeInBytes();
+    }
+
+    private void seed() {
+        try {
+            int count = 0;
+            for (String jti : store.revokedIds()) {
+                currentFilter.put(jti);
+                count++;
+            }
+            this.seeded = true;
+            logger.info("Seeded revocation filter with {} revoked tokens", count);
+        } catch (RuntimeException e) {
+            // Until seeded, revocation checks go to the store instead of trusting the filter
+            logger.warn("Could not seed revocation filter from store, will retry: {}", e.getMessage());
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedRevocations, targetFalsePositiveRate);
+    }
+}
@@ -0,0 +1,38 @@
+package com.vtouch.login.security;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Exact store of revoked token IDs ({@code jti}).
+ * Entries expire on their own once the revoked token could no longer be valid.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Record a revoked token ID
+     * @param jti Token ID
+     * @param ttl Remaining lifetime of the token
+     */
+    void revoke(String jti, Duration ttl);
+
+    /**
+     * Exact revocation check
+     * @param jti Token ID
+     * @return true if revoked
+     */
+    boolean isRevoked(String jti);
+
+    /**
+     * All currently revoked token IDs, used to seed a node's local filter at startup
+     * @return Revoked token IDs
+     */
+    Set<String> revokedIds();
+
+    /**
+     * Register a callback for revocations made by other nodes
+     * @param listener Receives revoked token IDs
+     */
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,34 @@
+package com.vtouch.login.security;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Short-lived markers recording when a user's status, role or profile last changed.
+ * Claims-only authentication consults these to decide whether a token's embedded
+ * claims can still be trusted or the user must be reloaded from the database.
+ */
+public interface UserChangeMarkers {
+
+    /**
+     * Record that the user changed now
+     * @param userId User ID
+     */
+    void markChanged(Long userId);
+
+    /**
+     * Record that several users changed now
+     * @param userIds User IDs
+     */
+    default void markChanged(Collection<Long> userIds) {
+        userIds.forEach(this::markChanged);
+    }
+
+    /**
+     * Check if the user changed at or after the given instant
+     * @param userId User ID
+     * @param issuedAt Token issue time
+     * @return true if token claims may be stale
+     */
+    boolean changedSince(Long userId, Instant issuedAt);
+}
@@ -0,0 +1,49 @@
+package com.vtouch.login.security;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable view of a JWT whose signature and expiration have already been verified.
+ * Produced once per token by {@link com.vtouch.login.service.JwtService#validateToken(String)}
+ * so callers never need to parse the same token again.
+ */
+public record ValidatedToken(
+        String subject,
+        Instant issuedAt,
+        Instant expiresAt,
+        Map<String, Object> claims
+) {
+
+    public ValidatedToken {
+        claims = claims != null ? Map.copyOf(claims) : Map.of();
+    }
+
+    /**
+     * Get a custom claim converted to the requested type
+     * @param name Claim name
+     * @param type Expected claim type
+     * @return Claim value or null if absent or of a different type
+     */
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Get the token ID ({@code jti}) used for revocation
+     * @return Token ID or null for tokens issued without one
+     */
+    public String tokenId() {
+        return claim("jti", String.class);
+    }
+
+    /**
+     * Check if token is expired at the given instant
+     * @param now Instant to compare against
+     * @return true if expired
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
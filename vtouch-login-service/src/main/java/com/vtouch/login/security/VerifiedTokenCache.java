@@ -0,0 +1,147 @@
+package com.vtouch.login.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vtouch.login.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of verified JWTs placed in front of {@link JwtService#validateToken(String)}.
+ * Entries are keyed by a SHA-256 digest of the token, so raw tokens are never held in memory,
+ * and live until the token's own expiration. Malformed tokens and bad signatures are cached
+ * as short-lived negative entries so repeated garbage does not pay the verification cost again.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final long negativeTtlNanos;
+    private final Cache<String, Entry> cache;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:100000}") long maxSize,
+                              @Value("${jwt.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Verify token, reusing a previous verification result when available
+     * @param token JWT token
+     * @return Validated token view
+     * @throws JwtException if the token is expired, malformed or has an invalid signature
+     */
+    public ValidatedToken verify(String token) {
+        if (!enabled) {
+            return jwtService.validateToken(token);
+        }
+
+        Entry entry = cache.get(digest(token), key -> load(token));
+        if (entry.failure() != null) {
+            throw entry.failure();
+        }
+        if (entry.token().isExpiredAt(Instant.now())) {
+            // Expiry is second-precision; never hand out a token past its exp
+            cache.invalidate(digest(token));
+            return jwtService.validateToken(token);
+        }
+        return entry.token();
+    }
+
+    /**
+     * Drop a single token, e.g. on logout or revocation
+     * @param token JWT token
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    /**
+     * Drop every cached verification result
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Forget every verification result once signing keys are withdrawn from the key ring
+     * @param event Key removal event
+     */
+    @EventListener
+    public void onKeysRemoved(JwtKeysRemovedEvent event) {
+        logger.info("Clearing verified token cache after signing keys {} were removed", event.kids());
+        invalidateAll();
+    }
+
+    /**
+     * Get approximate number of cached entries
+     * @return Entry count
+     */
+    public long size() {
+        // Eviction runs asynchronously; settle pending work so the count reflects the bound
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private Entry load(String token) {
+        try {
+            return new Entry(jwtService.validateToken(token), null);
+        } catch (JwtException e) {
+            logger.debug("Caching negative verification result: {}", e.getMessage());
+            return new Entry(null, e);
+        }
+    }
+
+    private static String digest(String token) {
+        return TokenDigests.sha256(token);
+    }
+
+    private record Entry(ValidatedToken token, JwtException failure) {}
+
+    private final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            if (entry.failure() != null || entry.token().expiresAt() == null) {
+                return negativeTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), entry.token().expiresAt()).toNanos();
+            return Math.max(remaining, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.vtouch.login.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: comma-separated fields, optional double quotes, {@code ""} inside quotes,
+ * and line breaks inside quoted fields. Holds one record at a time.
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    /** Characters in the current field, including any no longer kept once a record is too long */
+    private int fieldLength;
+    private long line = 1;
+    private long recordLine;
+    private int pushedBack = -2;
+
+    /**
+     * @param reader Buffered source
+     * @param maxRecordLength Longest record accepted, in characters
+     */
+    CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Read the next record
+     * @return Field values, or null at end of input
+     * @throws MalformedRecordException if the record is longer than the limit or has an unterminated quote;
+     *         the record has been consumed and the next call reads the one after it
+     * @throws IOException if reading fails
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\n' || c == '\r') {
+            // Blank lines are not records
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        int length = 0;
+        boolean tooLong = false;
+        boolean quoted = false;
+        field.setLength(0);
+        fieldLength = 0;
+        while (true) {
+            // Past the limit the rest of the record is still parsed, so quoted line breaks are skipped, but not kept
+            if (++length > maxRecordLength && !tooLong) {
+                tooLong = true;
+                fields.clear();
+            }
+            if (quoted) {
+                if (c < 0) {
+                    throw new MalformedRecordException("Unterminated quoted field starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        append('"', tooLong);
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    append((char) c, tooLong);
+                }
+            } else if (c == '"' && fieldLength == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                if (!tooLong) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+                fieldLength = 0;
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                }
+                if (tooLong) {
+                    throw new MalformedRecordException("Record at line " + recordLine + " is longer than "
+                            + maxRecordLength + " characters");
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append((char) c, tooLong);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return Line on which the last record read by {@link #next()} started, including a malformed one
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private void append(char c, boolean tooLong) {
+        fieldLength++;
+        if (!tooLong) {
+            field.append(c);
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * A record that could not be read; unlike other {@link IOException}s the reader can carry on after it
+     */
+    static final class MalformedRecordException extends IOException {
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
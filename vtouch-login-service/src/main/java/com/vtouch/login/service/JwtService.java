@@ -1,24 +1,46 @@
 package com.vtouch.login.service;
 
+import com.vtouch.login.entity.User;
+import com.vtouch.login.security.Hs256TokenEncoder;
+import com.vtouch.login.security.JwtKeyRing;
+import com.vtouch.login.security.JwtSigningKey;
+import com.vtouch.login.security.TokenPrincipal;
+import com.vtouch.login.security.ValidatedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "st";
+    public static final String CLAIM_VERSION = "ver";
+    public static final String CLAIM_SESSION_ID = "sid";
+
+    @Autowired
+    private JwtKeyRing keyRing;
 
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long jwtExpiration;
@@ -26,6 +48,68 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration:604800000}") // 7 days in milliseconds
     private Long refreshExpiration;
 
+    @Value("${jwt.fast-encoder.enabled:true}")
+    private boolean fastEncoderEnabled;
+
+    private JwtParser jwtParser;
+
+    private volatile Hs256TokenEncoder fastEncoder;
+
+    public JwtService() {
+    }
+
+    /**
+     * Fully initialized instance for use outside a Spring context, e.g. in tests and benchmarks
+     * @param keyRing Signing and verification keys
+     * @param jwtExpiration Access token lifetime in milliseconds
+     * @param refreshExpiration Refresh token lifetime in milliseconds
+     * @param fastEncoderEnabled Whether HS256 access tokens use the allocation-light encoder
+     */
+    public JwtService(JwtKeyRing keyRing, long jwtExpiration, long refreshExpiration, boolean fastEncoderEnabled) {
+        this.keyRing = keyRing;
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.fastEncoderEnabled = fastEncoderEnabled;
+        init();
+    }
+
+    /**
+     * Build the parser once; it is immutable and thread-safe and resolves the
+     * verification key by the token's kid header through the key ring
+     */
+    @PostConstruct
+    void init() {
+        this.jwtParser = Jwts
+                .parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        JwtSigningKey key = keyRing.findByKid(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key.verificationKey();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verify token signature and expiration once and return its claims
+     * @param token JWT token
+     * @return Validated token view
+     * @throws io.jsonwebtoken.JwtException if the token is expired, malformed or has an invalid signature
+     */
+    public ValidatedToken validateToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new ValidatedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims
+        );
+    }
+
     /**
      * Extract username from JWT token
      */
@@ -52,7 +136,14 @@ public class JwtService {
      * Generate JWT token with user details
      */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        return generateAccessToken(userDetails, null);
+    }
+
+    /**
+     * Generate JWT token bound to a refresh token family, so logout can revoke the family
+     */
+    public String generateToken(UserDetails userDetails, String sessionId) {
+        return generateAccessToken(userDetails, sessionId);
     }
 
     /**
@@ -63,10 +154,57 @@ public class JwtService {
     }
 
     /**
-     * Generate refresh token
+     * Issue an access token with the fixed claim set; HS256 keys take the allocation-light encoder
+     */
+    private String generateAccessToken(UserDetails userDetails, String sessionId) {
+        TokenPrincipal principal = principalOf(userDetails);
+        JwtSigningKey signingKey = keyRing.activeKey();
+        if (fastEncoderEnabled && JwtSigningKey.HS256.equals(signingKey.algorithm())) {
+            long now = System.currentTimeMillis();
+            return fastEncoder(signingKey).encode(userDetails.getUsername(), principal, sessionId,
+                    UUID.randomUUID().toString(), now / 1000, (now + jwtExpiration) / 1000);
+        }
+
+        Map<String, Object> claims = principalClaims(principal);
+        if (sessionId != null) {
+            claims.put(CLAIM_SESSION_ID, sessionId);
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
+    }
+
+    /**
+     * Encoder for the active key, rebuilt when the key ring rotates
      */
-    public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    private Hs256TokenEncoder fastEncoder(JwtSigningKey signingKey) {
+        Hs256TokenEncoder encoder = fastEncoder;
+        if (encoder == null || encoder.signingKey() != signingKey) {
+            encoder = new Hs256TokenEncoder(signingKey);
+            fastEncoder = encoder;
+        }
+        return encoder;
+    }
+
+    private static TokenPrincipal principalOf(UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getId() != null) {
+            return TokenPrincipal.of(user);
+        }
+        return userDetails instanceof TokenPrincipal tokenPrincipal ? tokenPrincipal : null;
+    }
+
+    /**
+     * Claims that let the authentication filter rebuild the principal without a database lookup
+     */
+    private static Map<String, Object> principalClaims(TokenPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        if (principal != null) {
+            claims.put(CLAIM_USER_ID, principal.id());
+            claims.put(CLAIM_ROLE, principal.role().name());
+            claims.put(CLAIM_STATUS, principal.status().name());
+            if (principal.version() != null) {
+                claims.put(CLAIM_VERSION, principal.version());
+            }
+        }
+        return claims;
     }
 
     /**
@@ -77,49 +215,60 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
-        return Jwts
+        JwtSigningKey signingKey = keyRing.activeKey();
+        JwtBuilder builder = Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .header().keyId(signingKey.kid()).and()
+                .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        return sign(builder, signingKey).compact();
+    }
+
+    /**
+     * Sign with the key's own algorithm; the key/algorithm pairing is guaranteed by JwtSigningKey
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static JwtBuilder sign(JwtBuilder builder, JwtSigningKey key) {
+        return builder.signWith(key.signingKey(), (SecureDigestAlgorithm) key.jwsAlgorithm());
     }
 
     /**
      * Check if token is valid
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(validateToken(token), userDetails);
     }
 
     /**
-     * Check if token is expired
+     * Check if an already validated token belongs to the given user and is still unexpired
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(ValidatedToken token, UserDetails userDetails) {
+        return token.subject() != null
+                && token.subject().equals(userDetails.getUsername())
+                && !token.isExpiredAt(Instant.now());
     }
 
     /**
      * Extract all claims from JWT token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     /**
-     * Get signing key for JWT
+     * Get public keys for the JWKS endpoint
+     * @return Public JWKs; empty when signing with a shared secret
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = java.util.Base64.getDecoder().decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public List<Map<String, Object>> getPublicJwks() {
+        return keyRing.verificationKeys().stream()
+                .map(JwtSigningKey::publicJwk)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
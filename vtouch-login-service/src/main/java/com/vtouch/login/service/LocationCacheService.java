@@ -4,7 +4,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -73,6 +75,38 @@ public class LocationCacheService {
         redisTemplate.expire(key, ttlMinutes, TimeUnit.MINUTES);
     }
 
+    /**
+     * Cache many users' locations in one pipelined round trip
+     * @param locations User locations
+     * @param ttlMinutes Time to live in minutes
+     */
+    public void cacheUserLocations(List<UserLocation> locations, long ttlMinutes) {
+        long timestamp = System.currentTimeMillis();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> stringOperations = (RedisOperations<String, Object>) operations;
+                for (UserLocation location : locations) {
+                    String key = USER_LOCATION_KEY + location.userId();
+                    stringOperations.opsForHash().putAll(key, Map.of(
+                        "latitude", location.latitude(),
+                        "longitude", location.longitude(),
+                        "timestamp", (double) timestamp
+                    ));
+                    stringOperations.expire(key, ttlMinutes, TimeUnit.MINUTES);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Location of one user
+     */
+    public record UserLocation(String userId, double latitude, double longitude) {
+    }
+
     /**
      * Get user's cached location
      * @param userId User identifier
@@ -0,0 +1,53 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Maps unique-constraint violations on {@code users} to the duplicate errors the pre-check queries used to raise
+ */
+final class UniqueViolations {
+
+    private UniqueViolations() {
+    }
+
+    /**
+     * Identify which unique column an insert collided on
+     * @param e Violation raised by the flush
+     * @param user User that was being inserted
+     * @return Duplicate error for username or email, or null if the violation is something else
+     */
+    static BusinessException.DuplicateResourceException toDuplicate(DataIntegrityViolationException e, User user) {
+        // Prefer the constraint name; fall back to the driver message for constraints created before they were
+        // named (PostgreSQL reports "Key (email)=(...) already exists", H2 names the column)
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        String detail = e.getMostSpecificCause().getMessage();
+
+        if (matches(constraint, User.USERNAME_CONSTRAINT) || mentionsColumn(detail, "username")) {
+            return new BusinessException.DuplicateResourceException("User", "username", user.getUsername());
+        }
+        if (matches(constraint, User.EMAIL_CONSTRAINT) || mentionsColumn(detail, "email")) {
+            return new BusinessException.DuplicateResourceException("User", "email", user.getEmail());
+        }
+        return null;
+    }
+
+    private static boolean matches(String constraint, String name) {
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(name);
+    }
+
+    private static boolean mentionsColumn(String detail, String column) {
+        if (detail == null) {
+            return false;
+        }
+        String lower = detail.toLowerCase(Locale.ROOT);
+        return lower.contains("(" + column + ")") || lower.contains("(" + column + " ")
+                || lower.contains("users(" + column);
+    }
+}
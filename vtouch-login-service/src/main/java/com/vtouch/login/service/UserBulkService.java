@@ -0,0 +1,169 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.dto.request.BulkUserSelection;
+import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.BulkUpdateResponse;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import com.vtouch.login.repository.UserFilter;
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.UserChangeMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Status, role and soft-delete changes applied to many users at once.
+ * <p>
+ * Users are selected by ID or by search filter and changed in chunks of {@code user-bulk.chunk-size}, each
+ * one bulk UPDATE in its own transaction, so a large selection neither holds locks for long nor loads any
+ * entities. The UPDATEs bump {@code version} and set {@code updatedAt} themselves, so concurrent single-user
+ * edits still fail their optimistic lock check. Users already in the target state are left untouched and are
+ * not counted as updated. Each chunk locks its rows before counting them, so the statistics counters follow
+ * exactly the rows changed; change markers are set per chunk after it commits.
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkService.class);
+
+    private final UserRepository userRepository;
+    private final UserStatisticsService userStatisticsService;
+    private final UserChangeMarkers userChangeMarkers;
+    private final MessageService messageService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Timer chunkTimer;
+
+    public UserBulkService(UserRepository userRepository,
+                           UserStatisticsService userStatisticsService,
+                           UserChangeMarkers userChangeMarkers,
+                           MessageService messageService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${user-bulk.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userStatisticsService = userStatisticsService;
+        this.userChangeMarkers = userChangeMarkers;
+        this.messageService = messageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunkTimer = Timer.builder("user.bulk.chunk")
+                .description("Time to apply one chunk of a bulk user operation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Change the status of many users
+     * @param selection Users to change
+     * @param status New status
+     * @return API response with matched and updated counts
+     * @throws BusinessException.ValidationException if the selection has both or neither IDs and filters
+     */
+    public ApiResponse<BulkUpdateResponse> changeStatus(BulkUserSelection selection, User.UserStatus status) {
+        return apply("status change to " + status, selection, status, null,
+                (ids, now) -> userRepository.updateUserStatus(ids, status, now));
+    }
+
+    /**
+     * Change the role of many users
+     * @param selection Users to change
+     * @param role New role
+     * @return API response with matched and updated counts
+     * @throws BusinessException.ValidationException if the selection has both or neither IDs and filters
+     */
+    public ApiResponse<BulkUpdateResponse> changeRole(BulkUserSelection selection, User.UserRole role) {
+        return apply("role change to " + role, selection, null, role,
+                (ids, now) -> userRepository.updateUserRole(ids, role, now));
+    }
+
+    /**
+     * Soft delete many users
+     * @param selection Users to delete
+     * @return API response with matched and deleted counts
+     * @throws BusinessException.ValidationException if the selection has both or neither IDs and filters
+     */
+    public ApiResponse<BulkUpdateResponse> deleteUsers(BulkUserSelection selection) {
+        return apply("delete", selection, User.UserStatus.DELETED, null, userRepository::softDeleteUsers);
+    }
+
+    private ApiResponse<BulkUpdateResponse> apply(String operation, BulkUserSelection selection,
+                                                  User.UserStatus toStatus, User.UserRole toRole,
+                                                  ToIntBiFunction<List<Long>, LocalDateTime> update) {
+        if (selection.hasUserIds() == selection.hasFilter()) {
+            throw new BusinessException.ValidationException("userIds",
+                    "Select users either by ID or by at least one filter, not both");
+        }
+        long startedAt = System.nanoTime();
+        long matched = 0;
+        long updated = 0;
+        int chunks = 0;
+
+        if (selection.hasUserIds()) {
+            // Ascending IDs lock rows in the same order in every operation, so concurrent ones cannot deadlock
+            List<Long> ids = selection.userIds().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                matched += chunk.size();
+                updated += applyChunk(chunk, toStatus, toRole, update);
+                chunks++;
+            }
+        } else {
+            UserFilter filter = UserFilter.search(selection.keyword(), selection.status(), selection.role());
+            long afterId = 0;
+            List<Long> chunk;
+            do {
+                chunk = userRepository.findUserIdsAfter(filter, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                matched += chunk.size();
+                updated += applyChunk(chunk, toStatus, toRole, update);
+                chunks++;
+                afterId = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize);
+        }
+
+        logger.info("Bulk {} matched {} users and updated {} in {} chunks in {} ms",
+                operation, matched, updated, chunks, (System.nanoTime() - startedAt) / 1_000_000);
+        String message = messageService.getMessageWithDefault("user.bulk.updated", "Users updated");
+        return ApiResponse.success(message, new BulkUpdateResponse(matched, updated, chunks));
+    }
+
+    private int applyChunk(List<Long> ids, User.UserStatus toStatus, User.UserRole toRole,
+                           ToIntBiFunction<List<Long>, LocalDateTime> update) {
+        Integer updated = chunkTimer.record(() -> transactionTemplate.execute(transaction -> {
+            // Locked before counting, so no concurrent change can slip in between the count and the UPDATE
+            userRepository.lockUsers(ids);
+            List<UserRepository.StatusRoleCount> before = userRepository.countByStatusAndRoleForIds(ids);
+            int changed = update.applyAsInt(ids, LocalDateTime.now());
+            for (UserRepository.StatusRoleCount row : before) {
+                userStatisticsService.recordChanged(row.getStatus(), row.getRole(),
+                        toStatus != null ? toStatus : row.getStatus(),
+                        toRole != null ? toRole : row.getRole(),
+                        row.getUserCount());
+            }
+            return changed;
+        }));
+        // Marked after commit, so a token issued in between is never trusted with the old claims
+        try {
+            userChangeMarkers.markChanged(ids);
+        } catch (RuntimeException e) {
+            // The chunk is committed; failing here would report it as not applied
+            logger.warn("Could not mark {} bulk changed users starting at ID {}", ids.size(), ids.get(0), e);
+        }
+        return updated != null ? updated : 0;
+    }
+}
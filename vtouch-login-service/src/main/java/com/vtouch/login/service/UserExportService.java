@@ -0,0 +1,173 @@
+package com.vtouch.login.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserFilter;
+import com.vtouch.login.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Bulk user export as NDJSON or CSV.
+ * <p>
+ * Matching users are read in ID order through a forward-only database cursor that fetches
+ * {@code user-export.fetch-size} rows per round trip, and each row is written to the output as soon as it is
+ * read. Rows are DTO projections, so nothing accumulates in the persistence context, and heap use does not
+ * depend on how many users are exported. Throughput is logged per export and the {@code user.export.rows}
+ * counter gives the rate across exports.
+ */
+@Service
+public class UserExportService {
+
+    static final String CSV_HEADER = "id,username,email,firstName,lastName,phoneNumber,status,role,createdAt,updatedAt";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final UserRepository userRepository;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+    private final Counter exportedRows;
+    private final Timer exportTimer;
+
+    public UserExportService(UserRepository userRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${user-export.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        // The output is flushed when buffers fill, not after every row
+        this.jsonWriter = objectMapper.writerFor(UserDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.exportedRows = Counter.builder("user.export.rows")
+                .description("Rows written by bulk user exports")
+                .register(meterRegistry);
+        this.exportTimer = Timer.builder("user.export")
+                .description("Time to stream one user export")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Export users to a stream
+     * @param output Destination, left open; written as UTF-8
+     * @param format Export format
+     * @param keyword Optional keyword matched against names, username and email
+     * @param status Optional status filter
+     * @param role Optional role filter
+     * @return Number of users written
+     * @throws IOException if writing to the output fails
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream output, UserImportService.Format format,
+                            String keyword, User.UserStatus status, User.UserRole role) throws IOException {
+        long startedAt = System.nanoTime();
+        long rows;
+        try (Stream<UserDTO> users = userRepository.streamUsers(UserFilter.search(keyword, status, role), fetchSize)) {
+            rows = format == UserImportService.Format.CSV
+                    ? writeCsv(users.iterator(), output)
+                    : writeNdjson(users.iterator(), output);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        exportedRows.increment(rows);
+        exportTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Exported {} users as {} in {} ms ({} rows/s)",
+                rows, format, elapsed / 1_000_000, elapsed > 0 ? rows * 1_000_000_000L / elapsed : rows);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<UserDTO> users, OutputStream output) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = jsonWriter.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (users.hasNext()) {
+                jsonWriter.writeValue(generator, users.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<UserDTO> users, OutputStream output) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (users.hasNext()) {
+            writeCsvRow(users.next(), writer);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    static void writeCsvRow(UserDTO user, Writer writer) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writeCsvField(neutraliseFormula(user.getUsername()), writer);
+        writeCsvField(neutraliseFormula(user.getEmail()), writer);
+        writeCsvField(neutraliseFormula(user.getFirstName()), writer);
+        writeCsvField(neutraliseFormula(user.getLastName()), writer);
+        writeCsvField(neutraliseFormula(user.getPhoneNumber()), writer);
+        writeCsvField(user.getStatus() != null ? user.getStatus().name() : null, writer);
+        writeCsvField(user.getRole() != null ? user.getRole().name() : null, writer);
+        writeCsvField(format(user.getCreatedAt()), writer);
+        writeCsvField(format(user.getUpdatedAt()), writer);
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(String value, Writer writer) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        // RFC 4180: quote fields holding separators, quotes or line breaks, and double the quotes
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Spreadsheets run a cell starting with {@code = + - @}, tab or carriage return as a formula, so such user
+     * entered text is prefixed with {@code '} to be shown as text
+     */
+    private static String neutraliseFormula(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp != null ? TIMESTAMP.format(timestamp) : null;
+    }
+}
@@ -0,0 +1,510 @@
+package com.vtouch.login.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vtouch.login.dto.request.CreateUserRequest;
+import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.UserImportResponse;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import com.vtouch.login.exception.SystemException;
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bulk user import from NDJSON or CSV uploads.
+ * <p>
+ * The upload is read one row at a time and handled in chunks of {@code user-import.chunk-size}: rows are
+ * validated, passwords are hashed in parallel on the {@link PasswordHashingExecutor}, and the chunk is
+ * inserted as JDBC batches in its own transaction. The persistence context is cleared after every chunk,
+ * because the request's open-in-view EntityManager outlives the chunk transactions; so only one chunk and a
+ * bounded list of row errors are held in memory, and each flush checks only its own chunk, whatever the size
+ * of the upload. A chunk that hits a unique constraint is retried row by row so
+ * that only the offending rows fail. Hashing keeps at most {@code user-import.hashing-concurrency} tasks in
+ * flight and backs off when the executor is saturated, so logins keep priority over an import.
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserImportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final int MAX_ROW_LENGTH = 64 * 1024;
+    private static final List<String> REQUIRED_COLUMNS = List.of("username", "email", "password", "firstname", "lastname");
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final UserStatisticsService userStatisticsService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MessageService messageService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int hashingConcurrency;
+    private final int maxReportedErrors;
+    private final Counter importedRows;
+    private final Counter failedRows;
+    private final Timer chunkTimer;
+
+    public UserImportService(UserRepository userRepository,
+                             EntityManager entityManager,
+                             PasswordEncoder passwordEncoder,
+                             PasswordHashingExecutor passwordHashingExecutor,
+                             UsernameAvailabilityService usernameAvailabilityService,
+                             UserStatisticsService userStatisticsService,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             MessageService messageService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${user-import.chunk-size:500}") int chunkSize,
+                             @Value("${user-import.hashing-concurrency:0}") int hashingConcurrency,
+                             @Value("${user-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.userStatisticsService = userStatisticsService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.messageService = messageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        // By default leave half of the hashing threads to logins and registrations
+        this.hashingConcurrency = hashingConcurrency > 0
+                ? hashingConcurrency
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxReportedErrors = maxReportedErrors;
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.failedRows = rowCounter(meterRegistry, "failed");
+        this.chunkTimer = Timer.builder("user.import.chunk")
+                .description("Time to hash and insert one import chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Import and export formats
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * Pick the format from a request content type
+         * @param contentType Content type header, possibly with parameters
+         * @return Matching format
+         * @throws BusinessException.ValidationException if the type is neither NDJSON nor CSV
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.isCompatibleWith(MediaType.parseMediaType(UserImportService.NDJSON))) {
+                    return NDJSON;
+                }
+                if (mediaType.isCompatibleWith(MediaType.parseMediaType(UserImportService.CSV))) {
+                    return CSV;
+                }
+            }
+            throw new BusinessException.ValidationException("Content-Type",
+                    "Unsupported import format: " + contentType + "; use " + UserImportService.NDJSON + " or " + UserImportService.CSV);
+        }
+    }
+
+    /**
+     * Import users from an upload
+     * @param input Upload body, UTF-8
+     * @param format Upload format
+     * @return API response with import counts and row errors
+     * @throws BusinessException.ValidationException if a CSV header lacks required columns
+     */
+    public ApiResponse<UserImportResponse> importUsers(InputStream input, Format format) throws IOException {
+        long startedAt = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+
+        List<PendingUser> chunk = new ArrayList<>(chunkSize);
+        Set<String> chunkUsernames = new HashSet<>();
+        Set<String> chunkEmails = new HashSet<>();
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            progress.rows++;
+            if (row.error() != null) {
+                progress.fail(row.line(), null, "MALFORMED_ROW", row.error());
+                continue;
+            }
+            CreateUserRequest request = row.request();
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<CreateUserRequest> violation = violations.iterator().next();
+                progress.fail(row.line(), violation.getPropertyPath().toString(), "VALIDATION_ERROR", violation.getMessage());
+                continue;
+            }
+            // Duplicates within a chunk would fail the whole batch insert; catch them up front
+            if (!chunkUsernames.add(request.username())) {
+                progress.failDuplicate(row.line(), "username", request.username());
+                continue;
+            }
+            if (!chunkEmails.add(request.email())) {
+                progress.failDuplicate(row.line(), "email", request.email());
+                continue;
+            }
+            chunk.add(new PendingUser(row.line(), request));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk.clear();
+                chunkUsernames.clear();
+                chunkEmails.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        importedRows.increment(progress.imported);
+        failedRows.increment(progress.failed);
+        logger.info("Imported {} of {} users in {} ms; {} rows failed",
+                progress.imported, progress.rows, (System.nanoTime() - startedAt) / 1_000_000, progress.failed);
+
+        String message = messageService.getMessageWithDefault("user.imported", "Users imported");
+        return ApiResponse.success(message, progress.toResponse());
+    }
+
+    private void importChunk(List<PendingUser> chunk, ImportProgress progress) {
+        chunkTimer.record(() -> {
+            hashPasswords(chunk, progress);
+
+            List<PendingUser> hashed = chunk.stream().filter(pending -> pending.encodedPassword != null).toList();
+            if (hashed.isEmpty()) {
+                return;
+            }
+            try {
+                // One transaction; Hibernate sends the inserts as JDBC batches
+                List<User> saved = transactionTemplate.execute(transaction ->
+                        userRepository.saveAllAndFlush(hashed.stream().map(PendingUser::toEntity).toList()));
+                saved.forEach(user -> {
+                    usernameAvailabilityService.recordTaken(user.getUsername());
+                    userStatisticsService.recordCreated(user.getStatus(), user.getRole());
+                });
+                progress.imported += hashed.size();
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Import chunk hit a constraint, retrying {} rows one by one", hashed.size());
+                // The rolled-back batch is still managed and would be flushed again with every retried row
+                entityManager.clear();
+                hashed.forEach(pending -> insertOne(pending, progress));
+            } finally {
+                entityManager.clear();
+            }
+        });
+    }
+
+    private void insertOne(PendingUser pending, ImportProgress progress) {
+        User user = pending.toEntity();
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> userRepository.saveAndFlush(user));
+            usernameAvailabilityService.recordTaken(user.getUsername());
+            userStatisticsService.recordCreated(user.getStatus(), user.getRole());
+            progress.imported++;
+        } catch (DataIntegrityViolationException e) {
+            BusinessException.DuplicateResourceException duplicate = UniqueViolations.toDuplicate(e, user);
+            if (duplicate != null) {
+                progress.fail(pending.line, (String) duplicate.getProperties().get("field"), duplicate.getErrorCode(), duplicate.getMessage());
+            } else {
+                progress.fail(pending.line, null, "IMPORT_FAILED", e.getMostSpecificCause().getMessage());
+            }
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Hash the chunk's passwords, at most {@code hashingConcurrency} at a time; rows the executor turned away
+     * are retried after its Retry-After
+     */
+    private void hashPasswords(List<PendingUser> chunk, ImportProgress progress) {
+        List<PendingUser> remaining = chunk;
+        while (!remaining.isEmpty()) {
+            List<PendingUser> turnedAway = new ArrayList<>();
+            Duration backoff = Duration.ZERO;
+            for (int from = 0; from < remaining.size(); from += hashingConcurrency) {
+                List<PendingUser> window = remaining.subList(from, Math.min(remaining.size(), from + hashingConcurrency));
+                List<CompletableFuture<String>> futures = new ArrayList<>(window.size());
+                for (PendingUser pending : window) {
+                    futures.add(submitHash(pending));
+                }
+                for (int i = 0; i < window.size(); i++) {
+                    PendingUser pending = window.get(i);
+                    try {
+                        pending.encodedPassword = futures.get(i).join();
+                    } catch (CompletionException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof SystemException.CapacityExceededException capacityExceeded) {
+                            turnedAway.add(pending);
+                            backoff = capacityExceeded.getRetryAfter();
+                        } else {
+                            progress.fail(pending.line, "password", "HASHING_FAILED", cause.getMessage());
+                        }
+                    }
+                }
+            }
+            if (!turnedAway.isEmpty()) {
+                pause(backoff);
+            }
+            remaining = turnedAway;
+        }
+    }
+
+    private CompletableFuture<String> submitHash(PendingUser pending) {
+        try {
+            return passwordHashingExecutor.submit("import", () -> passwordEncoder.encode(pending.request.password()));
+        } catch (SystemException.CapacityExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void pause(Duration backoff) {
+        try {
+            Thread.sleep(Math.max(100L, backoff.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SystemException("IMPORT_INTERRUPTED", "User import was interrupted", e);
+        }
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.import.rows")
+                .description("Rows processed by bulk user imports")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One parsed row; either a request or the reason it could not be parsed
+     */
+    private record ImportRow(long line, CreateUserRequest request, String error) {
+    }
+
+    private interface RowSource {
+        /**
+         * @return Next row, or null at end of input
+         */
+        ImportRow next() throws IOException;
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final StringBuilder text = new StringBuilder();
+        private boolean tooLong;
+        private long line;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            while (readLine()) {
+                line++;
+                if (tooLong) {
+                    return new ImportRow(line, null, "Row is longer than " + MAX_ROW_LENGTH + " characters");
+                }
+                if (text.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(line, objectMapper.readValue(text.toString(), CreateUserRequest.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(line, null, e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Read the next line into {@code text}, keeping at most {@code MAX_ROW_LENGTH} characters; the rest of a
+         * longer line is skipped without being buffered
+         * @return false at end of input
+         */
+        private boolean readLine() throws IOException {
+            text.setLength(0);
+            tooLong = false;
+            int c = reader.read();
+            if (c < 0) {
+                return false;
+            }
+            while (c >= 0 && c != '\n') {
+                // One extra character leaves room for the '\r' of a CRLF line end
+                if (text.length() <= MAX_ROW_LENGTH) {
+                    text.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            if (text.length() > 0 && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+            }
+            tooLong |= text.length() > MAX_ROW_LENGTH;
+            return true;
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private Map<String, Integer> columns;
+
+        private CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader, MAX_ROW_LENGTH);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (columns == null) {
+                columns = readHeader();
+            }
+            List<String> fields;
+            try {
+                fields = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                return new ImportRow(reader.recordLine(), null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            long line = reader.recordLine();
+            try {
+                String role = field(fields, "role");
+                return new ImportRow(line, new CreateUserRequest(
+                        field(fields, "username"),
+                        field(fields, "email"),
+                        field(fields, "password"),
+                        field(fields, "firstname"),
+                        field(fields, "lastname"),
+                        field(fields, "phonenumber"),
+                        role != null ? User.UserRole.valueOf(role.toUpperCase(Locale.ROOT)) : null), null);
+            } catch (IllegalArgumentException e) {
+                return new ImportRow(line, null, "Unknown role: " + field(fields, "role"));
+            }
+        }
+
+        private Map<String, Integer> readHeader() throws IOException {
+            List<String> header;
+            try {
+                header = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                throw new BusinessException.ValidationException("header", e.getMessage());
+            }
+            Map<String, Integer> indexes = new HashMap<>();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    indexes.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+                }
+            }
+            for (String column : REQUIRED_COLUMNS) {
+                if (!indexes.containsKey(column)) {
+                    throw new BusinessException.ValidationException(column, "CSV header is missing column '" + column + "'");
+                }
+            }
+            return indexes;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index);
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * Valid row waiting to be hashed and inserted
+     */
+    private static final class PendingUser {
+
+        private final long line;
+        private final CreateUserRequest request;
+        private String encodedPassword;
+
+        private PendingUser(long line, CreateUserRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        private User toEntity() {
+            // A fresh entity each time: a rolled-back batch leaves IDs and versions on the old instances
+            User user = request.toEntity();
+            user.setPassword(encodedPassword);
+            return user;
+        }
+    }
+
+    private static final class ImportProgress {
+
+        private final int maxReportedErrors;
+        private final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long line, String field, String code, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportResponse.RowError(line, field, code, message));
+            }
+        }
+
+        private void failDuplicate(long line, String field, String value) {
+            fail(line, field, "DUPLICATE_RESOURCE", String.format("User with %s '%s' already exists", field, value));
+        }
+
+        private UserImportResponse toResponse() {
+            return new UserImportResponse(rows, imported, failed, failed > errors.size(), List.copyOf(errors));
+        }
+    }
+}
@@ -6,32 +6,44 @@ import com.vtouch.login.dto.request.CreateUserRequest;
 import com.vtouch.login.dto.request.RegisterRequest;
 import com.vtouch.login.dto.request.UpdateUserRequest;
 import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.CursorPagedResponse;
 import com.vtouch.login.dto.response.PagedResponse;
 import com.vtouch.login.entity.User;
 import com.vtouch.login.exception.BusinessException;
 import com.vtouch.login.exception.InvalidCredentialsException;
+import com.vtouch.login.repository.UserCursor;
+import com.vtouch.login.repository.UserFilter;
+import com.vtouch.login.repository.UserKeysetSort;
 import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.UserChangeMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
@@ -44,38 +56,38 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserChangeMarkers userChangeMarkers;
+    
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+    
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     /**
      * Create a new user
      * @param request Create user request
+     * @param encodedPassword Password hash, computed on the hashing executor before any transaction
      * @return API response with created user
      */
-    public ApiResponse<UserDTO> createUser(CreateUserRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApiResponse<UserDTO> createUser(CreateUserRequest request, String encodedPassword) {
         logger.info("Creating new user with username: {}", request.username());
         
-        // Validate unique constraints
-        if (userRepository.existsByUsername(request.username())) {
-            throw new BusinessException.DuplicateResourceException("User", "username", request.username());
-        }
+        User user = request.toEntity();
+        user.setPassword(encodedPassword);
         
-        if (userRepository.existsByEmail(request.email())) {
-            throw new BusinessException.DuplicateResourceException("User", "email", request.email());
-        }
+        User savedUser = insertUser(user, "USER_CREATION_FAILED", "Failed to create user: ");
+        UserDTO userDTO = UserDTO.fromEntity(savedUser);
         
-        try {
-            User user = request.toEntity();
-            // Encode password before saving
-            user.setPassword(passwordEncoder.encode(request.password()));
-            User savedUser = userRepository.save(user);
-            UserDTO userDTO = UserDTO.fromEntity(savedUser);
-            
-            String message = messageService.getMessageWithDefault("user.created", "User created successfully");
-            logger.info("User created successfully with ID: {}", savedUser.getId());
-            
-            return ApiResponse.success(message, userDTO);
-        } catch (Exception e) {
-            logger.error("Error creating user: {}", e.getMessage(), e);
-            throw new BusinessException("USER_CREATION_FAILED", "Failed to create user: " + e.getMessage());
-        }
+        String message = messageService.getMessageWithDefault("user.created", "User created successfully");
+        logger.info("User created successfully with ID: {}", savedUser.getId());
+        
+        return ApiResponse.success(message, userDTO);
     }
     
     /**
@@ -87,10 +99,9 @@ public class UserService implements UserDetailsService {
     public ApiResponse<UserDTO> getUserById(Long userId) {
         logger.debug("Getting user by ID: {}", userId);
         
-        User user = userRepository.findById(userId)
+        UserDTO userDTO = userRepository.findDtoById(userId)
                 .orElseThrow(() -> new BusinessException.ResourceNotFoundException("User", String.valueOf(userId)));
         
-        UserDTO userDTO = UserDTO.fromEntity(user);
         return ApiResponse.success(userDTO);
     }
     
@@ -103,10 +114,9 @@ public class UserService implements UserDetailsService {
     public ApiResponse<UserDTO> getUserByUsername(String username) {
         logger.debug("Getting user by username: {}", username);
         
-        User user = userRepository.findByUsername(username)
+        UserDTO userDTO = userRepository.findDtoByUsername(username)
                 .orElseThrow(() -> new BusinessException.ResourceNotFoundException("User", username));
         
-        UserDTO userDTO = UserDTO.fromEntity(user);
         return ApiResponse.success(userDTO);
     }
     
@@ -139,9 +149,14 @@ public class UserService implements UserDetailsService {
             }
         }
         
+        User.UserStatus previousStatus = user.getStatus();
+        User.UserRole previousRole = user.getRole();
         try {
             User updatedUser = request.applyTo(user);
             User savedUser = userRepository.save(updatedUser);
+            userChangeMarkers.markChanged(userId);
+            usernameAvailabilityService.recordTaken(savedUser.getUsername());
+            userStatisticsService.recordChanged(previousStatus, previousRole, savedUser.getStatus(), savedUser.getRole());
             UserDTO userDTO = UserDTO.fromEntity(savedUser);
             
             String message = messageService.getMessageWithDefault("user.updated", "User updated successfully");
@@ -169,9 +184,12 @@ public class UserService implements UserDetailsService {
             throw new BusinessException.InvalidOperationException("delete user", "User is already deleted");
         }
         
+        User.UserStatus previousStatus = user.getStatus();
         try {
             user.setStatus(User.UserStatus.DELETED);
             userRepository.save(user);
+            userChangeMarkers.markChanged(userId);
+            userStatisticsService.recordChanged(previousStatus, user.getRole(), User.UserStatus.DELETED, user.getRole());
             
             String message = messageService.getMessageWithDefault("user.deleted", "User deleted successfully");
             logger.info("User deleted successfully with ID: {}", userId);
@@ -189,29 +207,22 @@ public class UserService implements UserDetailsService {
      * @param size Page size
      * @param sort Sort field
      * @param direction Sort direction
+     * @param total How to obtain the total number of users
      * @return API response with paged users
      */
     @Transactional(readOnly = true)
-    public ApiResponse<PagedResponse<UserDTO>> getAllUsers(int page, int size, String sort, String direction) {
+    public ApiResponse<PagedResponse<UserDTO>> getAllUsers(int page, int size, String sort, String direction,
+                                                          PagedResponse.TotalMode total) {
         logger.debug("Getting all users - page: {}, size: {}, sort: {}, direction: {}", page, size, sort, direction);
         
         Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+        if (total != PagedResponse.TotalMode.EXACT) {
+            return ApiResponse.success(slice(UserFilter.notDeleted(), pageable, total));
+        }
         
-        Page<User> userPage = userRepository.findAllActiveUsers(pageable);
-        List<UserDTO> userDTOs = userPage.getContent().stream()
-                .map(UserDTO::fromEntity)
-                .toList();
-        
-        PagedResponse<UserDTO> pagedResponse = new PagedResponse<>(
-            userDTOs,
-            userPage.getNumber(),
-            userPage.getSize(),
-            userPage.getTotalElements(),
-            userPage.getTotalPages()
-        );
-        
-        return ApiResponse.success(pagedResponse);
+        Page<UserDTO> userPage = userRepository.findAllActiveUserDtos(pageable);
+        return ApiResponse.success(PagedResponse.from(userPage));
     }
     
     /**
@@ -223,30 +234,23 @@ public class UserService implements UserDetailsService {
      * @param size Page size
      * @param sort Sort field
      * @param direction Sort direction
+     * @param total How to obtain the total number of results
      * @return API response with search results
      */
     @Transactional(readOnly = true)
     public ApiResponse<PagedResponse<UserDTO>> searchUsers(String keyword, User.UserStatus status, User.UserRole role,
-                                                          int page, int size, String sort, String direction) {
+                                                          int page, int size, String sort, String direction,
+                                                          PagedResponse.TotalMode total) {
         logger.debug("Searching users - keyword: {}, status: {}, role: {}", keyword, status, role);
         
         Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+        if (total != PagedResponse.TotalMode.EXACT) {
+            return ApiResponse.success(slice(UserFilter.search(keyword, status, role), pageable, total));
+        }
         
-        Page<User> userPage = userRepository.searchUsers(keyword, status, role, pageable);
-        List<UserDTO> userDTOs = userPage.getContent().stream()
-                .map(UserDTO::fromEntity)
-                .toList();
-        
-        PagedResponse<UserDTO> pagedResponse = new PagedResponse<>(
-            userDTOs,
-            userPage.getNumber(),
-            userPage.getSize(),
-            userPage.getTotalElements(),
-            userPage.getTotalPages()
-        );
-        
-        return ApiResponse.success(pagedResponse);
+        Page<UserDTO> userPage = userRepository.searchUsers(keyword, status, role, pageable);
+        return ApiResponse.success(PagedResponse.from(userPage));
     }
     
     /**
@@ -257,51 +261,110 @@ public class UserService implements UserDetailsService {
     public ApiResponse<UserStatistics> getUserStatistics() {
         logger.debug("Getting user statistics");
         
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByStatus(User.UserStatus.ACTIVE);
-        long inactiveUsers = userRepository.countByStatus(User.UserStatus.INACTIVE);
-        long suspendedUsers = userRepository.countByStatus(User.UserStatus.SUSPENDED);
-        long deletedUsers = userRepository.countByStatus(User.UserStatus.DELETED);
-        
-        long adminUsers = userRepository.countByRole(User.UserRole.ADMIN);
-        long moderatorUsers = userRepository.countByRole(User.UserRole.MODERATOR);
-        long regularUsers = userRepository.countByRole(User.UserRole.USER);
-        
-        UserStatistics statistics = new UserStatistics(
-            totalUsers, activeUsers, inactiveUsers, suspendedUsers, deletedUsers,
-            adminUsers, moderatorUsers, regularUsers
-        );
-        
-        return ApiResponse.success(statistics);
+        return ApiResponse.success(userStatisticsService.getStatistics());
     }
     
     /**
      * Get recently created users
      * @param page Page number
      * @param size Page size
+     * @param total How to obtain the total number of users
      * @return API response with recently created users
      */
     @Transactional(readOnly = true)
-    public ApiResponse<PagedResponse<UserDTO>> getRecentlyCreatedUsers(int page, int size) {
+    public ApiResponse<PagedResponse<UserDTO>> getRecentlyCreatedUsers(int page, int size, PagedResponse.TotalMode total) {
         logger.debug("Getting recently created users - page: {}, size: {}", page, size);
         
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
         Pageable pageable = PageRequest.of(page, size);
+        if (total != PagedResponse.TotalMode.EXACT) {
+            // Whole minutes keep the filter, and so the cached estimate, the same across requests
+            UserFilter filter = UserFilter.createdSince(thirtyDaysAgo.truncatedTo(ChronoUnit.MINUTES));
+            return ApiResponse.success(slice(filter, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")), total));
+        }
         
-        Page<User> userPage = userRepository.findRecentlyCreatedUsers(thirtyDaysAgo, pageable);
-        List<UserDTO> userDTOs = userPage.getContent().stream()
-                .map(UserDTO::fromEntity)
-                .toList();
-        
-        PagedResponse<UserDTO> pagedResponse = new PagedResponse<>(
-            userDTOs,
-            userPage.getNumber(),
-            userPage.getSize(),
-            userPage.getTotalElements(),
-            userPage.getTotalPages()
-        );
+        Page<UserDTO> userPage = userRepository.findRecentlyCreatedUserDtos(thirtyDaysAgo, pageable);
+        return ApiResponse.success(PagedResponse.from(userPage));
+    }
+    
+    /**
+     * Read one page without counting; fetching one row past the page tells whether another follows
+     */
+    private PagedResponse<UserDTO> slice(UserFilter filter, Pageable pageable, PagedResponse.TotalMode total) {
+        Slice<UserDTO> userSlice = userRepository.findUsers(filter, pageable);
+        PagedResponse<UserDTO> pagedResponse = PagedResponse.from(userSlice);
+        if (total == PagedResponse.TotalMode.ESTIMATE) {
+            pagedResponse.withEstimatedTotal(userRepository.estimateUsers(filter));
+        }
+        return pagedResponse;
+    }
+    
+    /**
+     * Get users that are not deleted, one cursor page at a time
+     * @param cursor Cursor from the previous page; null for the first page
+     * @param size Page size
+     * @param sort Sort field; only indexed fields are accepted
+     * @param direction Sort direction
+     * @return API response with a page of users and the next cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPagedResponse<UserDTO>> getAllUsersByCursor(String cursor, int size, String sort, String direction) {
+        logger.debug("Getting all users - cursor: {}, size: {}, sort: {}, direction: {}", cursor, size, sort, direction);
+        return ApiResponse.success(cursorPage(UserFilter.notDeleted(), cursor, size, sort, direction));
+    }
+    
+    /**
+     * Search users, one cursor page at a time; results follow the sort field, not relevance
+     * @param keyword Search keyword
+     * @param status User status filter
+     * @param role User role filter
+     * @param cursor Cursor from the previous page; null for the first page
+     * @param size Page size
+     * @param sort Sort field; only indexed fields are accepted
+     * @param direction Sort direction
+     * @return API response with a page of users and the next cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPagedResponse<UserDTO>> searchUsersByCursor(String keyword, User.UserStatus status, User.UserRole role,
+                                                                        String cursor, int size, String sort, String direction) {
+        logger.debug("Searching users - keyword: {}, status: {}, role: {}, cursor: {}", keyword, status, role, cursor);
+        return ApiResponse.success(cursorPage(UserFilter.search(keyword, status, role), cursor, size, sort, direction));
+    }
+    
+    /**
+     * Get recently created users, newest first, one cursor page at a time
+     * @param cursor Cursor from the previous page; null for the first page
+     * @param size Page size
+     * @return API response with a page of users and the next cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPagedResponse<UserDTO>> getRecentlyCreatedUsersByCursor(String cursor, int size) {
+        logger.debug("Getting recently created users - cursor: {}, size: {}", cursor, size);
+        
+        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        return ApiResponse.success(cursorPage(UserFilter.createdSince(thirtyDaysAgo), cursor, size, "createdAt", "desc"));
+    }
+    
+    /**
+     * Read one keyset page; one extra row tells whether another page follows, so nothing is counted
+     */
+    private CursorPagedResponse<UserDTO> cursorPage(UserFilter filter, String cursor, int size, String sort, String direction) {
+        if (size < 1) {
+            throw new BusinessException.ValidationException("size", "Page size must be at least 1");
+        }
+        UserKeysetSort sortKey = UserKeysetSort.of(sort);
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        UserCursor after = cursor != null && !cursor.isBlank() ? UserCursor.decode(cursor) : null;
+        if (after != null && (after.sort() != sortKey || after.direction() != sortDirection)) {
+            throw new BusinessException.ValidationException("cursor", "Cursor belongs to a different sort order");
+        }
+        
+        List<UserDTO> users = userRepository.findUsersAfter(filter, sortKey, sortDirection, after, size + 1);
+        boolean hasNext = users.size() > size;
+        List<UserDTO> page = hasNext ? users.subList(0, size) : users;
+        String nextCursor = hasNext ? UserCursor.after(page.get(size - 1), sortKey, sortDirection).encode() : null;
         
-        return ApiResponse.success(pagedResponse);
+        return new CursorPagedResponse<>(page, size, nextCursor);
     }
     
     /**
@@ -321,9 +384,12 @@ public class UserService implements UserDetailsService {
                 "User is already in " + newStatus + " status");
         }
         
+        User.UserStatus previousStatus = user.getStatus();
         try {
             user.setStatus(newStatus);
             User savedUser = userRepository.save(user);
+            userChangeMarkers.markChanged(userId);
+            userStatisticsService.recordChanged(previousStatus, savedUser.getRole(), newStatus, savedUser.getRole());
             UserDTO userDTO = UserDTO.fromEntity(savedUser);
             
             String message = messageService.getMessageWithDefault("user.status.changed", "User status changed successfully");
@@ -353,9 +419,12 @@ public class UserService implements UserDetailsService {
                 "User already has " + newRole + " role");
         }
         
+        User.UserRole previousRole = user.getRole();
         try {
             user.setRole(newRole);
             User savedUser = userRepository.save(user);
+            userChangeMarkers.markChanged(userId);
+            userStatisticsService.recordChanged(savedUser.getStatus(), previousRole, savedUser.getStatus(), newRole);
             UserDTO userDTO = UserDTO.fromEntity(savedUser);
             
             String message = messageService.getMessageWithDefault("user.role.changed", "User role changed successfully");
@@ -394,46 +463,95 @@ public class UserService implements UserDetailsService {
     /**
      * Register new user with encoded password
      * @param request Register request
+     * @param encodedPassword Password hash, computed on the hashing executor before any transaction
      * @return API response with created user
      */
-    public ApiResponse<UserDTO> registerUser(RegisterRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApiResponse<UserDTO> registerUser(RegisterRequest request, String encodedPassword) {
         logger.info("Registering new user with username: {}", request.username());
         
-        // Validate unique constraints
-        if (userRepository.existsByUsername(request.username())) {
-            throw new BusinessException.DuplicateResourceException("User", "username", request.username());
-        }
+        User user = new User(
+            request.username(),
+            request.email(),
+            encodedPassword,
+            request.firstName(),
+            request.lastName()
+        );
         
-        if (userRepository.existsByEmail(request.email())) {
-            throw new BusinessException.DuplicateResourceException("User", "email", request.email());
+        if (request.phoneNumber() != null) {
+            user.setPhoneNumber(request.phoneNumber());
         }
         
+        User savedUser = insertUser(user, "USER_REGISTRATION_FAILED", "Failed to register user: ");
+        UserDTO userDTO = UserDTO.fromEntity(savedUser);
+        
+        String message = messageService.getMessageWithDefault("user.registered", "User registered successfully");
+        logger.info("User registered successfully with ID: {}", savedUser.getId());
+        
+        return ApiResponse.success(message, userDTO);
+    }
+    
+    /**
+     * Insert a new user in one round trip; the unique constraints decide whether username or email is taken
+     * @param user New user with encoded password
+     * @param failureCode Error code for failures other than duplicates
+     * @param failureMessage Message prefix for failures other than duplicates
+     * @return Saved user
+     * @throws BusinessException.DuplicateResourceException if the username or email already exists
+     */
+    private User insertUser(User user, String failureCode, String failureMessage) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "created";
         try {
-            User user = new User(
-                request.username(),
-                request.email(),
-                passwordEncoder.encode(request.password()),
-                request.firstName(),
-                request.lastName()
-            );
-            
-            if (request.phoneNumber() != null) {
-                user.setPhoneNumber(request.phoneNumber());
+            User savedUser = userRepository.saveAndFlush(user);
+            usernameAvailabilityService.recordTaken(savedUser.getUsername());
+            userStatisticsService.recordCreated(savedUser.getStatus(), savedUser.getRole());
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            outcome = "duplicate";
+            BusinessException.DuplicateResourceException duplicate = UniqueViolations.toDuplicate(e, user);
+            if (duplicate != null) {
+                logger.info("Duplicate user rejected by unique constraint: {}", duplicate.getMessage());
+                throw duplicate;
             }
-            
-            User savedUser = userRepository.save(user);
-            UserDTO userDTO = UserDTO.fromEntity(savedUser);
-            
-            String message = messageService.getMessageWithDefault("user.registered", "User registered successfully");
-            logger.info("User registered successfully with ID: {}", savedUser.getId());
-            
-            return ApiResponse.success(message, userDTO);
+            outcome = "failed";
+            logger.error("Error inserting user: {}", e.getMessage(), e);
+            throw new BusinessException(failureCode, failureMessage + e.getMostSpecificCause().getMessage());
         } catch (Exception e) {
-            logger.error("Error registering user: {}", e.getMessage(), e);
-            throw new BusinessException("USER_REGISTRATION_FAILED", "Failed to register user: " + e.getMessage());
+            outcome = "failed";
+            logger.error("Error inserting user: {}", e.getMessage(), e);
+            throw new BusinessException(failureCode, failureMessage + e.getMessage());
+        } finally {
+            sample.stop(userInsertTimer(outcome));
         }
     }
     
+    private Timer userInsertTimer(String outcome) {
+        return Timer.builder("user.insert")
+                .description("Time to insert a new user, after password hashing")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Store a rehashed password after a successful login, when the stored hash uses another algorithm or cost
+     * @param userDetails Authenticated user
+     * @param newPassword New hash of the password that was just verified
+     * @return User carrying the new hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        int updated = userRepository.updatePasswordHash(user.getId(), user.getPassword(), newPassword);
+        if (updated == 1) {
+            logger.debug("Upgraded password hash for user: {}", user.getUsername());
+            user.setPassword(newPassword);
+        }
+        return user;
+    }
+    
     /**
      * Authenticate user credentials
      * @param username Username or email
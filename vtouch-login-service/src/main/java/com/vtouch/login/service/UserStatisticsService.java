@@ -0,0 +1,190 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.dto.UserStatistics;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * User counts by status and role, answered from memory.
+ * <p>
+ * One counter per status and role pair is loaded from a single grouped query when the application is
+ * ready. After that, {@link UserService}, {@link UserImportService} and {@link UserBulkService} report
+ * creations and status or role changes as they commit. Every {@code user-statistics.reconcile-interval-ms} the
+ * counters are checked against the database and corrected. Writes that bypass these services, such as other
+ * instances or SQL, are only picked up by reconciliation. The correction each run makes is published as the
+ * {@code user.statistics.drift} gauge.
+ */
+@Service
+public class UserStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatisticsService.class);
+    private static final User.UserStatus[] STATUSES = User.UserStatus.values();
+    private static final User.UserRole[] ROLES = User.UserRole.values();
+
+    private final UserRepository userRepository;
+    private final LongAdder[][] counts = new LongAdder[STATUSES.length][ROLES.length];
+    private final AtomicLong drift = new AtomicLong();
+    private final Timer reconcileTimer;
+
+    private volatile boolean reconciled;
+
+    public UserStatisticsService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        for (LongAdder[] row : counts) {
+            for (int role = 0; role < row.length; role++) {
+                row[role] = new LongAdder();
+            }
+        }
+        this.reconcileTimer = Timer.builder("user.statistics.reconcile")
+                .description("Time to recount users by status and role")
+                .register(meterRegistry);
+        Gauge.builder("user.statistics.drift", drift, AtomicLong::get)
+                .description("Users the last reconciliation found miscounted by the in-memory statistics")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current user counts
+     * @return Statistics; counts the database once if the counters have not been loaded yet
+     */
+    public UserStatistics getStatistics() {
+        if (!reconciled) {
+            reconcile();
+        }
+        long[] byStatus = new long[STATUSES.length];
+        long[] byRole = new long[ROLES.length];
+        long total = 0;
+        for (int status = 0; status < STATUSES.length; status++) {
+            for (int role = 0; role < ROLES.length; role++) {
+                long count = counts[status][role].sum();
+                byStatus[status] += count;
+                byRole[role] += count;
+                total += count;
+            }
+        }
+        return new UserStatistics(total,
+                byStatus[User.UserStatus.ACTIVE.ordinal()],
+                byStatus[User.UserStatus.INACTIVE.ordinal()],
+                byStatus[User.UserStatus.SUSPENDED.ordinal()],
+                byStatus[User.UserStatus.DELETED.ordinal()],
+                byRole[User.UserRole.ADMIN.ordinal()],
+                byRole[User.UserRole.MODERATOR.ordinal()],
+                byRole[User.UserRole.USER.ordinal()]);
+    }
+
+    /**
+     * Record a new user once the current transaction commits
+     * @param status Status of the new user
+     * @param role Role of the new user
+     */
+    public void recordCreated(User.UserStatus status, User.UserRole role) {
+        afterCommit(() -> counts[status.ordinal()][role.ordinal()].increment());
+    }
+
+    /**
+     * Record a status or role change once the current transaction commits
+     * @param fromStatus Previous status
+     * @param fromRole Previous role
+     * @param toStatus New status
+     * @param toRole New role
+     */
+    public void recordChanged(User.UserStatus fromStatus, User.UserRole fromRole, User.UserStatus toStatus, User.UserRole toRole) {
+        recordChanged(fromStatus, fromRole, toStatus, toRole, 1);
+    }
+
+    /**
+     * Record the same status or role change for several users once the current transaction commits
+     * @param fromStatus Previous status
+     * @param fromRole Previous role
+     * @param toStatus New status
+     * @param toRole New role
+     * @param users Number of users changed
+     */
+    public void recordChanged(User.UserStatus fromStatus, User.UserRole fromRole,
+                              User.UserStatus toStatus, User.UserRole toRole, long users) {
+        if ((fromStatus == toStatus && fromRole == toRole) || users == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            counts[fromStatus.ordinal()][fromRole.ordinal()].add(-users);
+            counts[toStatus.ordinal()][toRole.ordinal()].add(users);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            // The first statistics request loads the counters instead
+            logger.warn("Could not load user statistics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount users with one grouped query and correct the counters
+     */
+    @Scheduled(fixedDelayString = "${user-statistics.reconcile-interval-ms:300000}",
+               initialDelayString = "${user-statistics.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        // Read the counters before the query, so a change recorded while it runs stays on top of the
+        // correction. A change committed before the query but recorded after this read is counted twice
+        // until the next run.
+        long[][] before = new long[STATUSES.length][ROLES.length];
+        for (int status = 0; status < STATUSES.length; status++) {
+            for (int role = 0; role < ROLES.length; role++) {
+                before[status][role] = counts[status][role].sum();
+            }
+        }
+        long[][] actual = new long[STATUSES.length][ROLES.length];
+        reconcileTimer.record(() -> {
+            for (UserRepository.StatusRoleCount row : userRepository.countByStatusAndRole()) {
+                actual[row.getStatus().ordinal()][row.getRole().ordinal()] = row.getUserCount();
+            }
+        });
+
+        // Adjust by the difference from the snapshot rather than overwrite, so changes recorded meanwhile are not lost
+        long corrected = 0;
+        for (int status = 0; status < STATUSES.length; status++) {
+            for (int role = 0; role < ROLES.length; role++) {
+                long difference = actual[status][role] - before[status][role];
+                counts[status][role].add(difference);
+                corrected += Math.abs(difference);
+            }
+        }
+        if (reconciled) {
+            drift.set(corrected);
+            if (corrected > 0) {
+                logger.info("Corrected user statistics by {} users", corrected);
+            }
+        }
+        reconciled = true;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,154 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Advisory "is this username taken?" answers for signup forms.
+ * <p>
+ * A Bloom filter of every username is built from the database when the application is ready and rebuilt
+ * every {@code availability.rebuild-interval-ms}, which also drops names freed by deleted users. A name
+ * the filter has never seen is reported available without a query; only a filter hit is confirmed
+ * against the database. The answer is a hint: the unique constraint on {@code users.username} still
+ * decides at insert time.
+ */
+@Service
+public class UsernameAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final UserRepository userRepository;
+    private final long expectedUsernames;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    private final Counter filterMisses;
+    private final Counter confirmedTaken;
+    private final Counter falsePositives;
+    private final Counter unfiltered;
+
+    public UsernameAvailabilityService(UserRepository userRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${availability.expected-usernames:1000000}") long expectedUsernames,
+                                       @Value("${availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsernames = expectedUsernames;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.filterMisses = lookupCounter(meterRegistry, "filter-miss");
+        this.confirmedTaken = lookupCounter(meterRegistry, "taken");
+        this.falsePositives = lookupCounter(meterRegistry, "false-positive");
+        this.unfiltered = lookupCounter(meterRegistry, "unfiltered");
+        Gauge.builder("user.availability.filter.false-positive-rate", this, UsernameAvailabilityService::expectedFalsePositiveRate)
+                .description("Estimated false-positive probability of the username filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check if a username can still be registered
+     * @param username Username to check
+     * @return true if no user has it at the time of the check
+     */
+    public boolean isAvailable(String username) {
+        BloomFilter current = filter;
+        if (current == null) {
+            // Not built yet: answer from the database
+            unfiltered.increment();
+            return !userRepository.existsByUsername(username);
+        }
+        if (!current.mightContain(username)) {
+            filterMisses.increment();
+            return true;
+        }
+        if (userRepository.existsByUsername(username)) {
+            confirmedTaken.increment();
+            return false;
+        }
+        falsePositives.increment();
+        return true;
+    }
+
+    /**
+     * Record a username that has just been stored
+     * @param username Username now in the database
+     */
+    public void recordTaken(String username) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+        // A rebuild in progress may already have read past this user
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(username);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Availability checks fall back to the database until the next scheduled rebuild
+            logger.warn("Could not build username filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the filter from the database, sized for the current number of users
+     */
+    @Scheduled(fixedDelayString = "${availability.rebuild-interval-ms:3600000}",
+               initialDelayString = "${availability.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        BloomFilter next = new BloomFilter(Math.max(expectedUsernames, 2 * userRepository.count()), falsePositiveRate);
+        // Publish before reading so users stored during the scan reach the new filter either way
+        rebuilding = next;
+        try {
+            long loaded = 0;
+            long afterId = 0;
+            List<UserRepository.UsernameRow> page;
+            do {
+                page = userRepository.findUsernamesAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (UserRepository.UsernameRow row : page) {
+                    next.put(row.getUsername());
+                    afterId = row.getId();
+                }
+                loaded += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            filter = next;
+            logger.info("Built username filter with {} usernames in {} ms ({} KB)",
+                    loaded, (System.nanoTime() - startedAt) / 1_000_000, next.sizeInBytes() / 1024);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    double expectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current != null ? current.expectedFalsePositiveRate() : 0.0;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.availability.lookups")
+                .description("Username availability checks by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
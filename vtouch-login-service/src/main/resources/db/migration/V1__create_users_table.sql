@@ -0,0 +1,26 @@
+-- The users table as ddl-auto created it. Databases that already have it are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only run the later migrations.
+
+-- Pooled IDs: Hibernate takes 50 at a time so inserts can be batched
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL,
+    username     VARCHAR(50)  NOT NULL,
+    email        VARCHAR(100) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(50)  NOT NULL,
+    last_name    VARCHAR(50)  NOT NULL,
+    phone_number VARCHAR(20),
+    status       VARCHAR(255) NOT NULL,
+    role         VARCHAR(255) NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    version      INTEGER,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    -- Duplicate inserts are recognised by these names; see User.USERNAME_CONSTRAINT and User.EMAIL_CONSTRAINT
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT users_status_check CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'DELETED')),
+    CONSTRAINT users_role_check CHECK (role IN ('USER', 'ADMIN', 'MODERATOR'))
+);
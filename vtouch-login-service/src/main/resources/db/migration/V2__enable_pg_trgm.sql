@@ -0,0 +1,3 @@
+-- Trigram operators behind the user search index. Trusted since PostgreSQL 13, so the database owner can
+-- install it without superuser rights.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
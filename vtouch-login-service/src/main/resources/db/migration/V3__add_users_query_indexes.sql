@@ -0,0 +1,33 @@
+-- Indexes for the UserRepository queries; each one names the queries it serves.
+--
+-- CONCURRENTLY keeps logins and writes going while an existing large table is indexed. Flyway runs the
+-- script outside a transaction because of it, so nothing else belongs in this file. If a build fails it
+-- leaves an INVALID index behind; drop that index before repairing and rerunning the migration, because
+-- IF NOT EXISTS would skip it.
+
+-- Listings newest first over all users, keyset pages by createdAt, findRecentlyCreatedUsers,
+-- findByCreatedAtAfter and findByCreatedAtBetween
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id
+    ON users (created_at, id);
+
+-- findAllActiveUsers and its count: deleted users are never listed, so they are left out of the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_not_deleted_created_at_id
+    ON users (created_at, id)
+    WHERE status <> 'DELETED';
+
+-- findByStatus, countByStatus, countActiveUsers and keyset pages within one status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_status_created_at_id
+    ON users (status, created_at, id);
+
+-- findByRole, countByRole and keyset pages within one role
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role_created_at_id
+    ON users (role, created_at, id);
+
+-- findByStatusAndRole, status-and-role searches, and countByStatusAndRole as an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_status_role_created_at_id
+    ON users (status, role, created_at, id);
+
+-- Substring search (searchUsers, findByNameContaining, findUsers): the expression must match
+-- UserSearchRepositoryImpl.SEARCH_EXPRESSION exactly
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_search_trgm
+    ON users USING gin ((lower(first_name) || ' ' || lower(last_name) || ' ' || lower(username) || ' ' || lower(email)) gin_trgm_ops);
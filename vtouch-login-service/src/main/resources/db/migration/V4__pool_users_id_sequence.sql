@@ -0,0 +1,13 @@
+-- Databases baselined from ddl-auto have id as an IDENTITY column whose users_id_seq counts by 1, which
+-- gives Hibernate no ID pooling. Replace it with the plain sequence V1 creates; on those databases this
+-- only moves the sequence past the existing IDs.
+
+-- Dropping the identity drops its sequence as well
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+-- Hibernate hands out the 50 IDs up to each value it reads, so the next value must be a full block past MAX(id)
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
@@ -0,0 +1,50 @@
+package com.vtouch.login.config;
+
+import com.vtouch.login.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticUserGeneratorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final SyntheticUserGenerator generator =
+            new SyntheticUserGenerator(42, "loadtest", NOW, Duration.ofDays(1825));
+
+    @Test
+    void sameSeedAndIndexGiveTheSameUser() {
+        SyntheticUserGenerator other = new SyntheticUserGenerator(42, "loadtest", NOW, Duration.ofDays(1825));
+
+        assertEquals(generator.user(12345), other.user(12345));
+        assertEquals("loadtest12345", generator.user(12345).username());
+    }
+
+    @Test
+    void generatesUniqueValidUsers() {
+        Set<String> emails = new HashSet<>();
+        Map<User.UserStatus, Integer> statuses = new EnumMap<>(User.UserStatus.class);
+        for (long index = 0; index < 10_000; index++) {
+            SyntheticUserGenerator.SyntheticUser user = generator.user(index);
+            assertTrue(emails.add(user.email()), "duplicate email " + user.email());
+            assertTrue(user.email().length() <= 100 && user.email().chars().allMatch(c -> c < 128), user.email());
+            assertFalse(user.createdAt().isAfter(NOW));
+            assertFalse(user.updatedAt().isBefore(user.createdAt()));
+            assertFalse(user.updatedAt().isAfter(NOW));
+            statuses.merge(user.status(), 1, Integer::sum);
+        }
+
+        // Roughly 85% active
+        int active = statuses.get(User.UserStatus.ACTIVE);
+        assertTrue(active > 8_000 && active < 9_000, "active: " + active);
+    }
+}
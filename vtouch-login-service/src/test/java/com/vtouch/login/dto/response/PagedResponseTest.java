@@ -0,0 +1,50 @@
+package com.vtouch.login.dto.response;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagedResponseTest {
+
+    @Test
+    void slicesLeaveTotalsOut() {
+        PagedResponse<String> response = new PagedResponse<>(List.of("a", "b"), 1, 2, true);
+
+        assertNull(response.getTotalElements());
+        assertNull(response.getTotalPages());
+        assertTrue(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        assertFalse(response.isLast());
+    }
+
+    @Test
+    void estimateNeverUndercountsSeenElements() {
+        PagedResponse<String> response = new PagedResponse<>(List.of("a", "b"), 3, 2, true).withEstimatedTotal(5);
+
+        assertEquals(9, response.getTotalElements());
+        assertEquals(5, response.getTotalPages());
+        assertTrue(response.getTotalEstimated());
+    }
+
+    @Test
+    void lastPageReportsTheExactTotal() {
+        PagedResponse<String> response = new PagedResponse<>(List.of("a"), 2, 10, false).withEstimatedTotal(500);
+
+        assertEquals(21, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        assertFalse(response.getTotalEstimated());
+    }
+
+    @Test
+    void pagesPastTheEndKeepTheEstimate() {
+        PagedResponse<String> response = new PagedResponse<>(List.of(), 9, 10, false).withEstimatedTotal(42);
+
+        assertEquals(42, response.getTotalElements());
+        assertTrue(response.getTotalEstimated());
+    }
+}
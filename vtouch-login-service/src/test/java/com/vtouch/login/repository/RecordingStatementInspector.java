@@ -0,0 +1,40 @@
+package com.vtouch.login.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures the SQL Hibernate sends while a piece of code runs on the current thread. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, which instantiates it by name.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    /**
+     * Run code and collect the statements it sends
+     * @param code Code that queries through Hibernate
+     * @return Statements in the order they were prepared
+     */
+    static List<String> record(Runnable code) {
+        List<String> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            code.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,54 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserCursorTest {
+
+    @Test
+    void roundTripsEverySortKey() {
+        roundTrip(new UserCursor(UserKeysetSort.ID, Sort.Direction.ASC, 42L, 42));
+        roundTrip(new UserCursor(UserKeysetSort.CREATED_AT, Sort.Direction.DESC, LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123456000), 7));
+        roundTrip(new UserCursor(UserKeysetSort.USERNAME, Sort.Direction.ASC, "ayşe\nkaya", 3));
+        roundTrip(new UserCursor(UserKeysetSort.EMAIL, Sort.Direction.DESC, "a+b@example.com", 9));
+    }
+
+    @Test
+    void isUrlSafe() {
+        String encoded = new UserCursor(UserKeysetSort.USERNAME, Sort.Direction.ASC, "??>>~~", 1).encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(BusinessException.ValidationException.class, () -> UserCursor.decode("not base64!"));
+        assertThrows(BusinessException.ValidationException.class, () -> UserCursor.decode("Zm9v"));
+        assertThrows(BusinessException.ValidationException.class, () -> UserCursor.decode(encode("id\nASC\n1\none")));
+        assertThrows(BusinessException.ValidationException.class, () -> UserCursor.decode(encode("id\nSIDEWAYS\n1\n1")));
+        assertThrows(BusinessException.ValidationException.class, () -> UserCursor.decode(encode("createdAt\nASC\n1\nyesterday")));
+    }
+
+    @Test
+    void rejectsUnindexedSortFields() {
+        assertThrows(BusinessException.ValidationException.class, () -> UserKeysetSort.of("lastName"));
+        assertThrows(BusinessException.ValidationException.class, () -> UserKeysetSort.of("password"));
+    }
+
+    private static String encode(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void roundTrip(UserCursor cursor) {
+        assertEquals(cursor, UserCursor.decode(cursor.encode()));
+    }
+}
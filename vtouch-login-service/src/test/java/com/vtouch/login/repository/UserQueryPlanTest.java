@@ -0,0 +1,152 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans every {@link UserRepository} query against a large seeded users table on PostgreSQL and fails if
+ * any of them can only be answered by a sequential scan.
+ * <p>
+ * Sequential scans are priced out while planning, so a {@code Seq Scan} left in a plan means no index can
+ * serve the query; otherwise counts over most of the table would rightly be planned as sequential scans.
+ * Queries are planned with {@code EXPLAIN (GENERIC_PLAN)}, which needs PostgreSQL 16 or later. Runs only when
+ * {@code -Dtest.postgres.url} points at a scratch database (with {@code test.postgres.user} and
+ * {@code test.postgres.password}); the migrations are applied to it and the seeded users are rolled back.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=${test.postgres.url}",
+    "spring.datasource.username=${test.postgres.user:postgres}",
+    "spring.datasource.password=${test.postgres.password:password}",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.vtouch.login.repository.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+class UserQueryPlanTest {
+
+    private static final int USERS = 200_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Skewed like production: mostly active users with the USER role
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, status, role, "
+                + "created_at, updated_at, version) "
+                + "SELECT base.max_id + g, 'plan' || g, 'plan' || g || '@example.com', 'hash', 'First' || g, 'Last' || g, "
+                + "CASE WHEN g % 50 = 0 THEN 'DELETED' WHEN g % 20 = 0 THEN 'SUSPENDED' "
+                + "WHEN g % 10 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END, "
+                + "CASE WHEN g % 100 = 0 THEN 'ADMIN' WHEN g % 25 = 0 THEN 'MODERATOR' ELSE 'USER' END, "
+                + "now() - g * interval '10 minutes', now() - g * interval '10 minutes', 0 "
+                + "FROM generate_series(1, ?) g, (SELECT COALESCE(MAX(id), 0) AS max_id FROM users) base", USERS);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void everyQueryCanUseAnIndex() {
+        Pageable page = PageRequest.of(2, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        LocalDateTime monthAgo = LocalDateTime.now().minusDays(30);
+        List<Long> ids = List.of(10L, 20L, 30L);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById", () -> userRepository.findById(42L));
+        queries.put("findAll", () -> userRepository.findAll(page));
+        queries.put("findByUsername", () -> userRepository.findByUsername("plan42"));
+        queries.put("findByEmail", () -> userRepository.findByEmail("plan42@example.com"));
+        queries.put("findDtoById", () -> userRepository.findDtoById(42L));
+        queries.put("findDtoByUsername", () -> userRepository.findDtoByUsername("plan42"));
+        queries.put("findByUsernameOrEmail", () -> userRepository.findByUsernameOrEmail("plan42", "plan42@example.com"));
+        queries.put("existsByUsername", () -> userRepository.existsByUsername("plan42"));
+        queries.put("existsByEmail", () -> userRepository.existsByEmail("plan42@example.com"));
+        queries.put("existsByUsernameAndIdNot", () -> userRepository.existsByUsernameAndIdNot("plan42", 42L));
+        queries.put("existsByEmailAndIdNot", () -> userRepository.existsByEmailAndIdNot("plan42@example.com", 42L));
+        queries.put("findByStatus", () -> userRepository.findByStatus(User.UserStatus.SUSPENDED, page));
+        queries.put("findByRole", () -> userRepository.findByRole(User.UserRole.MODERATOR, page));
+        queries.put("findByStatusAndRole", () -> userRepository.findByStatusAndRole(User.UserStatus.SUSPENDED, User.UserRole.MODERATOR, page));
+        queries.put("findByCreatedAtAfter", () -> userRepository.findByCreatedAtAfter(monthAgo, page));
+        queries.put("findByCreatedAtBetween", () -> userRepository.findByCreatedAtBetween(monthAgo, monthAgo.plusDays(1), page));
+        queries.put("countByStatus", () -> userRepository.countByStatus(User.UserStatus.SUSPENDED));
+        queries.put("countByRole", () -> userRepository.countByRole(User.UserRole.MODERATOR));
+        queries.put("countByStatusAndRole", () -> userRepository.countByStatusAndRole());
+        queries.put("countActiveUsers", () -> userRepository.countActiveUsers());
+        queries.put("findRecentlyCreatedUsers", () -> userRepository.findRecentlyCreatedUsers(monthAgo, page));
+        queries.put("findRecentlyCreatedUserDtos", () -> userRepository.findRecentlyCreatedUserDtos(monthAgo, page));
+        queries.put("findAllActiveUsers", () -> userRepository.findAllActiveUsers(page));
+        queries.put("findAllActiveUserDtos", () -> userRepository.findAllActiveUserDtos(page));
+        queries.put("findUsernamesAfter", () -> userRepository.findUsernamesAfter(1000L, PageRequest.ofSize(500)));
+        queries.put("lockUsers", () -> userRepository.lockUsers(ids));
+        queries.put("countByStatusAndRoleForIds", () -> userRepository.countByStatusAndRoleForIds(ids));
+        queries.put("updateUserStatus", () -> userRepository.updateUserStatus(ids, User.UserStatus.SUSPENDED, LocalDateTime.now()));
+        queries.put("updateUserRole", () -> userRepository.updateUserRole(ids, User.UserRole.MODERATOR, LocalDateTime.now()));
+        queries.put("softDeleteUsers", () -> userRepository.softDeleteUsers(ids, LocalDateTime.now()));
+        queries.put("updatePasswordHash", () -> userRepository.updatePasswordHash(42L, "hash", "rehash"));
+        queries.put("searchUsers", () -> userRepository.searchUsers("plan42", null, null, page));
+        queries.put("findByNameContaining", () -> userRepository.findByNameContaining("first42", page));
+        queries.put("findUsers", () -> userRepository.findUsers(UserFilter.search("plan42", User.UserStatus.ACTIVE, null), page));
+        queries.put("findUsersAfter", () -> userRepository.findUsersAfter(UserFilter.notDeleted(), UserKeysetSort.CREATED_AT,
+                Sort.Direction.DESC, new UserCursor(UserKeysetSort.CREATED_AT, Sort.Direction.DESC, monthAgo, 4000L), 20));
+        queries.put("findUserIdsAfter", () -> userRepository.findUserIdsAfter(UserFilter.search(null, User.UserStatus.SUSPENDED, null), 1000L, 500));
+        queries.put("streamUsers", () -> {
+            try (Stream<?> users = userRepository.streamUsers(UserFilter.search(null, null, User.UserRole.ADMIN), 1000)) {
+                users.limit(1).count();
+            }
+        });
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            List<String> statements = RecordingStatementInspector.record(query);
+            assertFalse(statements.isEmpty(), name + " sent no SQL");
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains("Seq Scan on users")) {
+                    failures.add(name + ": " + sql + "\n" + plan);
+                }
+            }
+        });
+        assertTrue(failures.isEmpty(), "Queries without a usable index:\n\n" + String.join("\n\n", failures));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+    }
+
+    /**
+     * Hibernate binds with {@code ?}; a generic plan takes numbered parameters instead
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package com.vtouch.login.repository;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs on H2, so this covers the portable LIKE path; the trigram path needs PostgreSQL with pg_trgm. The
+ * migrations are PostgreSQL-only, so Hibernate creates the schema here.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserSearchRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAll(List.of(
+            user("johnsmith", "js@example.com", "John", "Smith", User.UserStatus.ACTIVE, User.UserRole.USER),
+            user("alice", "alice.john@example.com", "Alice", "Brown", User.UserStatus.ACTIVE, User.UserRole.ADMIN),
+            user("john", "john@example.com", "Johnny", "Walker", User.UserStatus.INACTIVE, User.UserRole.USER),
+            user("bob_100", "bob@example.com", "Bob", "Stone", User.UserStatus.ACTIVE, User.UserRole.USER)
+        ));
+        // Read back what the database stored, as a later request would; timestamps lose precision there
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void matchesAnyColumnCaseInsensitivelyAndRanksUsernameMatchesFirst() {
+        Page<UserDTO> page = userRepository.searchUsers("JOHN", null, null, PageRequest.of(0, 10, Sort.by("username")));
+
+        assertEquals(List.of("john", "johnsmith", "alice"), usernames(page));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void appliesStatusAndRoleFilters() {
+        assertEquals(List.of("johnsmith", "alice"),
+                usernames(userRepository.searchUsers("john", User.UserStatus.ACTIVE, null, PageRequest.of(0, 10))));
+        assertEquals(List.of("alice"),
+                usernames(userRepository.searchUsers("john", null, User.UserRole.ADMIN, PageRequest.of(0, 10))));
+        assertEquals(3, userRepository.searchUsers(null, User.UserStatus.ACTIVE, null, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void treatsWildcardsLiterally() {
+        assertEquals(List.of("bob_100"), usernames(userRepository.searchUsers("b_1", null, null, PageRequest.of(0, 10))));
+        assertEquals(List.of(), usernames(userRepository.searchUsers("%", null, null, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void countsAcrossPages() {
+        Page<UserDTO> page = userRepository.searchUsers("example", null, null, PageRequest.of(1, 3, Sort.by("username")));
+
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of("johnsmith"), usernames(page));
+    }
+
+    @Test
+    void nameSearchIgnoresUsernameAndEmail() {
+        // alice.john@example.com matches on email only
+        assertEquals(List.of("john", "johnsmith"),
+                usernames(userRepository.findByNameContaining("john", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void rejectsUnknownSortProperties() {
+        assertThrows(BusinessException.ValidationException.class,
+                () -> userRepository.searchUsers("john", null, null, PageRequest.of(0, 10, Sort.by("password"))));
+    }
+
+    @Test
+    void slicesReadOnePageWithoutCounting() {
+        Slice<UserDTO> first = userRepository.findUsers(UserFilter.search("example", null, null), PageRequest.of(0, 3, Sort.by("username")));
+        Slice<UserDTO> last = userRepository.findUsers(UserFilter.search("example", null, null), PageRequest.of(1, 3, Sort.by("username")));
+
+        assertEquals(List.of("alice", "bob_100", "john"), first.getContent().stream().map(UserDTO::getUsername).toList());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("johnsmith"), last.getContent().stream().map(UserDTO::getUsername).toList());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void estimatesFallBackToCountingOffPostgres() {
+        assertEquals(4, userRepository.estimateUsers(UserFilter.notDeleted()));
+        assertEquals(2, userRepository.estimateUsers(UserFilter.search("john", null, User.UserRole.USER)));
+    }
+
+    @Test
+    void keysetPagesVisitEveryUserOnceInSortOrder() {
+        List<String> seen = new ArrayList<>();
+        UserCursor after = null;
+        do {
+            List<UserDTO> page = userRepository.findUsersAfter(UserFilter.search(null, null, null),
+                    UserKeysetSort.CREATED_AT, Sort.Direction.DESC, after, 3);
+            seen.addAll(page.stream().map(UserDTO::getUsername).toList());
+            after = page.size() < 3 ? null
+                    : UserCursor.decode(UserCursor.after(page.get(2), UserKeysetSort.CREATED_AT, Sort.Direction.DESC).encode());
+        } while (after != null);
+
+        List<String> expected = userRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id")).stream()
+                .map(User::getUsername).toList();
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void keysetPagesResumeAfterUniqueSortValue() {
+        List<UserDTO> first = userRepository.findUsersAfter(UserFilter.search("example", null, null),
+                UserKeysetSort.USERNAME, Sort.Direction.ASC, null, 2);
+        assertEquals(List.of("alice", "bob_100"), first.stream().map(UserDTO::getUsername).toList());
+
+        UserCursor after = UserCursor.after(first.get(1), UserKeysetSort.USERNAME, Sort.Direction.ASC);
+        assertEquals(List.of("john", "johnsmith"), userRepository.findUsersAfter(UserFilter.search("example", null, null),
+                UserKeysetSort.USERNAME, Sort.Direction.ASC, after, 2).stream().map(UserDTO::getUsername).toList());
+    }
+
+    @Test
+    void keysetPagesApplyFilters() {
+        assertEquals(List.of("alice", "bob_100", "johnsmith"), userRepository.findUsersAfter(
+                UserFilter.search(null, User.UserStatus.ACTIVE, null), UserKeysetSort.USERNAME, Sort.Direction.ASC, null, 10)
+                .stream().map(UserDTO::getUsername).toList());
+        assertEquals(List.of("johnsmith", "john", "bob_100"), userRepository.findUsersAfter(
+                UserFilter.search(null, null, User.UserRole.USER), UserKeysetSort.USERNAME, Sort.Direction.DESC, null, 10)
+                .stream().map(UserDTO::getUsername).toList());
+    }
+
+    @Test
+    void streamsMatchingUsersInIdOrder() {
+        List<UserDTO> users;
+        try (Stream<UserDTO> stream = userRepository.streamUsers(UserFilter.search(null, null, User.UserRole.USER), 2)) {
+            users = stream.toList();
+        }
+
+        assertEquals(List.of("johnsmith", "john", "bob_100"), users.stream().map(UserDTO::getUsername).toList());
+        assertTrue(users.get(0).getId() < users.get(1).getId() && users.get(1).getId() < users.get(2).getId());
+    }
+
+    @Test
+    void readsDtosWithoutThePassword() {
+        UserDTO john = userRepository.findDtoByUsername("john").orElseThrow();
+
+        assertEquals("john@example.com", john.getEmail());
+        assertEquals(User.UserStatus.INACTIVE, john.getStatus());
+        assertEquals(User.UserRole.USER, john.getRole());
+        assertEquals(john, userRepository.findDtoById(john.getId()).orElseThrow());
+        assertEquals(List.of("alice", "bob_100", "john", "johnsmith"),
+                usernames(userRepository.findAllActiveUserDtos(PageRequest.of(0, 10, Sort.by("email")))));
+    }
+
+    @Test
+    void bulkUpdatesBumpVersionsAndSkipUsersAlreadyInTheTargetState() {
+        List<Long> ids = userRepository.findUserIdsAfter(UserFilter.search(null, null, User.UserRole.USER), 0, 10);
+        assertEquals(3, ids.size());
+        assertEquals(List.of(ids.get(1)), userRepository.findUserIdsAfter(UserFilter.search(null, null, User.UserRole.USER), ids.get(0), 1));
+        Integer johnVersion = userRepository.findDtoByUsername("john").orElseThrow().getVersion();
+        Integer bobVersion = userRepository.findDtoByUsername("bob_100").orElseThrow().getVersion();
+
+        assertEquals(2, userRepository.updateUserStatus(ids, User.UserStatus.INACTIVE, LocalDateTime.now()));
+        assertEquals(johnVersion, userRepository.findDtoByUsername("john").orElseThrow().getVersion());
+        UserDTO bob = userRepository.findDtoByUsername("bob_100").orElseThrow();
+        assertEquals(User.UserStatus.INACTIVE, bob.getStatus());
+        assertEquals(bobVersion + 1, bob.getVersion());
+
+        assertEquals(3, userRepository.updateUserRole(ids, User.UserRole.MODERATOR, LocalDateTime.now()));
+        assertEquals(3, userRepository.softDeleteUsers(ids, LocalDateTime.now()));
+        assertEquals(0, userRepository.softDeleteUsers(ids, LocalDateTime.now()));
+        List<UserRepository.StatusRoleCount> counts = userRepository.countByStatusAndRoleForIds(ids);
+        assertEquals(1, counts.size());
+        assertEquals(User.UserStatus.DELETED, counts.get(0).getStatus());
+        assertEquals(User.UserRole.MODERATOR, counts.get(0).getRole());
+        assertEquals(3, counts.get(0).getUserCount());
+    }
+
+    private static User user(String username, String email, String firstName, String lastName,
+                             User.UserStatus status, User.UserRole role) {
+        User user = new User(username, email, "{bcrypt}hash", firstName, lastName);
+        user.setStatus(status);
+        user.setRole(role);
+        return user;
+    }
+
+    private static List<String> usernames(Page<UserDTO> page) {
+        return page.getContent().stream().map(UserDTO::getUsername).toList();
+    }
+}
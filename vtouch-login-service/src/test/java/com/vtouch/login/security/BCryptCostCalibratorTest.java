@@ -0,0 +1,66 @@
+package com.vtouch.login.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptCostCalibratorTest {
+
+    /** Synthetic timings: cost 10 takes 64 ms and every step doubles */
+    private static long nanosFor(int cost) {
+        return Duration.ofMillis(64).toNanos() << (cost - 10);
+    }
+
+    @Test
+    void picksHighestCostWithinBudget() {
+        assertEquals(12, BCryptCostCalibrator.calibrate(Duration.ofMillis(300), 10, 14, BCryptCostCalibratorTest::nanosFor));
+        assertEquals(14, BCryptCostCalibrator.calibrate(Duration.ofSeconds(5), 10, 14, BCryptCostCalibratorTest::nanosFor));
+    }
+
+    @Test
+    void neverGoesBelowMinimumCost() {
+        assertEquals(10, BCryptCostCalibrator.calibrate(Duration.ofMillis(1), 10, 14, BCryptCostCalibratorTest::nanosFor));
+    }
+
+    @Test
+    void rejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BCryptCostCalibrator.calibrate(Duration.ofMillis(100), 12, 10, BCryptCostCalibratorTest::nanosFor));
+        assertThrows(IllegalArgumentException.class,
+                () -> BCryptCostCalibrator.calibrate(Duration.ofMillis(100), 3, 10, BCryptCostCalibratorTest::nanosFor));
+    }
+
+    @Test
+    void upgradesHashesAtAnyOtherCost() {
+        TargetCostBCryptPasswordEncoder encoder = new TargetCostBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertEquals(-1, TargetCostBCryptPasswordEncoder.costOf("not-a-hash"));
+    }
+
+    @Test
+    void legacyHashesStillMatchAndAreUpgradedToPrefixedForm() {
+        TargetCostBCryptPasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String upgraded = encoder.encode("secret");
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", upgraded));
+        assertFalse(encoder.upgradeEncoding(upgraded));
+    }
+}
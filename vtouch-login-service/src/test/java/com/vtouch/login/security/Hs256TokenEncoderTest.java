@@ -0,0 +1,179 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.config.JwtKeyStoreProperties;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compatibility of {@link Hs256TokenEncoder} output with the jjwt parser
+ */
+class Hs256TokenEncoderTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final JwtSigningKey key = JwtSigningKey.hmac("key-1", SECRET);
+    private final Hs256TokenEncoder encoder = new Hs256TokenEncoder(key);
+    private final JwtParser parser = Jwts.parser().verifyWith((SecretKey) key.verificationKey()).build();
+
+    @Test
+    void encodesFixedClaimSet() {
+        TokenPrincipal principal = new TokenPrincipal(42L, "alice", User.UserRole.ADMIN, User.UserStatus.ACTIVE, 7);
+        long now = System.currentTimeMillis() / 1000;
+
+        Jws<Claims> jws = parser.parseSignedClaims(encoder.encode("alice", principal, "family-1", "jti-1", now, now + 60));
+        Claims claims = jws.getPayload();
+
+        assertEquals("key-1", jws.getHeader().getKeyId());
+        assertEquals("HS256", jws.getHeader().getAlgorithm());
+        assertEquals("jti-1", claims.getId());
+        assertEquals("alice", claims.getSubject());
+        assertEquals(42L, ((Number) claims.get(JwtService.CLAIM_USER_ID)).longValue());
+        assertEquals("ADMIN", claims.get(JwtService.CLAIM_ROLE));
+        assertEquals("ACTIVE", claims.get(JwtService.CLAIM_STATUS));
+        assertEquals(7, ((Number) claims.get(JwtService.CLAIM_VERSION)).intValue());
+        assertEquals("family-1", claims.get(JwtService.CLAIM_SESSION_ID));
+        assertEquals(now, claims.getIssuedAt().getTime() / 1000);
+        assertEquals(now + 60, claims.getExpiration().getTime() / 1000);
+    }
+
+    @Test
+    void omitsOptionalClaims() {
+        long now = System.currentTimeMillis() / 1000;
+
+        Claims claims = parser.parseSignedClaims(encoder.encode("bob", null, null, "jti-2", now, now + 60)).getPayload();
+
+        assertEquals("bob", claims.getSubject());
+        assertNull(claims.get(JwtService.CLAIM_USER_ID));
+        assertNull(claims.get(JwtService.CLAIM_SESSION_ID));
+    }
+
+    @Test
+    void escapesArbitrarySubjects() {
+        Random random = new Random(20240101L);
+        long now = System.currentTimeMillis() / 1000;
+        List<String> subjects = new ArrayList<>(List.of("", "quote\"back\\slash", "tab\tnew\nline\u0000", "çğıöşü İ", "emoji 😀 ok"));
+        for (int i = 0; i < 2_000; i++) {
+            subjects.add(randomString(random));
+        }
+
+        for (String subject : subjects) {
+            String token = encoder.encode(subject, null, null, "jti", now, now + 60);
+            assertEquals(subject, parser.parseSignedClaims(token).getPayload().getSubject(), () -> "subject " + subject);
+        }
+    }
+
+    @Test
+    void tamperedTokenFailsVerification() {
+        long now = System.currentTimeMillis() / 1000;
+        String token = encoder.encode("alice", null, null, "jti", now, now + 60);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + parts[1].replace(parts[1].charAt(2), parts[1].charAt(2) == 'A' ? 'B' : 'A') + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> parser.parseSignedClaims(forged));
+    }
+
+    @Test
+    void headerWithoutKid() {
+        Hs256TokenEncoder noKid = new Hs256TokenEncoder(JwtSigningKey.hmac(null, SECRET));
+        long now = System.currentTimeMillis() / 1000;
+
+        Jws<Claims> jws = parser.parseSignedClaims(noKid.encode("alice", null, null, "jti", now, now + 60));
+
+        assertNull(jws.getHeader().getKeyId());
+    }
+
+    @Test
+    void rejectsAsymmetricKeys() {
+        assertThrows(IllegalArgumentException.class, () -> new Hs256TokenEncoder(JwtSigningKey.generate(JwtSigningKey.ES256)));
+    }
+
+    @Test
+    void concurrentEncodingUsesIndependentBuffers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        long now = System.currentTimeMillis() / 1000;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    String subject = "user-" + thread + "-" + i + "x".repeat(i % 700);
+                    String token = encoder.encode(subject, null, null, "jti-" + i, now, now + 60);
+                    assertEquals(subject, parser.parseSignedClaims(token).getPayload().getSubject());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void jwtServiceFastPathMatchesBuilderPath() {
+        User user = new User("alice", "alice@example.com", "secret", "Alice", "Smith");
+        user.setId(42L);
+        user.setVersion(3);
+
+        JwtService fastService = jwtService(true);
+        JwtService builderService = jwtService(false);
+
+        // Each service must also accept the other's tokens
+        Map<String, Object> fast = comparableClaims(builderService.validateToken(fastService.generateToken(user, "sid-1")));
+        Map<String, Object> builder = comparableClaims(fastService.validateToken(builderService.generateToken(user, "sid-1")));
+
+        assertEquals(builder, fast);
+    }
+
+    private static Map<String, Object> comparableClaims(ValidatedToken token) {
+        Map<String, Object> claims = new HashMap<>(token.claims());
+        // Unique per token or time-dependent
+        claims.remove("jti");
+        claims.remove("iat");
+        claims.remove("exp");
+        return claims;
+    }
+
+    private static JwtService jwtService(boolean fastEncoder) {
+        JwtKeyRing keyRing = new JwtKeyRing(new JwtKeyStoreProperties(null, null, null, null, null),
+                event -> { }, SECRET, "HS256", 120_000L, Clock.systemUTC());
+        return new JwtService(keyRing, 60_000L, 120_000L, fastEncoder);
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(4)) {
+                case 0 -> sb.append((char) random.nextInt(0x80));
+                case 1 -> sb.append((char) (0x80 + random.nextInt(0x780)));
+                case 2 -> {
+                    char c = (char) (0x800 + random.nextInt(0xD800 - 0x800));
+                    sb.append(c);
+                }
+                default -> sb.appendCodePoint(0x10000 + random.nextInt(0x10FFFF - 0x10000));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.vtouch.login.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void allowsBurstThenRefillsOneTokenPerInterval() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1000, Duration.ofMinutes(15), now::get);
+        RateLimit limit = new RateLimit(5, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("user:alice", limit).isZero());
+        }
+        Duration wait = limiter.tryAcquire("user:alice", limit);
+        assertEquals(Duration.ofSeconds(1), wait);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire("user:alice", limit).isZero());
+        assertTrue(!limiter.tryAcquire("user:alice", limit).isZero());
+
+        // Other keys are independent
+        assertTrue(limiter.tryAcquire("user:bob", limit).isZero());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1000, Duration.ofMinutes(15), now::get);
+        RateLimit limit = new RateLimit(100, Duration.ofHours(1));
+        int threads = 16;
+        int attemptsPerThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("ip:10.0.0.1", limit).isZero()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(30, TimeUnit.SECONDS);
+            }
+            // The clock does not move, so exactly the burst capacity gets through
+            assertEquals(100, allowed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void memoryStaysBoundedUnderKeyExplosion() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1000, Duration.ofMinutes(15), now::get);
+        RateLimit limit = new RateLimit(5, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryAcquire("user:random-" + i, limit);
+        }
+
+        assertTrue(limiter.size() <= 1000, "tracked keys: " + limiter.size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.config.JwtKeyStoreProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final long RETENTION_MILLIS = Duration.ofDays(7).toMillis();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rotatesOnScheduleAndRetiresOldKeysAfterRetention() throws Exception {
+        Path keyStore = writeKeyStore("k1", "k2");
+        MutableClock clock = new MutableClock(T0.plus(Duration.ofMinutes(1)));
+        List<Object> events = new ArrayList<>();
+        JwtKeyRing keyRing = new JwtKeyRing(properties(keyStore, Map.of("k1", T0, "k2", T0.plus(Duration.ofHours(1)))),
+                events::add, null, null, RETENTION_MILLIS, clock);
+
+        assertEquals("k1", keyRing.activeKey().kid());
+        assertNotNull(keyRing.findByKid("k2"), "scheduled key should be verifiable before it signs");
+
+        clock.set(T0.plus(Duration.ofHours(2)));
+        keyRing.refresh();
+        assertEquals("k2", keyRing.activeKey().kid());
+        assertNotNull(keyRing.findByKid("k1"), "retired key must verify outstanding tokens");
+
+        clock.set(T0.plus(Duration.ofHours(1)).plusMillis(RETENTION_MILLIS).plusSeconds(1));
+        keyRing.refresh();
+        assertNull(keyRing.findByKid("k1"));
+        assertEquals(List.of(new JwtKeysRemovedEvent(java.util.Set.of("k1"))), events);
+    }
+
+    @Test
+    void reloadsKeyStoreWhenFileChanges() throws Exception {
+        Path keyStore = writeKeyStore("k1");
+        MutableClock clock = new MutableClock(T0.plus(Duration.ofHours(3)));
+        Map<String, Instant> activations = Map.of("k1", T0, "k2", T0.plus(Duration.ofHours(2)));
+        JwtKeyRing keyRing = new JwtKeyRing(properties(keyStore, activations), event -> { }, null, null, RETENTION_MILLIS, clock);
+        assertEquals("k1", keyRing.activeKey().kid());
+
+        writeKeyStore("k1", "k2");
+        Files.setLastModifiedTime(keyStore, FileTime.from(Instant.now().plusSeconds(5)));
+        keyRing.refresh();
+
+        assertEquals("k2", keyRing.activeKey().kid());
+    }
+
+    private JwtKeyStoreProperties properties(Path keyStore, Map<String, Instant> activations) {
+        return new JwtKeyStoreProperties(keyStore.toString(), PASSWORD, "PKCS12", Duration.ZERO, activations);
+    }
+
+    private Path writeKeyStore(String... aliases) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, PASSWORD.toCharArray());
+        SecureRandom random = new SecureRandom();
+        for (String alias : aliases) {
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(new SecretKeySpec(secret, "HmacSHA256")),
+                    new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+        }
+        Path path = tempDir.resolve("jwt-keys.p12");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
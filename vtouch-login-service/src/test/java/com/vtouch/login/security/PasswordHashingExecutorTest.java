@@ -0,0 +1,102 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void saturatedExecutorRejectsImmediatelyWithRetryAfter() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofMinutes(1), Duration.ofSeconds(3));
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit("login", () -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit("login", () -> "second");
+
+        SystemException.CapacityExceededException rejected = assertThrows(SystemException.CapacityExceededException.class,
+                () -> executor.submit("login", () -> "third"));
+        assertEquals(Duration.ofSeconds(3), rejected.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "queue-full").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void tasksThatWaitedTooLongAreNotRun() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 4, Duration.ofMillis(20), Duration.ofSeconds(1));
+        executor.submit("login", () -> {
+            await(release);
+            return null;
+        });
+        boolean[] ran = {false};
+        CompletableFuture<Boolean> stale = executor.submit("login", () -> ran[0] = true);
+
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> stale.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SystemException.CapacityExceededException.class, failure.getCause());
+        assertFalse(ran[0]);
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "queue-wait").counter().count());
+        assertEquals(2, meterRegistry.get("password.hashing.queue.wait").timer().count());
+    }
+
+    @Test
+    void callRunsInlineOnHashingThreadAndRethrowsTaskExceptions() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        // A nested call from the only hashing thread would deadlock if it were queued
+        String nested = executor.submit("register", () -> executor.call("encode", () -> Thread.currentThread().getName()))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(nested.startsWith("password-hash-"));
+
+        assertThrows(IllegalArgumentException.class, () -> executor.call("encode", () -> {
+            throw new IllegalArgumentException("bad input");
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceTokenServiceTest {
+
+    private static final TokenPrincipal PRINCIPAL =
+            new TokenPrincipal(42L, "alice", User.UserRole.USER, User.UserStatus.ACTIVE, 3);
+
+    private CountingStore store;
+    private ReferenceTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new CountingStore();
+        service = new ReferenceTokenService(store, new SimpleMeterRegistry(), 60_000L, 1_000, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void issuedTokenResolvesToPrincipalClaims() {
+        String token = service.issue(PRINCIPAL, "family-1");
+
+        ValidatedToken resolved = service.resolve(token);
+
+        assertTrue(ReferenceTokenService.isReferenceToken(token));
+        assertEquals(46, token.length());
+        assertEquals("alice", resolved.subject());
+        assertEquals(PRINCIPAL, TokenPrincipal.fromToken(resolved));
+        assertEquals("family-1", resolved.claim(JwtService.CLAIM_SESSION_ID, String.class));
+    }
+
+    @Test
+    void repeatLookupsAreServedByNearCache() {
+        String token = service.issue(PRINCIPAL, null);
+
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(service.resolve(token));
+        }
+
+        assertEquals(0, store.finds.get());
+    }
+
+    @Test
+    void otherNodesTokensAreLoadedFromStore() {
+        ReferenceTokenService otherNode = new ReferenceTokenService(store, new SimpleMeterRegistry(), 60_000L, 1_000, Duration.ofSeconds(60));
+        String token = otherNode.issue(PRINCIPAL, null);
+
+        assertNotNull(service.resolve(token));
+        assertNotNull(service.resolve(token));
+
+        assertEquals(1, store.finds.get());
+    }
+
+    @Test
+    void revocationIsImmediateOnEveryNode() {
+        String token = service.issue(PRINCIPAL, null);
+        ReferenceTokenService otherNode = new ReferenceTokenService(store, new SimpleMeterRegistry(), 60_000L, 1_000, Duration.ofSeconds(60));
+        assertNotNull(otherNode.resolve(token));
+
+        service.revoke(token);
+
+        assertNull(service.resolve(token));
+        assertNull(otherNode.resolve(token));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertNull(service.resolve("vt_doesnotexist"));
+    }
+
+    /**
+     * Shared store that, like Redis, notifies every subscribed node of deletions
+     */
+    private static final class CountingStore implements ReferenceTokenStore {
+
+        private final InMemoryReferenceTokenStore inner = new InMemoryReferenceTokenStore();
+        private final AtomicInteger finds = new AtomicInteger();
+        private Consumer<String> listeners = key -> { };
+
+        @Override
+        public void save(String key, ReferenceSession session) {
+            inner.save(key, session);
+        }
+
+        @Override
+        public ReferenceSession find(String key) {
+            finds.incrementAndGet();
+            return inner.find(key);
+        }
+
+        @Override
+        public void delete(String key) {
+            inner.delete(key);
+            listeners.accept(key);
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners = listeners.andThen(listener);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.InvalidTokenException;
+import com.vtouch.login.service.JwtService;
+import com.vtouch.login.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private InMemoryRefreshTokenStore store;
+    private InMemoryUserChangeMarkers userChangeMarkers;
+    private UserService userService;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService tokenRevocationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRefreshTokenStore();
+        userChangeMarkers = new InMemoryUserChangeMarkers(60_000L);
+        userService = mock(UserService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRevocationService = new TokenRevocationService(new InMemoryTokenRevocationStore(), meterRegistry,
+                10_000, 0.001, 60_000L);
+        user = new User("alice", "alice@example.com", "secret", "Alice", "Smith");
+        user.setId(1L);
+        user.setVersion(0);
+    }
+
+    @Test
+    void refreshRotatesTokenWithoutLoadingUser() {
+        RefreshTokenService service = service(Duration.ofSeconds(10));
+        RefreshTokenService.RefreshSession login = service.issue(user);
+
+        RefreshTokenService.RefreshSession refreshed = service.refresh(login.refreshToken());
+
+        assertEquals(login.familyId(), refreshed.familyId());
+        assertNotEquals(login.refreshToken(), refreshed.refreshToken());
+        assertEquals("alice", refreshed.principal().getUsername());
+        verify(userService, never()).loadUserByUsername(anyString());
+        assertEquals(1.0, meterRegistry.get("jwt.refresh").tag("outcome", "rotated").counter().count());
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesFamily() {
+        RefreshTokenService service = service(Duration.ZERO);
+        RefreshTokenService.RefreshSession login = service.issue(user);
+        RefreshTokenService.RefreshSession refreshed = service.refresh(login.refreshToken());
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(login.refreshToken()));
+        // The legitimate holder's newer token dies with the family
+        assertThrows(InvalidTokenException.class, () -> service.refresh(refreshed.refreshToken()));
+        assertEquals(0L, store.size());
+        // So do access tokens already issued for it
+        Instant now = Instant.now();
+        ValidatedToken accessToken = new ValidatedToken("alice", now, now.plusSeconds(60),
+                Map.of("jti", "access-1", JwtService.CLAIM_SESSION_ID, login.familyId()));
+        assertTrue(tokenRevocationService.isRevoked(accessToken));
+    }
+
+    @Test
+    void concurrentRefreshesOfSameTokenHaveExactlyOneWinner() throws Exception {
+        RefreshTokenService service = service(Duration.ofSeconds(10));
+        RefreshTokenService.RefreshSession login = service.issue(user);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RefreshTokenService.RefreshSession>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return service.refresh(login.refreshToken());
+            }));
+        }
+        start.countDown();
+
+        List<RefreshTokenService.RefreshSession> winners = new ArrayList<>();
+        for (Future<RefreshTokenService.RefreshSession> future : futures) {
+            try {
+                winners.add(future.get());
+            } catch (Exception e) {
+                assertSame(InvalidTokenException.class, e.getCause().getClass());
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(1, winners.size());
+        // Losers inside the grace window do not revoke the family
+        service.refresh(winners.get(0).refreshToken());
+    }
+
+    @Test
+    void changedUserIsReloadedAndDisabledUserLosesFamily() {
+        RefreshTokenService service = service(Duration.ofSeconds(10));
+        RefreshTokenService.RefreshSession login = service.issue(user);
+        User suspended = new User("alice", "alice@example.com", "secret", "Alice", "Smith");
+        suspended.setId(1L);
+        suspended.setStatus(User.UserStatus.SUSPENDED);
+        when(userService.loadUserByUsername("alice")).thenReturn(suspended);
+
+        userChangeMarkers.markChanged(1L);
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(login.refreshToken()));
+        assertEquals(0L, store.size());
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        RefreshTokenService service = service(Duration.ofSeconds(10));
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh("no-separator"));
+        assertThrows(InvalidTokenException.class, () -> service.refresh("unknown.family"));
+    }
+
+    private RefreshTokenService service(Duration reuseGrace) {
+        return new RefreshTokenService(store, userChangeMarkers, userService, tokenRevocationService, meterRegistry,
+                60_000L, 60_000L, reuseGrace);
+    }
+}
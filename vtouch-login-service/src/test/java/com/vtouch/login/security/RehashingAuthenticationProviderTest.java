@@ -0,0 +1,83 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RehashingAuthenticationProviderTest {
+
+    private final UserDetails alice = User.withUsername("alice").password("old-hash").roles("USER").build();
+
+    private PasswordEncoder passwordEncoder;
+    private UserDetailsPasswordService userDetailsPasswordService;
+    private RequestCompletionExecutor requestCompletionExecutor;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches("secret", "old-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("new-hash");
+        userDetailsPasswordService = mock(UserDetailsPasswordService.class);
+        requestCompletionExecutor = new RequestCompletionExecutor(new SimpleMeterRegistry(), 1, 4, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestCompletionExecutor.shutdown();
+    }
+
+    @Test
+    void upgradesTheHashAfterTheLogin() {
+        PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(
+                new SimpleMeterRegistry(), 1, 4, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        try {
+            Authentication authentication = provider(passwordHashingExecutor).authenticate(login());
+
+            assertTrue(authentication.isAuthenticated());
+            verify(userDetailsPasswordService, timeout(5000)).updatePassword(alice, "new-hash");
+        } finally {
+            passwordHashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void skipsTheUpgradeInsteadOfFailingTheLoginWhenHashingIsSaturated() {
+        PasswordHashingExecutor passwordHashingExecutor = mock(PasswordHashingExecutor.class);
+        when(passwordHashingExecutor.submit(anyString(), any()))
+                .thenThrow(new SystemException.CapacityExceededException("password-hashing", Duration.ofSeconds(1)));
+
+        Authentication authentication = provider(passwordHashingExecutor).authenticate(login());
+
+        assertTrue(authentication.isAuthenticated());
+        verify(userDetailsPasswordService, never()).updatePassword(any(), any());
+    }
+
+    private RehashingAuthenticationProvider provider(PasswordHashingExecutor passwordHashingExecutor) {
+        return new RehashingAuthenticationProvider(username -> alice, userDetailsPasswordService, passwordEncoder,
+                passwordHashingExecutor, requestCompletionExecutor);
+    }
+
+    private static UsernamePasswordAuthenticationToken login() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("alice", "secret");
+    }
+}
@@ -0,0 +1,86 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCompletionExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCompletionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new RequestCompletionExecutor(meterRegistry, 1, 1, Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+        SecurityContextHolder.clearContext();
+        executor.shutdown();
+    }
+
+    @Test
+    void runsTasksWithTheContextOfTheRequestThatCapturedIt() throws Exception {
+        Authentication admin = new TestingAuthenticationToken("admin", null, "ROLE_ADMIN");
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        SecurityContextHolder.getContext().setAuthentication(admin);
+        Executor completion = executor.withCurrentContext();
+        LocaleContextHolder.resetLocaleContext();
+        SecurityContextHolder.clearContext();
+
+        // Completed on another thread, as when a hashing future completes
+        CompletableFuture<Object[]> seen = CompletableFuture.supplyAsync(() -> "hash")
+                .thenApplyAsync(hash -> new Object[] {LocaleContextHolder.getLocale(),
+                        SecurityContextHolder.getContext().getAuthentication()}, completion);
+
+        Object[] context = seen.get(5, TimeUnit.SECONDS);
+        assertEquals(Locale.ENGLISH, context[0]);
+        assertSame(admin, context[1]);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void saturatedExecutorRejectsWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Executor completion = executor.withCurrentContext();
+        completion.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        completion.execute(() -> { });
+
+        SystemException.CapacityExceededException rejected = assertThrows(SystemException.CapacityExceededException.class,
+                () -> completion.execute(() -> { }));
+        assertEquals(Duration.ofSeconds(3), rejected.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("request.completion.rejected").counter().count());
+        release.countDown();
+    }
+}
@@ -0,0 +1,119 @@
+package com.vtouch.login.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+
+import static com.vtouch.login.security.RouteAccess.authenticated;
+import static com.vtouch.login.security.RouteAccess.hasAnyRole;
+import static com.vtouch.login.security.RouteAccess.permitAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PATCH;
+
+class RouteTableTest {
+
+    private final RouteTable routeTable = RouteTable.builder()
+            .permitAll(List.of("/auth/**", "/v3/api-docs", "/swagger-ui/**"))
+            .route(GET, "/auth/me", authenticated())
+            .route(GET, "/users/*", hasAnyRole("ADMIN"))
+            .route(DELETE, "/users/*", hasAnyRole("ADMIN"))
+            .route(GET, "/users/*", authenticated())
+            .route(GET, "/users/search", hasAnyRole("ADMIN", "MODERATOR"))
+            .route(PATCH, "/users/*/status", hasAnyRole("ADMIN", "MODERATOR"))
+            .route(GET, "/users/username/*", authenticated())
+            .defaultAccess(authenticated())
+            .build();
+
+    @Test
+    void publicPatternsMatchForEveryMethodIncludingTheBarePrefix() {
+        assertTrue(routeTable.lookup("POST", "/auth/login").isPublic());
+        assertTrue(routeTable.lookup("OPTIONS", "/auth/refresh").isPublic());
+        assertTrue(routeTable.lookup("GET", "/swagger-ui").isPublic());
+        assertTrue(routeTable.lookup("GET", "/swagger-ui/index.html").isPublic());
+        assertTrue(routeTable.lookup("GET", "/v3/api-docs").isPublic());
+        assertFalse(routeTable.lookup("GET", "/v3/api-docs/extra").isPublic());
+    }
+
+    @Test
+    void mostSpecificRouteWins() {
+        // A literal beats the public /auth/** rule, so the JWT filter runs for /auth/me
+        assertEquals(authenticated(), routeTable.lookup("GET", "/auth/me"));
+        assertTrue(routeTable.lookup("POST", "/auth/me").isPublic());
+
+        assertEquals(hasAnyRole("ADMIN", "MODERATOR"), routeTable.lookup("GET", "/users/search"));
+        assertEquals(authenticated(), routeTable.lookup("GET", "/users/username/alice"));
+        assertEquals(hasAnyRole("ADMIN", "MODERATOR"), routeTable.lookup("PATCH", "/users/7/status"));
+    }
+
+    @Test
+    void firstDeclarationWinsOnTheSamePatternAndMethod() {
+        assertEquals(hasAnyRole("ADMIN"), routeTable.lookup("GET", "/users/7"));
+        assertEquals(hasAnyRole("ADMIN"), routeTable.lookup("DELETE", "/users/7"));
+    }
+
+    @Test
+    void unmatchedPathsAndMethodsFallBackToDefault() {
+        assertEquals(authenticated(), routeTable.lookup("PUT", "/users/7"));
+        assertEquals(authenticated(), routeTable.lookup("GET", "/users/7/unknown"));
+        assertEquals(authenticated(), routeTable.lookup("GET", "/"));
+        assertEquals(authenticated(), routeTable.lookup("TRACE", "/users/7"));
+    }
+
+    @Test
+    void repeatedAndTrailingSlashesAreIgnored() {
+        assertEquals(hasAnyRole("ADMIN"), routeTable.lookup("GET", "/users/7/"));
+        assertEquals(hasAnyRole("ADMIN"), routeTable.lookup("GET", "//users//7"));
+    }
+
+    @Test
+    void unsupportedPatternsAreRejectedAtBuildTime() {
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.builder().route("users", permitAll()));
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.builder().route("/users/*.json", permitAll()));
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.builder().route("/users/**/role", permitAll()));
+    }
+
+    @Test
+    void requestLookupUsesPathWithinContext() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/search");
+        request.setContextPath("/api");
+        request.setServletPath("/users/search");
+
+        assertEquals(hasAnyRole("ADMIN", "MODERATOR"), routeTable.lookup(request));
+    }
+
+    @Test
+    void authorizationManagerAppliesTheRouteDecision() {
+        RouteAuthorizationManager manager = new RouteAuthorizationManager(routeTable);
+        Authentication admin = user("ROLE_ADMIN");
+        Authentication plainUser = user("ROLE_USER");
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertTrue(manager.check(() -> anonymous, context("POST", "/auth/login")).isGranted());
+        assertFalse(manager.check(() -> anonymous, context("GET", "/auth/me")).isGranted());
+        assertTrue(manager.check(() -> plainUser, context("GET", "/auth/me")).isGranted());
+        assertFalse(manager.check(() -> plainUser, context("GET", "/users/7")).isGranted());
+        assertTrue(manager.check(() -> admin, context("GET", "/users/7")).isGranted());
+    }
+
+    private static Authentication user(String authority) {
+        return new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList(authority));
+    }
+
+    private static RequestAuthorizationContext context(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return new RequestAuthorizationContext(request);
+    }
+}
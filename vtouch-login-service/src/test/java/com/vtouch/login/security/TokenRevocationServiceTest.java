@@ -0,0 +1,163 @@
+package com.vtouch.login.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersSkipTheStore() {
+        CountingStore store = new CountingStore();
+        TokenRevocationService service = service(store);
+        ValidatedToken revoked = token();
+
+        assertTrue(service.revoke(revoked));
+        assertTrue(service.isRevoked(revoked));
+
+        store.lookups.set(0);
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(service.isRevoked(token()));
+        }
+        // Only filter false positives reach the store; at 0.1% that is a handful at most
+        assertTrue(store.lookups.get() < 50, "store lookups: " + store.lookups.get());
+    }
+
+    @Test
+    void remoteRevocationReachesLocalFilter() {
+        CountingStore store = new CountingStore();
+        TokenRevocationService service = service(store);
+        ValidatedToken token = token();
+
+        // Simulate another node writing to the shared store and announcing it
+        store.inner.revoke(token.tokenId(), Duration.ofMinutes(5));
+        assertFalse(service.isRevoked(token));
+        store.listener.accept(token.tokenId());
+
+        assertTrue(service.isRevoked(token));
+    }
+
+    @Test
+    void filterIsSeededFromStoreAtStartup() {
+        CountingStore store = new CountingStore();
+        ValidatedToken token = token();
+        store.inner.revoke(token.tokenId(), Duration.ofMinutes(5));
+
+        TokenRevocationService service = service(store);
+
+        assertTrue(service.isRevoked(token));
+    }
+
+    @Test
+    void unreachableStoreAtStartupChecksTheStoreUntilSeeded() {
+        CountingStore store = new CountingStore();
+        ValidatedToken token = token();
+        store.inner.revoke(token.tokenId(), Duration.ofMinutes(5));
+        store.unavailable = true;
+
+        TokenRevocationService service = service(store);
+        assertFalse(service.isSeeded());
+        store.unavailable = false;
+        assertTrue(service.isRevoked(token));
+
+        service.retrySeed();
+        assertTrue(service.isSeeded());
+        assertFalse(service.isRevoked(token()));
+        assertTrue(service.isRevoked(token));
+    }
+
+    @Test
+    void revocationSurvivesOneRotation() {
+        TokenRevocationService service = service(new CountingStore());
+        ValidatedToken token = token();
+        service.revoke(token);
+
+        service.rotate();
+        assertTrue(service.isRevoked(token));
+
+        service.rotate();
+        // Past two generations the filter forgets the entry; the token must have expired by then
+        assertFalse(service.isRevoked(token));
+    }
+
+    @Test
+    void tokensWithoutIdCannotBeRevoked() {
+        TokenRevocationService service = service(new CountingStore());
+        ValidatedToken legacy = new ValidatedToken("user", Instant.now(), Instant.now().plusSeconds(60), Map.of());
+
+        assertFalse(service.revoke(legacy));
+        assertFalse(service.isRevoked(legacy));
+    }
+
+    @Test
+    void reportsFilterMetrics() {
+        TokenRevocationService service = service(new CountingStore());
+        service.revoke(token());
+
+        double fpp = meterRegistry.get("jwt.revocation.filter.false-positive-rate").gauge().value();
+        double memory = meterRegistry.get("jwt.revocation.filter.memory").gauge().value();
+
+        assertTrue(fpp > 0 && fpp < 0.001);
+        assertEquals(service.filterMemoryBytes(), (long) memory);
+    }
+
+    private TokenRevocationService service(TokenRevocationStore store) {
+        return new TokenRevocationService(store, meterRegistry, 10_000, 0.001, 60_000L);
+    }
+
+    private static ValidatedToken token() {
+        Instant now = Instant.now();
+        return new ValidatedToken("user", now, now.plusSeconds(60), Map.of("jti", UUID.randomUUID().toString()));
+    }
+
+    private static final class CountingStore implements TokenRevocationStore {
+
+        private final InMemoryTokenRevocationStore inner = new InMemoryTokenRevocationStore();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private Consumer<String> listener = jti -> { };
+        private volatile boolean unavailable;
+
+        @Override
+        public void revoke(String jti, Duration ttl) {
+            inner.revoke(jti, ttl);
+        }
+
+        @Override
+        public boolean isRevoked(String jti) {
+            lookups.incrementAndGet();
+            return inner.isRevoked(jti);
+        }
+
+        @Override
+        public Set<String> revokedIds() {
+            if (unavailable) {
+                throw new IllegalStateException("store unavailable");
+            }
+            return inner.revokedIds();
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vtouch.login.security;
+
+import com.vtouch.login.config.JwtKeyStoreProperties;
+import com.vtouch.login.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(new JwtKeyStoreProperties(null, null, null, null, null),
+                event -> { }, SECRET, "HS256", 120_000L, Clock.systemUTC());
+        jwtService = new JwtService(keyRing, 60_000L, 120_000L, true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void concurrentCallersVerifyEachTokenOnce() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, true, 1_000, Duration.ofSeconds(30));
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add(token("user" + i));
+        }
+
+        int threads = 16;
+        int iterations = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    int index = (i + offset) % tokens.size();
+                    assertEquals("user" + index, cache.verify(tokens.get(index)).subject());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        double misses = meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+        double hits = meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count();
+        assertEquals(tokens.size(), misses);
+        assertEquals((double) threads * iterations - tokens.size(), hits);
+    }
+
+    @Test
+    void sizeStaysBoundedUnderKeyExplosion() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, true, 100, Duration.ofSeconds(30));
+        for (int i = 0; i < 1_000; i++) {
+            cache.verify(token("burst" + i));
+        }
+
+        assertTrue(cache.size() <= 100, "cache grew past its bound: " + cache.size());
+    }
+
+    @Test
+    void badSignatureIsCachedAsNegativeEntry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, true, 100, Duration.ofSeconds(30));
+        String valid = token("alice");
+        int signatureStart = valid.lastIndexOf('.') + 1;
+        char replacement = valid.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = valid.substring(0, signatureStart) + replacement + valid.substring(signatureStart + 1);
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify("not-a-jwt"));
+
+        double misses = meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+        assertEquals(2.0, misses);
+    }
+
+    @Test
+    void invalidateForcesReverification() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, true, 100, Duration.ofSeconds(30));
+        String token = token("bob");
+
+        cache.verify(token);
+        cache.invalidate(token);
+        cache.verify(token);
+
+        double misses = meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+        assertEquals(2.0, misses);
+    }
+
+    private String token(String username) {
+        return jwtService.generateToken(User.withUsername(username).password("n/a").roles("USER").build());
+    }
+}
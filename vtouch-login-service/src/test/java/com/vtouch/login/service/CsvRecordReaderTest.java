@@ -0,0 +1,70 @@
+package com.vtouch.login.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "username,email,firstName\r\n"
+                        + "alice,alice@example.com,\"Smith, Alice\"\r\n"
+                        + "\n"
+                        + "bob,,\"Bob \"\"the builder\"\"\"\n"), 1024);
+
+        assertEquals(List.of("username", "email", "firstName"), reader.next());
+        assertEquals(List.of("alice", "alice@example.com", "Smith, Alice"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("bob", "", "Bob \"the builder\""), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotesAndCountsLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,\"line one\nline two\"\nb,c"), 1024);
+
+        assertEquals(List.of("a", "line one\nline two"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("b", "c"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsOversizedAndUnterminatedRecords() {
+        assertThrows(IOException.class, () -> new CsvRecordReader(new StringReader("x".repeat(100)), 10).next());
+        assertThrows(IOException.class, () -> new CsvRecordReader(new StringReader("a,\"open"), 1024).next());
+    }
+
+    @Test
+    void skipsAnOversizedRecordAndReadsTheNextOne() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a," + "x".repeat(20) + ",\"quoted\nbreak\"\nb,c\n"), 10);
+
+        assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("b", "c"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void endsInputAfterAnUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\nc,\"open\nd"), 1024);
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+}
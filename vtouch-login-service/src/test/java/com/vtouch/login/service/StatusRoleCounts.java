@@ -0,0 +1,29 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserRepository;
+
+final class StatusRoleCounts {
+
+    private StatusRoleCounts() {
+    }
+
+    static UserRepository.StatusRoleCount row(User.UserStatus status, User.UserRole role, long count) {
+        return new UserRepository.StatusRoleCount() {
+            @Override
+            public User.UserStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public User.UserRole getRole() {
+                return role;
+            }
+
+            @Override
+            public long getUserCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UniqueViolationsTest {
+
+    @Test
+    void mapsUniqueViolationsToDuplicateErrors() {
+        User user = new User("alice", "alice@example.com", "hash", "Alice", "Smith");
+
+        BusinessException.DuplicateResourceException byName = UniqueViolations.toDuplicate(
+                violation("duplicate key value violates unique constraint \"uk_users_username\"", "uk_users_username"), user);
+        assertEquals("username", byName.getProperties().get("field"));
+
+        // Constraints created before they were named are recognised by the column in the driver message
+        BusinessException.DuplicateResourceException byEmail = UniqueViolations.toDuplicate(
+                violation("Key (email)=(alice@example.com) already exists.", "uk_r43af9ap4edm43mmtq01oddj6"), user);
+        assertEquals("email", byEmail.getProperties().get("field"));
+
+        assertNull(UniqueViolations.toDuplicate(
+                violation("null value in column \"first_name\" violates not-null constraint", null), user));
+    }
+
+    private static DataIntegrityViolationException violation(String message, String constraintName) {
+        SQLException sqlException = new SQLException(message, "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+}
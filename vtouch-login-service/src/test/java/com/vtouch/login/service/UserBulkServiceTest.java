@@ -0,0 +1,120 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.dto.request.BulkUserSelection;
+import com.vtouch.login.dto.response.BulkUpdateResponse;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.exception.BusinessException;
+import com.vtouch.login.repository.UserFilter;
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.UserChangeMarkers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static com.vtouch.login.service.StatusRoleCounts.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserBulkServiceTest {
+
+    private UserRepository userRepository;
+    private UserStatisticsService userStatisticsService;
+    private UserChangeMarkers userChangeMarkers;
+    private UserBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userStatisticsService = mock(UserStatisticsService.class);
+        userChangeMarkers = mock(UserChangeMarkers.class);
+        MessageService messageService = mock(MessageService.class);
+        when(messageService.getMessageWithDefault(anyString(), anyString())).thenReturn("Users updated");
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new UserBulkService(userRepository, userStatisticsService, userChangeMarkers, messageService,
+                transactionManager, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void changesSelectedIdsInSortedChunks() {
+        when(userRepository.updateUserStatus(anyList(), eq(User.UserStatus.SUSPENDED), any())).thenReturn(2, 0);
+        when(userRepository.countByStatusAndRoleForIds(List.of(1L, 2L))).thenReturn(List.of(
+                row(User.UserStatus.ACTIVE, User.UserRole.USER, 2)));
+        when(userRepository.countByStatusAndRoleForIds(List.of(3L))).thenReturn(List.of(
+                row(User.UserStatus.SUSPENDED, User.UserRole.USER, 1)));
+
+        BulkUpdateResponse response = service.changeStatus(
+                new BulkUserSelection(List.of(3L, 1L, 2L, 1L), null, null, null), User.UserStatus.SUSPENDED).getData();
+
+        assertEquals(new BulkUpdateResponse(3, 2, 2), response);
+        verify(userRepository).updateUserStatus(eq(List.of(1L, 2L)), eq(User.UserStatus.SUSPENDED), any());
+        verify(userRepository).updateUserStatus(eq(List.of(3L)), eq(User.UserStatus.SUSPENDED), any());
+        verify(userStatisticsService).recordChanged(User.UserStatus.ACTIVE, User.UserRole.USER,
+                User.UserStatus.SUSPENDED, User.UserRole.USER, 2);
+        verify(userChangeMarkers).markChanged(List.of(1L, 2L));
+        verify(userChangeMarkers).markChanged(List.of(3L));
+    }
+
+    @Test
+    void locksEachChunkBeforeCountingAndUpdatingIt() {
+        when(userRepository.countByStatusAndRoleForIds(anyList())).thenReturn(List.of());
+
+        service.changeRole(new BulkUserSelection(List.of(2L, 1L), null, null, null), User.UserRole.MODERATOR);
+
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).lockUsers(List.of(1L, 2L));
+        inOrder.verify(userRepository).countByStatusAndRoleForIds(List.of(1L, 2L));
+        inOrder.verify(userRepository).updateUserRole(eq(List.of(1L, 2L)), eq(User.UserRole.MODERATOR), any());
+    }
+
+    @Test
+    void reportsCommittedChunksWhenMarkingThemFails() {
+        when(userRepository.countByStatusAndRoleForIds(anyList())).thenReturn(List.of());
+        when(userRepository.updateUserStatus(anyList(), eq(User.UserStatus.INACTIVE), any())).thenReturn(2, 1);
+        doThrow(new IllegalStateException("Redis down")).when(userChangeMarkers).markChanged(List.of(1L, 2L));
+
+        BulkUpdateResponse response = service.changeStatus(
+                new BulkUserSelection(List.of(1L, 2L, 3L), null, null, null), User.UserStatus.INACTIVE).getData();
+
+        assertEquals(new BulkUpdateResponse(3, 3, 2), response);
+        verify(userChangeMarkers).markChanged(List.of(3L));
+    }
+
+    @Test
+    void walksFilteredUsersByIdUntilAShortChunk() {
+        UserFilter filter = UserFilter.search("spam", null, null);
+        when(userRepository.findUserIdsAfter(filter, 0, 2)).thenReturn(List.of(4L, 7L));
+        when(userRepository.findUserIdsAfter(filter, 7, 2)).thenReturn(List.of(9L));
+        when(userRepository.countByStatusAndRoleForIds(anyList())).thenReturn(List.of());
+        when(userRepository.softDeleteUsers(anyList(), any())).thenReturn(2, 1);
+
+        BulkUpdateResponse response = service.deleteUsers(new BulkUserSelection(null, "spam", null, null)).getData();
+
+        assertEquals(new BulkUpdateResponse(3, 3, 2), response);
+        verify(userRepository).softDeleteUsers(eq(List.of(9L)), any());
+    }
+
+    @Test
+    void rejectsSelectionsWithBothOrNeitherIdsAndFilters() {
+        assertThrows(BusinessException.ValidationException.class, () -> service.changeRole(
+                new BulkUserSelection(List.of(1L), null, User.UserStatus.ACTIVE, null), User.UserRole.ADMIN));
+        assertThrows(BusinessException.ValidationException.class, () -> service.changeRole(
+                new BulkUserSelection(List.of(), " ", null, null), User.UserRole.ADMIN));
+        verify(userRepository, never()).updateUserRole(anyList(), any(), any());
+    }
+}
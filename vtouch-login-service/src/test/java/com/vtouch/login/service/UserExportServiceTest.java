@@ -0,0 +1,74 @@
+package com.vtouch.login.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserFilter;
+import com.vtouch.login.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserExportService service;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.streamUsers(any(UserFilter.class), eq(100))).thenAnswer(invocation -> Stream.of(
+                new UserDTO(1L, "john", "john@example.com", "=HYPERLINK(\"x\")", "Smith", null,
+                        User.UserStatus.ACTIVE, User.UserRole.USER, CREATED, CREATED, 0),
+                new UserDTO(2L, "ann", "ann@example.com", "Ann, \"Jr\"", "O'Brien\nLee", "+123",
+                        User.UserStatus.SUSPENDED, User.UserRole.ADMIN, CREATED, null, 1))
+                .onClose(() -> closed.set(true)));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserExportService(userRepository, new ObjectMapper().findAndRegisterModules(), meterRegistry, 100);
+    }
+
+    @Test
+    void writesCsvWithQuotedFieldsAndNeutralisedFormulas() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = service.exportUsers(output, UserImportService.Format.CSV, null, null, null);
+
+        assertEquals(2, rows);
+        assertEquals(UserExportService.CSV_HEADER + "\r\n"
+                + "1,john,john@example.com,\"'=HYPERLINK(\"\"x\"\")\",Smith,,ACTIVE,USER,2024-01-02T03:04:05,2024-01-02T03:04:05\r\n"
+                + "2,ann,ann@example.com,\"Ann, \"\"Jr\"\"\",\"O'Brien\nLee\",'+123,SUSPENDED,ADMIN,2024-01-02T03:04:05,\r\n",
+                output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        service.exportUsers(output, UserImportService.Format.NDJSON, null, null, null);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"username\":\"john\""));
+        assertTrue(lines[1].contains("\"lastName\":\"O'Brien\\nLee\""));
+        assertTrue(closed.get());
+        assertEquals(2.0, meterRegistry.get("user.export.rows").counter().count());
+    }
+}
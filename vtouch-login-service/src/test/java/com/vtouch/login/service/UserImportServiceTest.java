@@ -0,0 +1,188 @@
+package com.vtouch.login.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vtouch.login.dto.response.UserImportResponse;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserRepository;
+import com.vtouch.login.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        entityManager = mock(EntityManager.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+        MessageService messageService = mock(MessageService.class);
+        when(messageService.getMessageWithDefault(anyString(), anyString())).thenReturn("Users imported");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(meterRegistry, 2, 16, Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        service = new UserImportService(userRepository, entityManager, passwordEncoder, passwordHashingExecutor,
+                mock(UsernameAvailabilityService.class), mock(UserStatisticsService.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), messageService,
+                transactionManager, meterRegistry, 2, 2, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertsValidRowsInChunks() throws Exception {
+        UserImportResponse response = importNdjson(user("alice"), user("bob"), user("carol"), user("dave"), user("erin"));
+
+        assertEquals(5, response.rows());
+        assertEquals(5, response.imported());
+        assertEquals(0, response.failed());
+        ArgumentCaptor<List<User>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(3)).saveAllAndFlush(chunks.capture());
+        assertEquals(List.of(2, 2, 1), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals("hash", chunks.getValue().get(0).getPassword());
+    }
+
+    @Test
+    void clearsThePersistenceContextAfterEveryChunk() throws Exception {
+        // Stands in for the request's open-in-view persistence context
+        List<Object> managed = new ArrayList<>();
+        List<Integer> managedAtSave = new ArrayList<>();
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            managedAtSave.add(managed.size());
+            managed.addAll(users);
+            return users;
+        });
+        doAnswer(invocation -> {
+            managed.clear();
+            return null;
+        }).when(entityManager).clear();
+
+        String[] users = new String[21];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = user("user" + i);
+        }
+        UserImportResponse response = importNdjson(users);
+
+        assertEquals(21, response.imported());
+        assertEquals(11, managedAtSave.size());
+        assertTrue(managedAtSave.stream().allMatch(size -> size == 0));
+        assertTrue(managed.isEmpty());
+    }
+
+    @Test
+    void retriesAChunkRowByRowAfterAConstraintViolation() throws Exception {
+        when(userRepository.saveAllAndFlush(anyList())).thenThrow(violation(User.USERNAME_CONSTRAINT));
+        when(userRepository.saveAndFlush(argThat((User user) -> "bob".equals(user.getUsername()))))
+                .thenThrow(violation(User.USERNAME_CONSTRAINT));
+
+        UserImportResponse response = importNdjson(user("alice"), user("bob"));
+
+        assertEquals(1, response.imported());
+        assertEquals(1, response.failed());
+        UserImportResponse.RowError error = response.errors().get(0);
+        assertEquals(2, error.line());
+        assertEquals("username", error.field());
+        assertEquals("DUPLICATE_RESOURCE", error.code());
+    }
+
+    @Test
+    void rejectsDuplicatesWithinAChunkBeforeInserting() throws Exception {
+        UserImportResponse response = importNdjson(user("alice"), user("alice"), user("bob"));
+
+        assertEquals(2, response.imported());
+        assertEquals(List.of(new UserImportResponse.RowError(2, "username", "DUPLICATE_RESOURCE",
+                "User with username 'alice' already exists")), response.errors());
+    }
+
+    @Test
+    void capsReportedErrorsButCountsEveryFailure() throws Exception {
+        UserImportResponse response = importNdjson("{", "{", "{", user("alice"));
+
+        assertEquals(1, response.imported());
+        assertEquals(3, response.failed());
+        assertEquals(2, response.errors().size());
+        assertTrue(response.errorsTruncated());
+    }
+
+    @Test
+    void skipsOverlongRowsWithoutLosingTheNextOne() throws Exception {
+        String overlong = "{\"username\":\"" + "x".repeat(70_000) + "\"}";
+
+        UserImportResponse response = importNdjson(overlong, user("alice"));
+
+        assertEquals(1, response.imported());
+        UserImportResponse.RowError error = response.errors().get(0);
+        assertEquals(1, error.line());
+        assertEquals("MALFORMED_ROW", error.code());
+        assertFalse(response.errorsTruncated());
+    }
+
+    @Test
+    void reportsMalformedCsvRecordsAndKeepsTheCounts() throws Exception {
+        String csv = "username,email,password,firstName,lastName\r\n"
+                + "alice,alice@example.com,password123,First,Last\r\n"
+                + "bob,bob@example.com,password123,\"" + "x".repeat(70_000) + "\",Last\r\n"
+                + "carol,carol@example.com,password123,First,Last\r\n"
+                + "dave,dave@example.com,password123,\"First,Last\r\n";
+
+        UserImportResponse response = service.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV).getData();
+
+        assertEquals(4, response.rows());
+        assertEquals(2, response.imported());
+        assertEquals(List.of(3L, 5L), response.errors().stream().map(UserImportResponse.RowError::line).toList());
+        assertTrue(response.errors().stream().allMatch(error -> "MALFORMED_ROW".equals(error.code())));
+    }
+
+    private UserImportResponse importNdjson(String... lines) throws Exception {
+        byte[] body = (String.join("\r\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        return service.importUsers(new ByteArrayInputStream(body), UserImportService.Format.NDJSON).getData();
+    }
+
+    private static String user(String username) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"password123\","
+                + "\"firstName\":\"First\",\"lastName\":\"Last\"}";
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        SQLException sqlException = new SQLException("duplicate key value violates unique constraint", "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+}
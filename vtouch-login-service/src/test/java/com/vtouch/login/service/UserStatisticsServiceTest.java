@@ -0,0 +1,89 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.dto.UserStatistics;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.vtouch.login.service.StatusRoleCounts.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserStatisticsServiceTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.countByStatusAndRole()).thenReturn(List.of(
+                row(User.UserStatus.ACTIVE, User.UserRole.USER, 80),
+                row(User.UserStatus.ACTIVE, User.UserRole.ADMIN, 5),
+                row(User.UserStatus.INACTIVE, User.UserRole.MODERATOR, 10),
+                row(User.UserStatus.DELETED, User.UserRole.USER, 5)));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserStatisticsService(userRepository, meterRegistry);
+    }
+
+    @Test
+    void loadsCountsOnceFromTheGroupedQuery() {
+        service.getStatistics();
+        UserStatistics statistics = service.getStatistics();
+
+        assertEquals(new UserStatistics(100, 85, 10, 0, 5, 5, 10, 85), statistics);
+        verify(userRepository, times(1)).countByStatusAndRole();
+    }
+
+    @Test
+    void followsCreationsAndChangesWithoutQuerying() {
+        service.reconcile();
+
+        service.recordCreated(User.UserStatus.ACTIVE, User.UserRole.USER);
+        service.recordChanged(User.UserStatus.ACTIVE, User.UserRole.USER, User.UserStatus.SUSPENDED, User.UserRole.USER);
+        service.recordChanged(User.UserStatus.INACTIVE, User.UserRole.MODERATOR, User.UserStatus.INACTIVE, User.UserRole.ADMIN);
+
+        assertEquals(new UserStatistics(101, 85, 10, 1, 5, 6, 9, 86), service.getStatistics());
+        verify(userRepository, times(1)).countByStatusAndRole();
+    }
+
+    @Test
+    void reconciliationCorrectsAndReportsDrift() {
+        service.reconcile();
+        // Counted in memory but never stored
+        service.recordCreated(User.UserStatus.ACTIVE, User.UserRole.USER);
+        service.recordCreated(User.UserStatus.ACTIVE, User.UserRole.USER);
+
+        service.reconcile();
+
+        assertEquals(100, service.getStatistics().totalUsers());
+        assertEquals(2.0, meterRegistry.get("user.statistics.drift").gauge().value());
+    }
+
+    @Test
+    void keepsChangesRecordedWhileTheQueryRuns() {
+        service.reconcile();
+        when(userRepository.countByStatusAndRole()).thenAnswer(invocation -> {
+            // Committed after the query read the table
+            service.recordCreated(User.UserStatus.ACTIVE, User.UserRole.USER);
+            return List.of(
+                    row(User.UserStatus.ACTIVE, User.UserRole.USER, 80),
+                    row(User.UserStatus.ACTIVE, User.UserRole.ADMIN, 5),
+                    row(User.UserStatus.INACTIVE, User.UserRole.MODERATOR, 10),
+                    row(User.UserStatus.DELETED, User.UserRole.USER, 5));
+        });
+
+        service.reconcile();
+
+        assertEquals(101, service.getStatistics().totalUsers());
+        assertEquals(0.0, meterRegistry.get("user.statistics.drift").gauge().value());
+    }
+}
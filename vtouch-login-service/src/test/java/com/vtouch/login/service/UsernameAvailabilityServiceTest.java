@@ -0,0 +1,82 @@
+package com.vtouch.login.service;
+
+import com.vtouch.login.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsernameAvailabilityServiceTest {
+
+    private UserRepository userRepository;
+    private UsernameAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.findUsernamesAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(row(1L, "alice"), row(2L, "bob")));
+        service = new UsernameAvailabilityService(userRepository, new SimpleMeterRegistry(), 1000, 0.001);
+    }
+
+    @Test
+    void unknownUsernamesAreAnsweredWithoutTheDatabase() {
+        service.rebuild();
+
+        assertTrue(service.isAvailable("carol"));
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    void filterHitsAreConfirmedAgainstTheDatabase() {
+        service.rebuild();
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertFalse(service.isAvailable("alice"));
+        verify(userRepository).existsByUsername("alice");
+    }
+
+    @Test
+    void newlyStoredUsernamesAreSeenByTheFilter() {
+        service.rebuild();
+        service.recordTaken("dave");
+        when(userRepository.existsByUsername("dave")).thenReturn(true);
+
+        assertFalse(service.isAvailable("dave"));
+    }
+
+    @Test
+    void fallsBackToTheDatabaseBeforeTheFilterIsBuilt() {
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertFalse(service.isAvailable("alice"));
+        assertTrue(service.isAvailable("carol"));
+    }
+
+    private static UserRepository.UsernameRow row(Long id, String username) {
+        return new UserRepository.UsernameRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+}
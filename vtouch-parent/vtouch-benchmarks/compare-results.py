@@ -0,0 +1,85 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and flag regressions.
+
+Usage: compare-results.py BASELINE.json CANDIDATE.json [--threshold PERCENT]
+
+Benchmarks are matched by name and parameters. A change counts as a regression when
+the candidate is worse by more than the threshold and the difference exceeds the
+combined error margins of both runs. Exits with status 1 if any regression is found.
+"""
+import argparse
+import json
+import sys
+
+# Modes where a larger score is better; all others (avgt, sample, ss) are times
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params") or {}
+            key = entry["benchmark"] + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+            metric = entry["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = {
+                "mode": entry["mode"],
+                "score": metric["score"],
+                "error": 0.0 if error in (None, "NaN") or error != error else float(error),
+                "unit": metric["scoreUnit"],
+            }
+        return results
+
+
+def short_name(key):
+    # com.vtouch.benchmarks.JwtBenchmark.validate algorithm=HS256 -> JwtBenchmark.validate algorithm=HS256
+    name, _, params = key.partition(" ")
+    parts = name.split(".")
+    return ".".join(parts[-2:]) + (" " + params if params else "")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=5.0, help="allowed slowdown in percent (default 5)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+
+    regressions = 0
+    rows = []
+    for key in sorted(set(baseline) | set(candidate)):
+        base, cand = baseline.get(key), candidate.get(key)
+        if base is None or cand is None:
+            rows.append((short_name(key), "-" if base is None else f"{base['score']:.3f}",
+                         "-" if cand is None else f"{cand['score']:.3f}", "", "missing in " + ("baseline" if base is None else "candidate")))
+            continue
+
+        change = (cand["score"] - base["score"]) / base["score"] * 100 if base["score"] else 0.0
+        worse = -change if base["mode"] in HIGHER_IS_BETTER else change
+        significant = abs(cand["score"] - base["score"]) > base["error"] + cand["error"]
+        if worse > args.threshold and significant:
+            verdict = "REGRESSION"
+            regressions += 1
+        elif worse < -args.threshold and significant:
+            verdict = "improved"
+        else:
+            verdict = ""
+        rows.append((short_name(key), f"{base['score']:.3f}", f"{cand['score']:.3f} {cand['unit']}", f"{change:+.1f}%", verdict))
+
+    widths = [max(len(row[i]) for row in rows + [("Benchmark", "Baseline", "Candidate", "Change", "")]) for i in range(5)]
+    header = ("Benchmark", "Baseline", "Candidate", "Change", "")
+    for row in [header] + rows:
+        print("  ".join(cell.ljust(widths[i]) for i, cell in enumerate(row)).rstrip())
+
+    if regressions:
+        print(f"\n{regressions} regression(s) above {args.threshold}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
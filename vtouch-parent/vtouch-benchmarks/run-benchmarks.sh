@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Build the benchmark jar and run JMH, writing machine-readable results.
+#
+# Usage: ./run-benchmarks.sh [output.json] [extra JMH args...]
+#   ./run-benchmarks.sh results/baseline.json
+#   ./run-benchmarks.sh results/candidate.json JwtBenchmark -p algorithm=HS256
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+OUTPUT="${1:-results/jmh-$(date +%Y%m%d-%H%M%S).json}"
+shift || true
+mkdir -p "$(dirname "$OUTPUT")"
+
+(cd ../../vtouch-login-service && mvn -B -q -DskipTests install)
+mvn -B -q -DskipTests package
+
+java -jar target/benchmarks.jar -rf json -rff "$OUTPUT" "$@"
+echo "Results written to $OUTPUT"
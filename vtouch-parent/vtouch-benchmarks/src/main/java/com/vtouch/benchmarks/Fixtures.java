@@ -0,0 +1,64 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.config.JwtKeyStoreProperties;
+import com.vtouch.login.entity.User;
+import com.vtouch.login.security.JwtKeyRing;
+import com.vtouch.login.service.JwtService;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+
+/**
+ * Builds service instances outside a Spring context, wiring injected fields by reflection
+ */
+final class Fixtures {
+
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private Fixtures() {
+    }
+
+    /**
+     * JwtService with a single-key ring for the given algorithm, configured as in production
+     * @param algorithm HS256, RS256, ES256 or EdDSA
+     * @return Initialized JwtService
+     */
+    static JwtService jwtService(String algorithm) {
+        return jwtService(algorithm, true);
+    }
+
+    /**
+     * JwtService with a single-key ring for the given algorithm
+     * @param algorithm HS256, RS256, ES256 or EdDSA
+     * @param fastEncoder Whether HS256 access tokens use the allocation-light encoder
+     * @return Initialized JwtService
+     */
+    static JwtService jwtService(String algorithm, boolean fastEncoder) {
+        JwtKeyRing keyRing = new JwtKeyRing(new JwtKeyStoreProperties(null, null, null, null, null),
+                event -> { }, SECRET, algorithm, 604_800_000L);
+        return new JwtService(keyRing, 86_400_000L, 604_800_000L, fastEncoder);
+    }
+
+    /**
+     * Fully populated user as loaded from the database
+     * @param id User ID
+     * @return User entity
+     */
+    static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@example.com", "$2a$10$abcdefghijklmnopqrstuv",
+                "First" + id, "Last" + id);
+        user.setId(id);
+        user.setPhoneNumber("+90555000" + String.format("%04d", id % 10_000));
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        user.setVersion(3);
+        return user;
+    }
+
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,72 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.security.ValidatedToken;
+import com.vtouch.login.security.VerifiedTokenCache;
+import com.vtouch.login.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification for every supported signing algorithm.
+ * {@code validate} is the full parse + signature check; {@code verifyCached} is the
+ * per-request path through {@link VerifiedTokenCache} once a token has been seen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtBenchmark {
+
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService(algorithm);
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), true, 10_000, Duration.ofSeconds(30));
+        user = Fixtures.user(42L);
+        token = jwtService.generateToken(user);
+        verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public ValidatedToken validate() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public ValidatedToken verifyCached() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public boolean validateAgainstUser() {
+        return jwtService.isTokenValid(jwtService.validateToken(token), user);
+    }
+}
@@ -0,0 +1,70 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request HS256 token check: the single {@link JwtService#validateToken} parse versus the path it replaced,
+ * where the filter read the username and {@code isTokenValid} then read it again together with the expiration,
+ * each time decoding the secret and building a new parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtParseBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService("HS256");
+        user = Fixtures.user(42L);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateOnce() {
+        return jwtService.isTokenValid(jwtService.validateToken(token), user);
+    }
+
+    @Benchmark
+    public boolean tripleParse() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    /**
+     * What each extractClaim call did before the parser was cached
+     */
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(Fixtures.SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
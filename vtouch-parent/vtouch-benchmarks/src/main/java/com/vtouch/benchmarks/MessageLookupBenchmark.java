@@ -0,0 +1,66 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.service.MessageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Localized message lookups with the same MessageSource settings as LocaleConfig
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MessageLookupBenchmark {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final Object[] ARGS = {"alice"};
+
+    private MessageService messageService;
+
+    @Setup
+    public void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setUseCodeAsDefaultMessage(true);
+        messageSource.setCacheSeconds(3600);
+
+        messageService = new MessageService();
+        Fixtures.setField(messageService, "messageSource", messageSource);
+    }
+
+    @Benchmark
+    public String defaultLocale() {
+        return messageService.getMessage("user.not.found");
+    }
+
+    @Benchmark
+    public String turkishLocale() {
+        return messageService.getMessage("user.not.found", TURKISH);
+    }
+
+    @Benchmark
+    public String withArguments() {
+        return messageService.getMessage("user.not.found", ARGS, null, TURKISH);
+    }
+
+    @Benchmark
+    public String missingKey() {
+        return messageService.getMessageWithDefault("no.such.key", "fallback");
+    }
+}
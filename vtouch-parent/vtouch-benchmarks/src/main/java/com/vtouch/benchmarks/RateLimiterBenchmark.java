@@ -0,0 +1,60 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.security.InMemoryRateLimiter;
+import com.vtouch.login.security.RateLimit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the in-memory rate limiter with 8 threads: all on one hot key (worst-case CAS contention,
+ * e.g. one attacking IP), and spread over a key space larger than the bounded map (credential stuffing
+ * with random usernames, which keeps the map evicting)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final int KEY_SPACE = 1_000_000;
+
+    private InMemoryRateLimiter limiter;
+    private RateLimit limit;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        limiter = new InMemoryRateLimiter(100_000, Duration.ofMinutes(15));
+        limit = new RateLimit(5, Duration.ofMinutes(1));
+        keys = new String[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = "user:user" + i;
+        }
+    }
+
+    @Benchmark
+    public Duration hotKey() {
+        return limiter.tryAcquire("ip:203.0.113.7", limit);
+    }
+
+    @Benchmark
+    public Duration randomKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)], limit);
+    }
+}
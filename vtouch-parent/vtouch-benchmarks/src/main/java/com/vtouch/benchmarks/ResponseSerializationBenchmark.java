@@ -0,0 +1,62 @@
+package com.vtouch.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.dto.response.ApiResponse;
+import com.vtouch.login.dto.response.PagedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response envelopes, using an ObjectMapper configured the way
+ * Spring MVC builds its own
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<UserDTO> userResponse;
+    private ApiResponse<PagedResponse<UserDTO>> pageResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userResponse = ApiResponse.success("User retrieved successfully", UserDTO.fromEntity(Fixtures.user(1L)));
+
+        List<UserDTO> users = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            users.add(UserDTO.fromEntity(Fixtures.user(id)));
+        }
+        pageResponse = ApiResponse.success("Users retrieved successfully",
+                new PagedResponse<>(users, 0, 20, 10_000, 500));
+    }
+
+    @Benchmark
+    public byte[] singleUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public byte[] userPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
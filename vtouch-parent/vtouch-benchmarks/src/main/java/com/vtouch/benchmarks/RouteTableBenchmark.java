@@ -0,0 +1,155 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.config.RouteTableConfig;
+import com.vtouch.login.config.SecurityProperties;
+import com.vtouch.login.security.RouteAccess;
+import com.vtouch.login.security.RouteTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request route authorization cost: the compiled {@link RouteTable} versus the chain it replaced, i.e. the
+ * filter's {@code startsWith} skip list followed by Ant-pattern request matchers tested in declaration order.
+ * Both run over the same mix of URLs, weighted towards the user API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RouteTableBenchmark {
+
+    private static final String CONTEXT_PATH = "/api";
+
+    private static final List<String> PUBLIC_ENDPOINTS = List.of(
+            "/auth/**", "/.well-known/**", "/actuator/**", "/v3/api-docs", "/v3/api-docs.yaml",
+            "/v3/api-docs/swagger-config", "/swagger-ui/**", "/swagger-resources/**", "/favicon.ico", "/error");
+
+    private static final String[][] REQUESTS = {
+            {"GET", "/users/42"},
+            {"GET", "/users"},
+            {"GET", "/users/search"},
+            {"PUT", "/users/42"},
+            {"GET", "/users/username/alice"},
+            {"PATCH", "/users/42/status"},
+            {"GET", "/auth/me"},
+            {"POST", "/auth/login"},
+            {"POST", "/auth/refresh"},
+            {"GET", "/locations/user/42/favorites"},
+            {"GET", "/actuator/health"},
+            {"GET", "/.well-known/jwks.json"},
+            {"GET", "/swagger-ui/index.html"},
+            {"GET", "/users/by-role/ADMIN"},
+            {"DELETE", "/users/42"},
+            {"GET", "/api/test/admin-only"},
+    };
+
+    private RouteTable routeTable;
+    private List<ChainRule> chain;
+    private AntPathMatcher pathMatcher;
+    private String[] requestUris;
+
+    @Setup
+    public void setUp() {
+        routeTable = new RouteTableConfig().routeTable(new SecurityProperties(PUBLIC_ENDPOINTS, null));
+        pathMatcher = new AntPathMatcher();
+        chain = legacyChain();
+        requestUris = new String[REQUESTS.length];
+        for (int i = 0; i < REQUESTS.length; i++) {
+            requestUris[i] = CONTEXT_PATH + REQUESTS[i][1];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void routeTable(Blackhole blackhole) {
+        for (String[] request : REQUESTS) {
+            RouteAccess access = routeTable.lookup(request[0], request[1]);
+            // The filter and the authorization manager each take one lookup
+            blackhole.consume(access.isPublic());
+            blackhole.consume(routeTable.lookup(request[0], request[1]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void matcherChain(Blackhole blackhole) {
+        for (int i = 0; i < REQUESTS.length; i++) {
+            blackhole.consume(legacyShouldNotFilter(requestUris[i]));
+            blackhole.consume(firstMatch(REQUESTS[i][0], REQUESTS[i][1]));
+        }
+    }
+
+    private String firstMatch(String method, String path) {
+        for (ChainRule rule : chain) {
+            if ((rule.method() == null || rule.method().equals(method)) && pathMatcher.match(rule.pattern(), path)) {
+                return rule.access();
+            }
+        }
+        return "authenticated";
+    }
+
+    private static boolean legacyShouldNotFilter(String path) {
+        return path.startsWith("/api/auth/") ||
+               path.startsWith("/api/health") ||
+               path.startsWith("/api/info") ||
+               path.startsWith("/api/simple") ||
+               path.startsWith("/api/v3/api-docs") ||
+               path.startsWith("/api/swagger-ui") ||
+               path.startsWith("/api/h2-console") ||
+               path.equals("/api/swagger-ui.html");
+    }
+
+    /**
+     * The request matchers SecurityConfig declared before the route table, in order
+     */
+    private static List<ChainRule> legacyChain() {
+        List<ChainRule> rules = new ArrayList<>();
+        PUBLIC_ENDPOINTS.forEach(pattern -> rules.add(new ChainRule(null, pattern, "permitAll")));
+        rules.add(new ChainRule(null, "/simple/hello", "permitAll"));
+        rules.add(new ChainRule("POST", "/users", "ADMIN,USER"));
+        rules.add(new ChainRule("PATCH", "/users/*/role", "ADMIN"));
+        rules.add(new ChainRule("DELETE", "/users/*", "ADMIN"));
+        rules.add(new ChainRule("GET", "/users/*", "ADMIN"));
+        rules.add(new ChainRule("GET", "/users", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/search", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/statistics", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/recent", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("PATCH", "/users/*/status", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/by-status/*", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/by-role/*", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("GET", "/users/*", "authenticated"));
+        rules.add(new ChainRule("PUT", "/users/*", "authenticated"));
+        rules.add(new ChainRule("GET", "/users/username/*", "authenticated"));
+        for (String pattern : List.of("admin-only", "admin-or-moderator", "authenticated", "complex-auth", "post-auth/*",
+                "custom-permission", "no-users", "current-user", "conditional-access")) {
+            rules.add(new ChainRule("GET", "/api/security-examples/" + pattern, "authenticated"));
+        }
+        rules.add(new ChainRule("PUT", "/api/security-examples/user/*", "authenticated"));
+        for (String pattern : List.of("admin-only", "admin-or-moderator", "authenticated", "current-user")) {
+            rules.add(new ChainRule("GET", "/api/test/" + pattern, "authenticated"));
+        }
+        rules.add(new ChainRule("POST", "/api/test/method-test", "ADMIN"));
+        rules.add(new ChainRule("PUT", "/api/test/method-test", "ADMIN,MODERATOR"));
+        rules.add(new ChainRule("DELETE", "/api/test/method-test", "ADMIN"));
+        return rules;
+    }
+
+    private record ChainRule(String method, String pattern, String access) {}
+}
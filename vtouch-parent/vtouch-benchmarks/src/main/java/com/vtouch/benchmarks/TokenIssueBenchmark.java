@@ -0,0 +1,49 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HS256 access token issuance through Jwts.builder() versus the allocation-light encoder.
+ * Run with {@code -prof gc} to compare bytes allocated per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+public class TokenIssueBenchmark {
+
+    @Param({"false", "true"})
+    private boolean fastEncoder;
+
+    private JwtService jwtService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService("HS256", fastEncoder);
+        user = Fixtures.user(42L);
+    }
+
+    @Benchmark
+    public String accessToken() {
+        return jwtService.generateToken(user, "q3V9cJ0w3m8Qy1o2nL4aHg");
+    }
+}
@@ -0,0 +1,81 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.entity.User;
+import com.vtouch.login.security.InMemoryReferenceTokenStore;
+import com.vtouch.login.security.ReferenceTokenService;
+import com.vtouch.login.security.TokenPrincipal;
+import com.vtouch.login.security.ValidatedToken;
+import com.vtouch.login.security.VerifiedTokenCache;
+import com.vtouch.login.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT versus opaque reference tokens: per-request resolution cost on a warm node and the
+ * Authorization header size each mode puts on the wire, reported as the {@code headerBytes} secondary
+ * result. Reference tokens are resolved against the in-memory store; with Redis a near-cache miss adds
+ * one round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TokenModeBenchmark {
+
+    @Param({"jwt", "opaque"})
+    private String mode;
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private ReferenceTokenService referenceTokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = Fixtures.jwtService("HS256");
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), true, 10_000, Duration.ofSeconds(30));
+        referenceTokenService = new ReferenceTokenService(new InMemoryReferenceTokenStore(), new SimpleMeterRegistry(),
+                86_400_000L, 10_000, Duration.ofSeconds(60));
+
+        User user = Fixtures.user(42L);
+        token = "jwt".equals(mode)
+                ? jwtService.generateToken(user, "q3V9cJ0w3m8Qy1o2nL4aHg")
+                : referenceTokenService.issue(TokenPrincipal.of(user), "q3V9cJ0w3m8Qy1o2nL4aHg");
+    }
+
+    @Benchmark
+    public ValidatedToken resolve(WireSize wireSize) {
+        return "jwt".equals(mode) ? verifiedTokenCache.verify(token) : referenceTokenService.resolve(token);
+    }
+
+    /**
+     * Bytes on the wire per request; set once per iteration, so the result is the header size itself
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+
+        public long headerBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(TokenModeBenchmark benchmark) {
+            headerBytes = "Authorization: Bearer ".length() + benchmark.token.length();
+        }
+    }
+}
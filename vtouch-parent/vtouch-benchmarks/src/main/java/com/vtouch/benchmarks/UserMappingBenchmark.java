@@ -0,0 +1,52 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for a single user and for a default-sized page of 20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserMappingBenchmark {
+
+    private User user;
+    private List<User> page;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1L);
+        page = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            page.add(Fixtures.user(id));
+        }
+    }
+
+    @Benchmark
+    public UserDTO fromEntity() {
+        return UserDTO.fromEntity(user);
+    }
+
+    @Benchmark
+    public List<UserDTO> fromEntityPage() {
+        return page.stream().map(UserDTO::fromEntity).toList();
+    }
+}
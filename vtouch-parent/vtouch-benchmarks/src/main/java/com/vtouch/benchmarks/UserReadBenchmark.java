@@ -0,0 +1,90 @@
+package com.vtouch.benchmarks;
+
+import com.vtouch.login.VTouchLoginServiceApplication;
+import com.vtouch.login.dto.UserDTO;
+import com.vtouch.login.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of users read through the login service's repository, in a read-only transaction as
+ * {@code UserService} reads it. The baseline loads managed {@code User} entities and maps them with
+ * {@code UserDTO.fromEntity}. The candidate selects {@code UserDTO} projections straight from JPQL. Both use
+ * the same page and sort, and both count. Add {@code -prof gc} and compare {@code gc.alloc.rate.norm} for the
+ * heap allocated per page. Needs a PostgreSQL database loaded with the {@code loadtest} profile; the login
+ * service context is started against it with the same {@code -Dbenchmark.jdbc.*} properties as
+ * {@link UserSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnly;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(VTouchLoginServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("benchmark.jdbc.url",
+                                "jdbc:postgresql://localhost:5432/vtouch_services_db?reWriteBatchedInserts=true"),
+                        "spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "postgres"),
+                        "spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", "password"),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        // Not the first page, so the offset is part of both queries
+        pageable = PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDTO> entities() {
+        return readOnly.execute(status -> userRepository.findAllActiveUsers(pageable).getContent().stream()
+                .map(UserDTO::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> projections() {
+        return readOnly.execute(status -> userRepository.findAllActiveUserDtos(pageable).getContent());
+    }
+}
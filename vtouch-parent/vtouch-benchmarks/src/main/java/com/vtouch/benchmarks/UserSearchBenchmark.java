@@ -0,0 +1,100 @@
+package com.vtouch.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of the admin user search against a real PostgreSQL database: the former four-column
+ * {@code LOWER(col) LIKE} query versus the statement {@code UserSearchRepositoryImpl} issues, which the
+ * {@code idx_users_search_trgm} trigram index serves. Needs a database loaded with the {@code loadtest} profile
+ * (1M users by default) and the login service started once so the index exists; pass the connection with
+ * {@code -jvmArgs "-Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/vtouch_services_db -Dbenchmark.jdbc.user=postgres -Dbenchmark.jdbc.password=password"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String LEGACY_SQL = "SELECT u.* FROM users u WHERE "
+            + "(LOWER(u.first_name) LIKE LOWER(CONCAT('%', ?, '%')) OR "
+            + "LOWER(u.last_name) LIKE LOWER(CONCAT('%', ?, '%')) OR "
+            + "LOWER(u.username) LIKE LOWER(CONCAT('%', ?, '%')) OR "
+            + "LOWER(u.email) LIKE LOWER(CONCAT('%', ?, '%'))) AND u.status = ? "
+            + "ORDER BY u.created_at DESC LIMIT 10";
+
+    private static final String SEARCH_EXPRESSION =
+            "(lower(u.first_name) || ' ' || lower(u.last_name) || ' ' || lower(u.username) || ' ' || lower(u.email))";
+    private static final String TRIGRAM_SQL = "SELECT u.* FROM users u WHERE "
+            + SEARCH_EXPRESSION + " LIKE ? ESCAPE '\\' AND u.status = ? "
+            + "ORDER BY word_similarity(?, " + SEARCH_EXPRESSION + ") DESC, u.created_at DESC, u.id ASC LIMIT 10";
+
+    /** A common name, a rare email fragment and a keyword with no match */
+    @Param({"mehmet", "yilmaz.4242", "zzqx"})
+    public String keyword;
+
+    private Connection connection;
+    private PreparedStatement legacy;
+    private PreparedStatement trigram;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/vtouch_services_db"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "password"));
+        legacy = connection.prepareStatement(LEGACY_SQL);
+        for (int i = 1; i <= 4; i++) {
+            legacy.setString(i, keyword);
+        }
+        legacy.setString(5, "ACTIVE");
+        trigram = connection.prepareStatement(TRIGRAM_SQL);
+        trigram.setString(1, '%' + keyword + '%');
+        trigram.setString(2, "ACTIVE");
+        trigram.setString(3, keyword);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int legacyLike() throws SQLException {
+        return drain(legacy);
+    }
+
+    @Benchmark
+    public int trigramIndex() throws SQLException {
+        return drain(trigram);
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}